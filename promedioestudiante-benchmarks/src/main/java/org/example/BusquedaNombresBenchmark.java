@@ -0,0 +1,66 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Búsqueda por pulsación del autocompletado frente a recorrer la lista de nombres comparando
+ * cada uno normalizado, que es lo que haría falta sin índice.
+ */
+@State(Scope.Benchmark)
+public class BusquedaNombresBenchmark {
+    private static final String[] NOMBRES = {"Ana", "Beatriz", "Carlos", "Débora", "Elías", "Fátima", "Gonzalo", "Inés", "José", "Lucía"};
+    private static final String[] APELLIDOS = {"López", "Martínez", "Núñez", "Pérez", "Rodríguez", "Sánchez", "Gómez", "Díaz", "Álvarez", "Muñoz"};
+
+    @Param({"50000"})
+    private int estudiantes;
+
+    private IndiceNombres indice;
+    private List<String> lista;
+    private String prefijo = "ana lo";
+    private String palabra = "munoz";
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        indice = new IndiceNombres();
+        lista = new ArrayList<>(estudiantes);
+        for (int i = 0; i < estudiantes; i++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " "
+                    + APELLIDOS[random.nextInt(APELLIDOS.length)] + " "
+                    + APELLIDOS[random.nextInt(APELLIDOS.length)] + " " + i;
+            indice.agregar(nombre);
+            lista.add(nombre);
+        }
+    }
+
+    @Benchmark
+    public List<String> indicePrefijo() {
+        return indice.buscar(prefijo, AutocompletadoTexto.MAX_SUGERENCIAS);
+    }
+
+    @Benchmark
+    public List<String> indicePalabra() {
+        return indice.buscar(palabra, AutocompletadoTexto.MAX_SUGERENCIAS);
+    }
+
+    @Benchmark
+    public List<String> recorridoLineal() {
+        String buscado = IndiceNombres.normalizar(prefijo);
+        List<String> resultado = new ArrayList<>();
+        for (String nombre : lista) {
+            if (IndiceNombres.normalizar(nombre).startsWith(buscado)) {
+                resultado.add(nombre);
+                if (resultado.size() >= AutocompletadoTexto.MAX_SUGERENCIAS) break;
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Promedio y regla de aprobación de calcularPromedio, por estudiante y por cohorte.
+ */
+@State(Scope.Thread)
+public class CalificacionBenchmark {
+    @Param({"100000"})
+    private int estudiantes;
+
+    private double[][] parciales;
+    private double[] promedios;
+    private boolean[] aprobados;
+    private double p1;
+    private double p2;
+    private double p3;
+
+    private int[][] parcialesCentesimas;
+    private int[] promediosCentesimas;
+    private EvaluadorCompilado evaluadorPonderado;
+    private EvaluadorCompilado evaluadorConDescarte;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        parciales = new double[MotorCalificaciones.NUM_PARCIALES][estudiantes];
+        for (double[] columna : parciales) {
+            for (int i = 0; i < estudiantes; i++) {
+                columna[i] = random.nextInt(1001) / 10.0;
+            }
+        }
+        promedios = new double[estudiantes];
+        aprobados = new boolean[estudiantes];
+        p1 = parciales[0][0];
+        p2 = parciales[1][0];
+        p3 = parciales[2][0];
+
+        parcialesCentesimas = new int[4][estudiantes];
+        for (int[] columna : parcialesCentesimas) {
+            for (int i = 0; i < estudiantes; i++) {
+                columna[i] = random.nextInt(NotaFija.MAX + 1);
+            }
+        }
+        promediosCentesimas = new int[estudiantes];
+        String[] componentes = {"Parcial 1", "Parcial 2", "Parcial 3", "Final"};
+        int[] pesos = {20, 20, 20, 40};
+        evaluadorPonderado = new PoliticaCalificacion("Ponderada", componentes, pesos, 0, 7000,
+                Collections.emptyMap()).compilar();
+        evaluadorConDescarte = new PoliticaCalificacion("Descarte", componentes, pesos, 1, 7000,
+                Collections.emptyMap()).compilar();
+    }
+
+    @Benchmark
+    public boolean promedioEstudiante() {
+        return MotorCalificaciones.aprobado(MotorCalificaciones.promedio(p1, p2, p3));
+    }
+
+    @Benchmark
+    public int calificarCohorte() {
+        return MotorCalificaciones.calificar(parciales, promedios, aprobados);
+    }
+
+    @Benchmark
+    public int politicaPonderada() {
+        return evaluadorPonderado.evaluar(parcialesCentesimas, null, promediosCentesimas, aprobados);
+    }
+
+    @Benchmark
+    public int politicaConDescarte() {
+        return evaluadorConDescarte.evaluar(parcialesCentesimas, null, promediosCentesimas, aprobados);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta los benchmarks midiendo rendimiento (operaciones por segundo) y tasa de asignación
+ * con el perfilador de GC. Acepta las opciones habituales de JMH en la línea de comandos,
+ * por ejemplo un patrón para ejecutar solo algunos benchmarks:
+ * <pre>java -jar target/benchmarks.jar Validacion</pre>
+ * Los valores predeterminados de este lanzador solo se aplican a las opciones que no se indiquen,
+ * así que {@code -f}, {@code -wi}, {@code -i}, {@code -w}, {@code -r}, {@code -bm} y {@code -tu}
+ * siempre mandan.
+ */
+public class EjecutarBenchmarks {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linea = new CommandLineOptions(args);
+        // Lo indicado en el constructor tiene prioridad sobre el padre: solo se completa lo que falta
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(linea);
+        if (linea.getBenchModes().isEmpty()) opciones.mode(Mode.Throughput);
+        if (!linea.getTimeUnit().hasValue()) opciones.timeUnit(TimeUnit.SECONDS);
+        if (!linea.getWarmupIterations().hasValue()) opciones.warmupIterations(3);
+        if (!linea.getWarmupTime().hasValue()) opciones.warmupTime(TimeValue.seconds(1));
+        if (!linea.getMeasurementIterations().hasValue()) opciones.measurementIterations(5);
+        if (!linea.getMeasurementTime().hasValue()) opciones.measurementTime(TimeValue.seconds(1));
+        if (!linea.getForkCount().hasValue()) opciones.forks(1);
+        if (!usaPerfilador(linea, "gc", GCProfiler.class)) opciones.addProfiler(GCProfiler.class);
+        new Runner(opciones.build()).run();
+    }
+
+    private static boolean usaPerfilador(CommandLineOptions linea, String alias, Class<?> clase) {
+        for (ProfilerConfig perfilador : linea.getProfilers()) {
+            if (perfilador.getKlass().equals(alias) || perfilador.getKlass().equals(clase.getName())) return true;
+        }
+        return false;
+    }
+}
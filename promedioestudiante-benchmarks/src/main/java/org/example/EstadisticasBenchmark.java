@@ -0,0 +1,50 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estadísticas de cohorte con pocos grupos (asignaturas) y con muchos (estudiantes):
+ * la versión paralela frente a la referencia secuencial.
+ */
+@State(Scope.Benchmark)
+public class EstadisticasBenchmark {
+    @Param({"1000000"})
+    private int filas;
+
+    @Param({"50", "20000"})
+    private int grupos;
+
+    private int[] notas;
+    private int[] codigos;
+    private String[] nombres;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        notas = new int[filas];
+        codigos = new int[filas];
+        for (int i = 0; i < filas; i++) {
+            notas[i] = random.nextInt(NotaFija.MAX + 1);
+            codigos[i] = random.nextInt(grupos);
+        }
+        nombres = new String[grupos];
+        for (int g = 0; g < grupos; g++) nombres[g] = "Asignatura " + g;
+    }
+
+    @Benchmark
+    public List<EstadisticasGrupo> paralelo() {
+        return EstadisticasCohorte.calcular(notas, codigos, nombres);
+    }
+
+    @Benchmark
+    public List<EstadisticasGrupo> secuencial() {
+        return EstadisticasCohorte.calcularSecuencial(notas, codigos, nombres);
+    }
+}
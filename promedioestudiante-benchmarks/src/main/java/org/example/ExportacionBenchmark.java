@@ -0,0 +1,68 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Exportación del historial completo a CSV: codificación propia sobre búferes directos frente a un
+ * {@link BufferedWriter} que arma cada línea con {@link String#format}.
+ */
+@State(Scope.Benchmark)
+public class ExportacionBenchmark {
+    @Param({"200000"})
+    private int filas;
+
+    private final ExportadorStreaming exportador = new ExportadorStreaming();
+    private EstadoAcademico estado;
+    private HistorialVersionado.Version version;
+    private Path directorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        estado = new EstadoAcademico();
+        for (int i = 0; i < filas; i++) {
+            estado.aplicar(new RegistroAsignatura("Estudiante " + (i % 20000), "Asignatura " + (i % 40), i % 10001, "2024-1"));
+        }
+        version = estado.getHistorial().actual();
+        directorio = Files.createTempDirectory("exportacion");
+    }
+
+    @TearDown
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(directorio.resolve("streaming.csv"));
+        Files.deleteIfExists(directorio.resolve("writer.csv"));
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        return exportador.exportarHistorial(directorio.resolve("streaming.csv"), ExportadorStreaming.Formato.CSV,
+                version, estado::evaluacionDe, null);
+    }
+
+    @Benchmark
+    public long writer() throws IOException {
+        long escritas = 0;
+        try (BufferedWriter salida = Files.newBufferedWriter(directorio.resolve("writer.csv"), StandardCharsets.UTF_8)) {
+            salida.write(String.join(",", ExportadorStreaming.COLUMNAS_EXPEDIENTE));
+            salida.newLine();
+            for (RegistroAsignatura r : version.todas()) {
+                salida.write(String.format(Locale.ROOT, "%s,%s,%.2f,%s,%s,,%n", r.getEstudiante(), r.getAsignatura(),
+                        NotaFija.aDouble(r.getNotaCentesimas()), r.getSemestre(), r.getEstado()));
+                escritas++;
+            }
+        }
+        return escritas;
+    }
+}
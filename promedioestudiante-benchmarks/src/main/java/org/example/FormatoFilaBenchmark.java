@@ -0,0 +1,46 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Formato de las filas del historial y del promedio de la pantalla de detalles:
+ * String.format ("%.1f"/"%.2f") frente al formato en punto fijo sobre un búfer reutilizable.
+ */
+@State(Scope.Thread)
+public class FormatoFilaBenchmark {
+    private double nota = 85.5;
+    private double promedio = 78.333333;
+    private final RegistroAsignatura registro = new RegistroAsignatura("Ana", "Matemáticas", 7850, "2024-1");
+    private final char[] bufer = new char[NotaFija.MAX_CARACTERES];
+    private int notaCentesimas = 8550;
+
+    @Benchmark
+    public String formatoNota() {
+        return String.format("%.1f", nota);
+    }
+
+    @Benchmark
+    public String formatoPromedio() {
+        return String.format("%.2f", promedio);
+    }
+
+    @Benchmark
+    public int formatoNotaFijaEnBufer() {
+        return NotaFija.formatear(notaCentesimas, 1, bufer, 0);
+    }
+
+    @Benchmark
+    public String formatoNotaFija() {
+        return NotaFija.aTexto(notaCentesimas, 1, bufer);
+    }
+
+    @Benchmark
+    public void formatoFilaCompleta(Blackhole bh) {
+        for (ModeloHistorial.Columna columna : ModeloHistorial.Columna.values()) {
+            bh.consume(ModeloHistorial.textoCelda(registro, columna, bufer));
+        }
+    }
+}
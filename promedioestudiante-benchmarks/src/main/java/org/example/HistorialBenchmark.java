@@ -0,0 +1,54 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Inserción masiva de filas en el modelo del historial, con y sin orden activo.
+ */
+@State(Scope.Thread)
+public class HistorialBenchmark {
+    private static final String[] ASIGNATURAS = {"Programación I", "Matemáticas", "Física", "Química", "Historia"};
+    private static final String[] SEMESTRES = {"2023-1", "2023-2", "2024-1", "2024-2"};
+
+    @Param({"10000"})
+    private int filas;
+
+    private RegistroAsignatura[] registros;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        registros = new RegistroAsignatura[filas];
+        for (int i = 0; i < filas; i++) {
+            registros[i] = new RegistroAsignatura("Estudiante " + (i % 500),
+                    ASIGNATURAS[random.nextInt(ASIGNATURAS.length)],
+                    random.nextInt(NotaFija.MAX + 1),
+                    SEMESTRES[random.nextInt(SEMESTRES.length)]);
+        }
+    }
+
+    @Benchmark
+    public ModeloHistorial insercionSinOrden() {
+        ModeloHistorial modelo = new ModeloHistorial();
+        for (RegistroAsignatura registro : registros) {
+            modelo.agregar(registro);
+        }
+        return modelo;
+    }
+
+    @Benchmark
+    public ModeloHistorial insercionOrdenadaPorNota() {
+        ModeloHistorial modelo = new ModeloHistorial();
+        modelo.ordenarPor(ModeloHistorial.Columna.NOTA, true);
+        for (RegistroAsignatura registro : registros) {
+            modelo.agregar(registro);
+        }
+        return modelo;
+    }
+}
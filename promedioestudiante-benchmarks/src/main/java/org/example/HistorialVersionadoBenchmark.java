@@ -0,0 +1,51 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coste de conservar una versión del historial por cambio: árbol persistente (copia del camino)
+ * frente a copiar la lista completa, que es lo que haría un deshacer ingenuo.
+ */
+@State(Scope.Benchmark)
+public class HistorialVersionadoBenchmark {
+    @Param({"100000"})
+    private int filas;
+
+    private ArbolPersistente<Integer, RegistroAsignatura> arbol;
+    private List<RegistroAsignatura> lista;
+    private RegistroAsignatura registro;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        arbol = ArbolPersistente.vacio();
+        lista = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            RegistroAsignatura fila = new RegistroAsignatura("Estudiante " + (i % 5000), "Asignatura " + (i % 40), i % 10001, "2024-1");
+            arbol = arbol.con(i, fila);
+            lista.add(fila);
+        }
+        registro = new RegistroAsignatura("Ana López", "Física", 8550, "2024-1");
+        siguiente = filas;
+    }
+
+    @Benchmark
+    public ArbolPersistente<Integer, RegistroAsignatura> versionArbol() {
+        // Alta y baja para que el tamaño no crezca entre iteraciones
+        return arbol.con(siguiente, registro).sin(siguiente);
+    }
+
+    @Benchmark
+    public List<RegistroAsignatura> versionCopiaLista() {
+        List<RegistroAsignatura> copia = new ArrayList<>(lista);
+        copia.add(registro);
+        return copia;
+    }
+}
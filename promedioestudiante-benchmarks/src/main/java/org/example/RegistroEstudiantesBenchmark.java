@@ -0,0 +1,96 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prueba de carga del registro de estudiantes con varios hilos a la vez, frente a un mapa protegido
+ * por un único bloqueo. Usa todos los núcleos; para ver cómo escala se compara con un solo hilo:
+ * <pre>java -jar target/benchmarks.jar RegistroEstudiantes -t 1
+ * java -jar target/benchmarks.jar RegistroEstudiantes -t 4</pre>
+ * El grupo {@code mixto} simula una importación que escribe mientras la interfaz y un cálculo leen.
+ */
+@State(Scope.Benchmark)
+public class RegistroEstudiantesBenchmark {
+    @Param({"100000"})
+    private int estudiantes;
+
+    private RegistroEstudiantes registro;
+    private Map<String, Estudiante> conBloqueo;
+    private String[] nombres;
+    private long[] ids;
+    private int[] notas = {8500, 7000, 9250};
+
+    @Setup
+    public void preparar() {
+        registro = new RegistroEstudiantes();
+        conBloqueo = new HashMap<>();
+        nombres = new String[estudiantes];
+        ids = new long[estudiantes];
+        for (int i = 0; i < estudiantes; i++) {
+            nombres[i] = "Estudiante " + i;
+            Estudiante estudiante = registro.registrar(nombres[i], notas, 8250, true);
+            ids[i] = estudiante.getId();
+            conBloqueo.put(nombres[i].toLowerCase(Locale.ROOT), estudiante);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Estudiante lectura() {
+        return registro.obtener(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Estudiante escritura() {
+        return registro.registrar(nombres[ThreadLocalRandom.current().nextInt(nombres.length)], notas, 8250, true);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Estudiante lecturaBloqueoGlobal() {
+        String clave = nombres[ThreadLocalRandom.current().nextInt(nombres.length)].toLowerCase(Locale.ROOT);
+        synchronized (conBloqueo) {
+            return conBloqueo.get(clave);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Estudiante escrituraBloqueoGlobal() {
+        String nombre = nombres[ThreadLocalRandom.current().nextInt(nombres.length)];
+        String clave = nombre.toLowerCase(Locale.ROOT);
+        synchronized (conBloqueo) {
+            Estudiante anterior = conBloqueo.get(clave);
+            Estudiante nuevo = new Estudiante(anterior.getId(), nombre, notas.clone(), 8250, true, anterior.getVersion() + 1);
+            conBloqueo.put(clave, nuevo);
+            return nuevo;
+        }
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(3)
+    public Estudiante mixtoLectura() {
+        return registro.obtener(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(1)
+    public Estudiante mixtoEscritura() {
+        return registro.registrar(nombres[ThreadLocalRandom.current().nextInt(nombres.length)], notas, 8250, true);
+    }
+}
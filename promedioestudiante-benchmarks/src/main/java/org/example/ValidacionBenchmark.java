@@ -0,0 +1,48 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Validación por pulsación de validarNumeroDecimal y conversión de la nota en agregarAsignatura,
+ * frente a la expresión regular y Double.parseDouble que se usaban antes del punto fijo.
+ */
+@State(Scope.Thread)
+public class ValidacionBenchmark {
+    private String digito = "7";
+    private String punto = ".";
+    private String letra = "a";
+    private String contenido = "85";
+    private String nota = "85.5";
+
+    @Benchmark
+    public boolean insercionDigito() {
+        return ValidadorNotas.permiteInsercion(contenido, contenido.length(), contenido.length(), digito);
+    }
+
+    @Benchmark
+    public boolean insercionPunto() {
+        return ValidadorNotas.permiteInsercion(contenido, contenido.length(), contenido.length(), punto);
+    }
+
+    @Benchmark
+    public boolean insercionLetra() {
+        return ValidadorNotas.permiteInsercion(contenido, contenido.length(), contenido.length(), letra);
+    }
+
+    @Benchmark
+    public boolean insercionDigitoRegex() {
+        return digito.matches("[0-9.]");
+    }
+
+    @Benchmark
+    public int parsearCentesimas() {
+        return ValidadorNotas.parsearCentesimas(nota);
+    }
+
+    @Benchmark
+    public double parsearDouble() {
+        return Double.parseDouble(nota);
+    }
+}
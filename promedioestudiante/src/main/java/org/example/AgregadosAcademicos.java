@@ -0,0 +1,205 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agregados mantenidos de forma incremental por estudiante, por semestre y por asignatura:
+ * cantidad, suma, mínimo, máximo y aprobadas. Cada alta o baja actualiza los tres agregados
+ * afectados sin recorrer el historial.
+ * Es seguro usarlo desde varios hilos.
+ */
+public class AgregadosAcademicos {
+
+    /**
+     * Valores de un agregado en un instante dado.
+     */
+    public static final class Resumen {
+        public static final Resumen VACIO = new Resumen(0, 0, -1, -1, 0);
+
+        private final int cantidad;
+        private final long sumaCentesimas;
+        private final int minimoCentesimas;
+        private final int maximoCentesimas;
+        private final int aprobadas;
+
+        private Resumen(int cantidad, long sumaCentesimas, int minimoCentesimas, int maximoCentesimas, int aprobadas) {
+            this.cantidad = cantidad;
+            this.sumaCentesimas = sumaCentesimas;
+            this.minimoCentesimas = minimoCentesimas;
+            this.maximoCentesimas = maximoCentesimas;
+            this.aprobadas = aprobadas;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public long getSumaCentesimas() {
+            return sumaCentesimas;
+        }
+
+        /**
+         * @return La nota mínima en centésimas, o -1 si no hay notas.
+         */
+        public int getMinimoCentesimas() {
+            return minimoCentesimas;
+        }
+
+        /**
+         * @return La nota máxima en centésimas, o -1 si no hay notas.
+         */
+        public int getMaximoCentesimas() {
+            return maximoCentesimas;
+        }
+
+        public int getAprobadas() {
+            return aprobadas;
+        }
+
+        /**
+         * @return El promedio simple en centésimas (redondeado), o 0 si no hay notas.
+         */
+        public int getPromedioCentesimas() {
+            return cantidad == 0 ? 0 : MotorCalificaciones.promedioCentesimas(sumaCentesimas, cantidad);
+        }
+
+        /**
+         * @return true si el promedio simple alcanza el umbral de aprobación (comparación exacta).
+         */
+        public boolean isAprobado() {
+            return cantidad > 0 && MotorCalificaciones.aprobadoPorSuma(sumaCentesimas, cantidad);
+        }
+    }
+
+    /**
+     * Acumulador de una clave. Para que las bajas no obliguen a recalcular el mínimo y el máximo se
+     * guardan las notas: ordenadas en un arreglo mientras son pocas (un estudiante) y, a partir de
+     * {@link #LIMITE_ORDENADAS}, como conteo denso por centésima (una asignatura o un semestre), donde
+     * una baja del extremo solo busca la siguiente casilla ocupada.
+     */
+    private static final class Acumulado {
+        private static final int LIMITE_ORDENADAS = 1024;
+
+        private int cantidad;
+        private long suma;
+        private int aprobadas;
+        private int[] ordenadas = new int[4];  // null en modo denso
+        private int[] conteoPorNota;           // Solo en modo denso
+        private int minimo = -1;               // Solo en modo denso
+        private int maximo = -1;
+
+        synchronized void sumar(int nota, boolean aprobada, int signo) {
+            if (signo > 0) {
+                agregarNota(nota);
+            } else if (!quitarNota(nota)) {
+                return; // La nota no estaba: nada que descontar
+            }
+            cantidad += signo;
+            suma += signo * (long) nota;
+            if (aprobada) aprobadas += signo;
+        }
+
+        private void agregarNota(int nota) {
+            if (ordenadas != null && cantidad == LIMITE_ORDENADAS) {
+                conteoPorNota = new int[NotaFija.MAX + 1];
+                for (int i = 0; i < cantidad; i++) conteoPorNota[ordenadas[i]]++;
+                minimo = ordenadas[0];
+                maximo = ordenadas[cantidad - 1];
+                ordenadas = null;
+            }
+            if (ordenadas == null) {
+                conteoPorNota[nota]++;
+                if (minimo < 0 || nota < minimo) minimo = nota;
+                if (nota > maximo) maximo = nota;
+                return;
+            }
+            int pos = Arrays.binarySearch(ordenadas, 0, cantidad, nota);
+            if (pos < 0) pos = -pos - 1;
+            if (cantidad == ordenadas.length) ordenadas = Arrays.copyOf(ordenadas, cantidad * 2);
+            System.arraycopy(ordenadas, pos, ordenadas, pos + 1, cantidad - pos);
+            ordenadas[pos] = nota;
+        }
+
+        private boolean quitarNota(int nota) {
+            if (ordenadas != null) {
+                int pos = Arrays.binarySearch(ordenadas, 0, cantidad, nota);
+                if (pos < 0) return false;
+                System.arraycopy(ordenadas, pos + 1, ordenadas, pos, cantidad - pos - 1);
+                return true;
+            }
+            if (conteoPorNota[nota] == 0) return false;
+            if (--conteoPorNota[nota] == 0) {
+                if (cantidad == 1) {
+                    minimo = -1;
+                    maximo = -1;
+                } else {
+                    while (conteoPorNota[minimo] == 0) minimo++;
+                    while (conteoPorNota[maximo] == 0) maximo--;
+                }
+            }
+            return true;
+        }
+
+        synchronized Resumen resumen() {
+            if (cantidad == 0) return Resumen.VACIO;
+            int min = ordenadas != null ? ordenadas[0] : minimo;
+            int max = ordenadas != null ? ordenadas[cantidad - 1] : maximo;
+            return new Resumen(cantidad, suma, min, max, aprobadas);
+        }
+    }
+
+    private final Map<String, Acumulado> porEstudiante = new ConcurrentHashMap<>();
+    private final Map<String, Acumulado> porSemestre = new ConcurrentHashMap<>();
+    private final Map<String, Acumulado> porAsignatura = new ConcurrentHashMap<>();
+
+    public void alta(RegistroAsignatura registro) {
+        aplicar(registro, 1);
+    }
+
+    public void baja(RegistroAsignatura registro) {
+        aplicar(registro, -1);
+    }
+
+    /**
+     * Da de alta muchas filas a la vez, por ejemplo al cargar una instantánea.
+     * @param clavesEstudiante La clave ({@link Estudiante#clave}) del estudiante de cada fila, ya calculada.
+     */
+    void altas(RegistroAsignatura[] registros, String[] clavesEstudiante) {
+        for (int i = 0; i < registros.length; i++) aplicar(registros[i], clavesEstudiante[i], 1);
+    }
+
+    public Resumen deEstudiante(String estudiante) {
+        return resumen(porEstudiante, Estudiante.clave(estudiante));
+    }
+
+    public Resumen deSemestre(String semestre) {
+        return resumen(porSemestre, semestre);
+    }
+
+    public Resumen deAsignatura(String asignatura) {
+        return resumen(porAsignatura, asignatura);
+    }
+
+    private void aplicar(RegistroAsignatura registro, int signo) {
+        aplicar(registro, Estudiante.clave(registro.getEstudiante()), signo);
+    }
+
+    private void aplicar(RegistroAsignatura registro, String claveEstudiante, int signo) {
+        int nota = registro.getNotaCentesimas();
+        boolean aprobada = registro.isAprobado();
+        acumulado(porEstudiante, claveEstudiante).sumar(nota, aprobada, signo);
+        acumulado(porSemestre, registro.getSemestre()).sumar(nota, aprobada, signo);
+        acumulado(porAsignatura, registro.getAsignatura()).sumar(nota, aprobada, signo);
+    }
+
+    private static Acumulado acumulado(Map<String, Acumulado> mapa, String clave) {
+        return mapa.computeIfAbsent(clave, k -> new Acumulado());
+    }
+
+    private static Resumen resumen(Map<String, Acumulado> mapa, String clave) {
+        Acumulado acumulado = mapa.get(clave);
+        return acumulado == null ? Resumen.VACIO : acumulado.resumen();
+    }
+}
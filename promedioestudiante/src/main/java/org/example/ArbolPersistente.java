@@ -0,0 +1,238 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa ordenado inmutable (árbol AVL persistente). Insertar o quitar no modifica el árbol: devuelve
+ * uno nuevo que copia solo el camino desde la raíz hasta el nodo cambiado, O(log n) nodos, y comparte
+ * el resto con la versión anterior. Conservar versiones antiguas cuesta por tanto O(log n) por cambio,
+ * y cualquier hilo puede leer una versión sin bloqueos mientras otro construye la siguiente.
+ */
+public final class ArbolPersistente<K, V> {
+    private final Comparator<? super K> orden;
+    private final Nodo<K, V> raiz;
+
+    private ArbolPersistente(Comparator<? super K> orden, Nodo<K, V> raiz) {
+        this.orden = orden;
+        this.raiz = raiz;
+    }
+
+    /**
+     * @return Un árbol vacío ordenado por el orden natural de las claves.
+     */
+    public static <K extends Comparable<? super K>, V> ArbolPersistente<K, V> vacio() {
+        return new ArbolPersistente<>(Comparator.naturalOrder(), null);
+    }
+
+    /**
+     * @return Un árbol vacío ordenado con el comparador dado.
+     */
+    public static <K, V> ArbolPersistente<K, V> vacio(Comparator<? super K> orden) {
+        return new ArbolPersistente<>(orden, null);
+    }
+
+    /**
+     * Construye en O(n) un árbol equilibrado a partir de claves ya ordenadas, sin rotaciones.
+     * @param claves Claves en orden estrictamente creciente.
+     * @param valores Valor de cada clave, en el mismo orden.
+     * @throws IllegalArgumentException si las claves no están en orden estrictamente creciente.
+     */
+    public static <K extends Comparable<? super K>, V> ArbolPersistente<K, V> desdeOrdenadas(K[] claves, V[] valores) {
+        if (claves.length != valores.length) {
+            throw new IllegalArgumentException("Hay " + claves.length + " claves y " + valores.length + " valores");
+        }
+        for (int i = 1; i < claves.length; i++) {
+            if (claves[i - 1].compareTo(claves[i]) >= 0) {
+                throw new IllegalArgumentException("Claves fuera de orden en la posición " + i);
+            }
+        }
+        return new ArbolPersistente<>(Comparator.naturalOrder(), construir(claves, valores, 0, claves.length));
+    }
+
+    private static <K, V> Nodo<K, V> construir(K[] claves, V[] valores, int desde, int hasta) {
+        if (desde >= hasta) return null;
+        int medio = (desde + hasta) >>> 1;
+        return new Nodo<>(claves[medio], valores[medio],
+                construir(claves, valores, desde, medio), construir(claves, valores, medio + 1, hasta));
+    }
+
+    public int tamano() {
+        return tamano(raiz);
+    }
+
+    public boolean isVacio() {
+        return raiz == null;
+    }
+
+    /**
+     * @return El valor de la clave, o null si no está.
+     */
+    public V obtener(K clave) {
+        Nodo<K, V> nodo = raiz;
+        while (nodo != null) {
+            int c = orden.compare(clave, nodo.clave);
+            if (c == 0) return nodo.valor;
+            nodo = c < 0 ? nodo.izquierdo : nodo.derecho;
+        }
+        return null;
+    }
+
+    /**
+     * @return Un árbol con la clave asociada al valor; este árbol no cambia.
+     */
+    public ArbolPersistente<K, V> con(K clave, V valor) {
+        return new ArbolPersistente<>(orden, insertar(raiz, clave, valor));
+    }
+
+    /**
+     * @return Un árbol sin la clave, o este mismo si no estaba.
+     */
+    public ArbolPersistente<K, V> sin(K clave) {
+        Nodo<K, V> nueva = quitar(raiz, clave);
+        return nueva == raiz ? this : new ArbolPersistente<>(orden, nueva);
+    }
+
+    /**
+     * Recorre en orden las entradas con clave entre {@code desde} y {@code hasta}, ambos inclusive.
+     * Un extremo null no limita. Solo se visitan los subárboles que pueden contener claves del rango.
+     */
+    public void recorrer(K desde, K hasta, BiConsumer<? super K, ? super V> accion) {
+        recorrer(raiz, desde, hasta, accion);
+    }
+
+    /**
+     * @return Los valores en orden de clave.
+     */
+    public List<V> valores() {
+        return valores(null, null);
+    }
+
+    /**
+     * @return Los valores con clave entre {@code desde} y {@code hasta} (inclusive), en orden de clave.
+     */
+    public List<V> valores(K desde, K hasta) {
+        List<V> valores = new ArrayList<>(desde == null && hasta == null ? tamano() : 16);
+        recorrer(desde, hasta, (clave, valor) -> valores.add(valor));
+        return valores;
+    }
+
+    /**
+     * Comprueba alturas, tamaños y el equilibrio AVL de todos los nodos. Solo para pruebas.
+     */
+    boolean invariantesValidos() {
+        return comprobar(raiz) >= 0;
+    }
+
+    /**
+     * @return La altura del subárbol, o -1 si algún nodo incumple los invariantes.
+     */
+    private static int comprobar(Nodo<?, ?> nodo) {
+        if (nodo == null) return 0;
+        int izquierdo = comprobar(nodo.izquierdo);
+        int derecho = comprobar(nodo.derecho);
+        if (izquierdo < 0 || derecho < 0 || Math.abs(izquierdo - derecho) > 1) return -1;
+        if (nodo.altura != Math.max(izquierdo, derecho) + 1) return -1;
+        if (nodo.tamano != tamano(nodo.izquierdo) + tamano(nodo.derecho) + 1) return -1;
+        return nodo.altura;
+    }
+
+    private void recorrer(Nodo<K, V> nodo, K desde, K hasta, BiConsumer<? super K, ? super V> accion) {
+        while (nodo != null) {
+            boolean sobreDesde = desde == null || orden.compare(nodo.clave, desde) >= 0;
+            boolean bajoHasta = hasta == null || orden.compare(nodo.clave, hasta) <= 0;
+            if (sobreDesde) recorrer(nodo.izquierdo, desde, hasta, accion);
+            if (sobreDesde && bajoHasta) accion.accept(nodo.clave, nodo.valor);
+            if (!bajoHasta) return;
+            nodo = nodo.derecho; // El subárbol derecho se sigue en el bucle, sin recursión
+        }
+    }
+
+    private Nodo<K, V> insertar(Nodo<K, V> nodo, K clave, V valor) {
+        if (nodo == null) return new Nodo<>(clave, valor, null, null);
+        int c = orden.compare(clave, nodo.clave);
+        if (c < 0) return balancear(nodo.clave, nodo.valor, insertar(nodo.izquierdo, clave, valor), nodo.derecho);
+        if (c > 0) return balancear(nodo.clave, nodo.valor, nodo.izquierdo, insertar(nodo.derecho, clave, valor));
+        return nodo.valor == valor ? nodo : new Nodo<>(nodo.clave, valor, nodo.izquierdo, nodo.derecho);
+    }
+
+    private Nodo<K, V> quitar(Nodo<K, V> nodo, K clave) {
+        if (nodo == null) return null;
+        int c = orden.compare(clave, nodo.clave);
+        if (c < 0) {
+            Nodo<K, V> izquierdo = quitar(nodo.izquierdo, clave);
+            return izquierdo == nodo.izquierdo ? nodo : balancear(nodo.clave, nodo.valor, izquierdo, nodo.derecho);
+        }
+        if (c > 0) {
+            Nodo<K, V> derecho = quitar(nodo.derecho, clave);
+            return derecho == nodo.derecho ? nodo : balancear(nodo.clave, nodo.valor, nodo.izquierdo, derecho);
+        }
+        if (nodo.izquierdo == null) return nodo.derecho;
+        if (nodo.derecho == null) return nodo.izquierdo;
+        Nodo<K, V> minimo = nodo.derecho;
+        while (minimo.izquierdo != null) minimo = minimo.izquierdo;
+        return balancear(minimo.clave, minimo.valor, nodo.izquierdo, quitarMinimo(nodo.derecho));
+    }
+
+    private static <K, V> Nodo<K, V> quitarMinimo(Nodo<K, V> nodo) {
+        if (nodo.izquierdo == null) return nodo.derecho;
+        return balancear(nodo.clave, nodo.valor, quitarMinimo(nodo.izquierdo), nodo.derecho);
+    }
+
+    /**
+     * Crea el nodo con rotaciones si las alturas de los hijos difieren en más de uno.
+     */
+    private static <K, V> Nodo<K, V> balancear(K clave, V valor, Nodo<K, V> izquierdo, Nodo<K, V> derecho) {
+        int alturaIzquierdo = altura(izquierdo);
+        int alturaDerecho = altura(derecho);
+        if (alturaIzquierdo > alturaDerecho + 1) {
+            if (altura(izquierdo.izquierdo) >= altura(izquierdo.derecho)) {
+                return new Nodo<>(izquierdo.clave, izquierdo.valor, izquierdo.izquierdo,
+                        new Nodo<>(clave, valor, izquierdo.derecho, derecho));
+            }
+            Nodo<K, V> medio = izquierdo.derecho;
+            return new Nodo<>(medio.clave, medio.valor,
+                    new Nodo<>(izquierdo.clave, izquierdo.valor, izquierdo.izquierdo, medio.izquierdo),
+                    new Nodo<>(clave, valor, medio.derecho, derecho));
+        }
+        if (alturaDerecho > alturaIzquierdo + 1) {
+            if (altura(derecho.derecho) >= altura(derecho.izquierdo)) {
+                return new Nodo<>(derecho.clave, derecho.valor,
+                        new Nodo<>(clave, valor, izquierdo, derecho.izquierdo), derecho.derecho);
+            }
+            Nodo<K, V> medio = derecho.izquierdo;
+            return new Nodo<>(medio.clave, medio.valor,
+                    new Nodo<>(clave, valor, izquierdo, medio.izquierdo),
+                    new Nodo<>(derecho.clave, derecho.valor, medio.derecho, derecho.derecho));
+        }
+        return new Nodo<>(clave, valor, izquierdo, derecho);
+    }
+
+    private static int altura(Nodo<?, ?> nodo) {
+        return nodo == null ? 0 : nodo.altura;
+    }
+
+    private static int tamano(Nodo<?, ?> nodo) {
+        return nodo == null ? 0 : nodo.tamano;
+    }
+
+    private static final class Nodo<K, V> {
+        final K clave;
+        final V valor;
+        final Nodo<K, V> izquierdo;
+        final Nodo<K, V> derecho;
+        final int altura;
+        final int tamano;
+
+        Nodo(K clave, V valor, Nodo<K, V> izquierdo, Nodo<K, V> derecho) {
+            this.clave = clave;
+            this.valor = valor;
+            this.izquierdo = izquierdo;
+            this.derecho = derecho;
+            this.altura = Math.max(altura(izquierdo), altura(derecho)) + 1;
+            this.tamano = tamano(izquierdo) + tamano(derecho) + 1;
+        }
+    }
+}
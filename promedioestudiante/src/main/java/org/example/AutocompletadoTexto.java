@@ -0,0 +1,130 @@
+package org.example;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.List;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+import java.util.function.Function;
+
+/**
+ * Lista desplegable de sugerencias bajo un campo de texto. La búsqueda se hace cuando el usuario
+ * deja de escribir durante {@link #ESPERA_MS} (con {@code Display.timerExec}, que reprograma el
+ * temporizador en cada tecla), así que una ráfaga de teclas genera una sola búsqueda.
+ * Flechas para moverse, Intro para aceptar y Escape para cerrar.
+ */
+public class AutocompletadoTexto {
+    public static final int ESPERA_MS = 120;
+    public static final int MAX_SUGERENCIAS = 8;
+
+    private final Text campo;
+    private final Function<String, java.util.List<String>> fuente;
+    private final Shell ventana;
+    private final List lista;
+    private final Runnable buscar = this::buscar;
+    private boolean aplicando;
+
+    /**
+     * @param campo Campo de texto a completar.
+     * @param fuente Devuelve las sugerencias para el texto escrito; se llama en el hilo de la interfaz.
+     */
+    public AutocompletadoTexto(Text campo, Function<String, java.util.List<String>> fuente) {
+        this.campo = campo;
+        this.fuente = fuente;
+        ventana = new Shell(campo.getShell(), SWT.ON_TOP | SWT.TOOL | SWT.NO_FOCUS);
+        ventana.setLayout(new FillLayout());
+        lista = new List(ventana, SWT.SINGLE | SWT.V_SCROLL);
+
+        campo.addListener(SWT.Modify, e -> {
+            if (aplicando) return;
+            campo.getDisplay().timerExec(ESPERA_MS, buscar);
+        });
+        campo.addListener(SWT.KeyDown, this::teclaEnCampo);
+        campo.addListener(SWT.FocusOut, e -> campo.getDisplay().asyncExec(() -> {
+            // Al hacer clic en la lista el foco sale del campo: solo se cierra si tampoco está en la lista
+            if (!ventana.isDisposed() && campo.getDisplay().getFocusControl() != lista) ocultar();
+        }));
+        campo.addListener(SWT.Dispose, e -> {
+            campo.getDisplay().timerExec(-1, buscar);
+            ventana.dispose();
+        });
+        lista.addListener(SWT.DefaultSelection, e -> aceptar());
+        lista.addListener(SWT.MouseUp, e -> aceptar());
+        campo.getShell().addListener(SWT.Move, e -> ocultar());
+        campo.getShell().addListener(SWT.Resize, e -> ocultar());
+    }
+
+    private void buscar() {
+        if (campo.isDisposed() || !campo.isFocusControl()) return;
+        String texto = campo.getText().trim();
+        java.util.List<String> sugerencias = texto.isEmpty() ? java.util.Collections.emptyList() : fuente.apply(texto);
+        // Si la única sugerencia es lo ya escrito no hace falta mostrar nada
+        if (sugerencias.isEmpty() || (sugerencias.size() == 1 && sugerencias.get(0).equals(texto))) {
+            ocultar();
+            return;
+        }
+        lista.setItems(sugerencias.toArray(new String[0]));
+        lista.select(0);
+        mostrar(sugerencias.size());
+    }
+
+    private void mostrar(int filas) {
+        Display display = campo.getDisplay();
+        Rectangle limites = campo.getBounds();
+        Point origen = display.map(campo.getParent(), null, limites.x, limites.y + limites.height);
+        int alto = lista.getItemHeight() * Math.min(filas, MAX_SUGERENCIAS) + 2 * lista.getBorderWidth() + 4;
+        ventana.setBounds(origen.x, origen.y, Math.max(limites.width, 150), alto);
+        if (!ventana.isVisible()) ventana.setVisible(true);
+    }
+
+    private void ocultar() {
+        if (!ventana.isDisposed() && ventana.isVisible()) ventana.setVisible(false);
+    }
+
+    private void teclaEnCampo(Event e) {
+        if (!ventana.isVisible()) return;
+        int cantidad = lista.getItemCount();
+        switch (e.keyCode) {
+            case SWT.ARROW_DOWN:
+                lista.select(Math.min(lista.getSelectionIndex() + 1, cantidad - 1));
+                lista.showSelection();
+                e.doit = false;
+                break;
+            case SWT.ARROW_UP:
+                lista.select(Math.max(lista.getSelectionIndex() - 1, 0));
+                lista.showSelection();
+                e.doit = false;
+                break;
+            case SWT.CR:
+            case SWT.KEYPAD_CR:
+                aceptar();
+                e.doit = false;
+                break;
+            case SWT.ESC:
+                ocultar();
+                e.doit = false;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void aceptar() {
+        int seleccion = lista.getSelectionIndex();
+        if (seleccion < 0) return;
+        aplicando = true;
+        try {
+            campo.setText(lista.getItem(seleccion));
+            campo.setSelection(campo.getCharCount());
+        } finally {
+            aplicando = false;
+        }
+        ocultar();
+        campo.setFocus();
+    }
+}
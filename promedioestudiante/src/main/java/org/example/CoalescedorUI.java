@@ -0,0 +1,102 @@
+package org.example;
+
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Agrupa las actualizaciones de la interfaz publicadas desde cualquier hilo y las aplica
+ * en un solo {@code Display.asyncExec} por cuadro, con el redibujado suspendido
+ * ({@code setRedraw(false/true)}) mientras se aplican.
+ */
+public class CoalescedorUI {
+    private static final int MS_POR_CUADRO = 16; // ~60 cuadros por segundo
+
+    private final Display display;
+    private final Control control;
+    private final Queue<Runnable> pendientes = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Runnable> ultimas = new ConcurrentHashMap<>();
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private final Runnable drenar = this::drenar;
+    private long ultimoDrenado;
+
+    /**
+     * @param display El Display del hilo de la interfaz.
+     * @param control Control cuyo redibujado se suspende mientras se aplican las actualizaciones.
+     */
+    public CoalescedorUI(Display display, Control control) {
+        this.display = display;
+        this.control = control;
+    }
+
+    /**
+     * Publica una actualización; todas se ejecutan en orden en el siguiente cuadro.
+     */
+    public void publicar(Runnable actualizacion) {
+        pendientes.add(actualizacion);
+        programar();
+    }
+
+    /**
+     * Publica una actualización que reemplaza a la anterior con la misma clave aún no aplicada,
+     * útil para avances donde solo importa el último valor.
+     */
+    public void publicarUltima(Object clave, Runnable actualizacion) {
+        ultimas.put(clave, actualizacion);
+        programar();
+    }
+
+    /**
+     * Descarta la actualización con esa clave que aún no se haya aplicado. Llamado desde el hilo
+     * de la interfaz, garantiza que no se aplicará después, por ejemplo al restaurar un control
+     * cuando termina la tarea que publicaba su avance.
+     */
+    public void descartar(Object clave) {
+        ultimas.remove(clave);
+    }
+
+    private void programar() {
+        if (programado.compareAndSet(false, true) && !display.isDisposed()) {
+            display.asyncExec(drenar);
+        }
+    }
+
+    private void drenar() {
+        // Si el cuadro anterior fue hace menos de MS_POR_CUADRO, se espera al siguiente
+        long esperaMs = MS_POR_CUADRO - (System.nanoTime() - ultimoDrenado) / 1_000_000;
+        if (esperaMs > 0) {
+            display.timerExec((int) esperaMs, drenar);
+            return;
+        }
+
+        programado.set(false);
+        List<Runnable> lote = new ArrayList<>();
+        Runnable actualizacion;
+        while ((actualizacion = pendientes.poll()) != null) {
+            lote.add(actualizacion);
+        }
+        // Solo se quita el valor leído: si un productor publicó otro mientras tanto, queda para el siguiente drenado
+        for (Map.Entry<Object, Runnable> entrada : ultimas.entrySet()) {
+            if (ultimas.remove(entrada.getKey(), entrada.getValue())) lote.add(entrada.getValue());
+        }
+        if (lote.isEmpty()) return;
+
+        boolean suspender = !control.isDisposed();
+        if (suspender) control.setRedraw(false);
+        try {
+            for (Runnable r : lote) {
+                r.run();
+            }
+        } finally {
+            if (suspender && !control.isDisposed()) control.setRedraw(true);
+            ultimoDrenado = System.nanoTime();
+        }
+    }
+}
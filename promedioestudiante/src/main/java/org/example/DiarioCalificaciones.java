@@ -0,0 +1,590 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Persistencia local de notas y evaluaciones mediante un diario de solo anexado.
+ * <p>
+ * Los eventos se aplican al {@link EstadoAcademico} en memoria al registrarlos y un único hilo
+ * escritor los agrupa en lotes: cada lote se escribe con una sola llamada al canal y un solo
+ * {@code force} (confirmación en grupo). Cada cierto número de eventos se escribe una instantánea
+ * completa y el diario se vacía; al abrir se carga la instantánea y solo se reproduce la cola del diario.
+ * La instantánea guarda las asignaturas en un archivo {@link HistorialColumnar} propio y, en
+ * {@code instantanea.bin}, la secuencia, el nombre de ese archivo y las evaluaciones; como el archivo
+ * columnar tiene un nombre nuevo en cada instantánea, reemplazar {@code instantanea.bin} cambia las dos
+ * partes a la vez.
+ * <p>
+ * Formato de cada entrada del diario: longitud (int), CRC32 (int), secuencia (long), tipo (byte) y datos.
+ * Una entrada incompleta o corrupta al final del archivo se descarta al abrir.
+ * <p>
+ * Las altas y bajas guardan su fecha, y la instantánea la fecha de alta de cada asignatura vigente, así
+ * que el {@link HistorialVersionado} recupera sus fechas al reabrir. Lo que se compacta son las bajas:
+ * una asignatura eliminada antes de una instantánea ya no aparece en las versiones anteriores a ella.
+ * <p>
+ * La cola hacia el escritor es acotada: si el disco no da abasto, quien registra espera en lugar de
+ * acumular eventos en memoria. El directorio se bloquea mientras el diario está abierto, de modo que
+ * la interfaz y el servicio no pueden escribir a la vez en los mismos archivos.
+ */
+public class DiarioCalificaciones implements AutoCloseable {
+    private static final String ARCHIVO_DIARIO = "diario.log";
+    private static final String ARCHIVO_INSTANTANEA = "instantanea.bin";
+    private static final String ARCHIVO_INSTANTANEA_TEMPORAL = "instantanea.tmp";
+    private static final String ARCHIVO_BLOQUEO = "diario.lock";
+    private static final String PREFIJO_COLUMNAR = "asignaturas-";
+    private static final String EXTENSION_COLUMNAR = ".col";
+    private static final int MAGIA_INSTANTANEA = 0x47455354;      // "GEST"
+    private static final int VERSION = 1;
+    private static final byte TIPO_ASIGNATURA = 1;                 // Nota en centésimas (int), estado y fecha
+    private static final byte TIPO_EVALUACION = 2;
+    private static final byte TIPO_BAJA_ASIGNATURA = 3;
+    private static final int CABECERA_ENTRADA = 8;                 // longitud + CRC32
+    private static final int MAX_LOTE = 4096;                      // Eventos por cada force
+    private static final int CAPACIDAD_COLA = 4 * MAX_LOTE;         // Eventos pendientes antes de esperar
+    private static final long EVENTOS_POR_INSTANTANEA = 100_000;   // Compactación periódica
+
+    private final Path directorio;
+    private final FileChannel canal;
+    private final FileLock bloqueo;
+    private final EstadoAcademico estado;
+    private final BlockingQueue<Pendiente> cola = new LinkedBlockingQueue<>(CAPACIDAD_COLA);
+    private final Thread escritor;
+
+    private long secuencia;               // Protegido por el monitor de this
+    private volatile boolean cerrado;
+
+    // Usados solo por el hilo escritor
+    private ByteBuffer bufferLote = ByteBuffer.allocateDirect(64 * 1024);
+    private long eventosDesdeInstantanea;
+
+    private DiarioCalificaciones(Path directorio, FileChannel canal, FileLock bloqueo, EstadoAcademico estado,
+                                 long eventosEnDiario) {
+        this.directorio = directorio;
+        this.canal = canal;
+        this.bloqueo = bloqueo;
+        this.estado = estado;
+        this.secuencia = estado.getUltimaSecuencia();
+        this.eventosDesdeInstantanea = eventosEnDiario;
+        this.escritor = new Thread(this::escribirLotes, "diario-calificaciones");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Abre (o crea) el diario en un directorio, cargando la última instantánea y reproduciendo el diario.
+     * @param directorio Directorio donde se guardan los archivos.
+     * @return El diario listo para registrar eventos.
+     * @throws IOException si los archivos no pueden leerse o crearse, o si otro proceso tiene abierto
+     *                     el diario en ese directorio.
+     */
+    public static DiarioCalificaciones abrir(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        FileLock bloqueo = bloquear(directorio);
+        FileChannel canal = null;
+        try {
+            EstadoAcademico estado = new EstadoAcademico();
+            Path instantanea = directorio.resolve(ARCHIVO_INSTANTANEA);
+            if (Files.exists(instantanea)) {
+                cargarInstantanea(directorio, instantanea, estado);
+            }
+
+            canal = FileChannel.open(directorio.resolve(ARCHIVO_DIARIO),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long eventos = reproducirDiario(canal, estado);
+            return new DiarioCalificaciones(directorio, canal, bloqueo, estado, eventos);
+        } catch (IOException | RuntimeException e) {
+            if (canal != null) canal.close();
+            bloqueo.channel().close();
+            throw e;
+        }
+    }
+
+    /**
+     * Toma el bloqueo exclusivo del directorio sin esperar. El sistema operativo lo libera si el
+     * proceso termina sin cerrar el diario.
+     */
+    private static FileLock bloquear(Path directorio) throws IOException {
+        FileChannel archivo = FileChannel.open(directorio.resolve(ARCHIVO_BLOQUEO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock bloqueo;
+        try {
+            bloqueo = archivo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            bloqueo = null; // Ya lo tiene abierto este mismo proceso
+        } catch (IOException | RuntimeException e) {
+            archivo.close();
+            throw e;
+        }
+        if (bloqueo == null) {
+            archivo.close();
+            throw new IOException("El directorio de datos ya está en uso por otra instancia: " + directorio);
+        }
+        return bloqueo;
+    }
+
+    /**
+     * @return El estado en memoria mantenido por el diario.
+     */
+    public EstadoAcademico getEstado() {
+        return estado;
+    }
+
+    /**
+     * Registra una asignatura con la hora actual. El estado se actualiza de inmediato.
+     * @return Un futuro que se completa cuando el evento es durable en disco.
+     */
+    public CompletableFuture<Void> registrar(RegistroAsignatura registro) {
+        long fecha = System.currentTimeMillis();
+        byte[] datos = codificar(TIPO_ASIGNATURA, salida -> escribirAsignatura(salida, registro, fecha));
+        synchronized (this) {
+            comprobarAbierto();
+            long seq = ++secuencia;
+            estado.aplicar(seq, fecha, registro);
+            return encolar(seq, datos);
+        }
+    }
+
+    /**
+     * Elimina una asignatura registrada. El estado se actualiza de inmediato. La baja se guarda con los
+     * datos de la asignatura, no con su número de fila, que cambia al compactar.
+     * @return Un futuro que se completa cuando el evento es durable en disco.
+     * @throws IllegalArgumentException si la asignatura no está registrada.
+     */
+    public CompletableFuture<Void> eliminar(RegistroAsignatura registro) {
+        long fecha = System.currentTimeMillis();
+        byte[] datos = codificar(TIPO_BAJA_ASIGNATURA, salida -> escribirAsignatura(salida, registro, fecha));
+        synchronized (this) {
+            comprobarAbierto();
+            if (estado.eliminar(secuencia + 1, fecha, registro) == null) {
+                throw new IllegalArgumentException("La asignatura no está registrada en el historial");
+            }
+            long seq = ++secuencia;
+            return encolar(seq, datos);
+        }
+    }
+
+    /**
+     * Registra una evaluación. El estado se actualiza de inmediato.
+     * @return Un futuro que se completa cuando el evento es durable en disco.
+     */
+    public CompletableFuture<Void> registrar(Evaluacion evaluacion) {
+        byte[] datos = codificar(TIPO_EVALUACION, salida -> {
+            escribirTexto(salida, evaluacion.getEstudiante());
+            escribirTexto(salida, evaluacion.getCalificacion());
+            escribirTexto(salida, evaluacion.getComentarios());
+            salida.writeLong(evaluacion.getFecha());
+        });
+        synchronized (this) {
+            comprobarAbierto();
+            long seq = ++secuencia;
+            estado.aplicar(seq, evaluacion);
+            return encolar(seq, datos);
+        }
+    }
+
+    /**
+     * Solicita escribir una instantánea y vaciar el diario.
+     * @return Un futuro que se completa al terminar la compactación.
+     */
+    public synchronized CompletableFuture<Void> compactar() {
+        comprobarAbierto();
+        Pendiente pendiente = new Pendiente(Pendiente.COMPACTAR, 0, null);
+        poner(pendiente);
+        return pendiente.futuro;
+    }
+
+    /**
+     * Escribe los eventos pendientes y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrado) return;
+            cerrado = true;
+            poner(new Pendiente(Pendiente.CERRAR, 0, null));
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                canal.close();
+            } finally {
+                bloqueo.channel().close();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> encolar(long seq, byte[] datos) {
+        Pendiente pendiente = new Pendiente(Pendiente.DATOS, seq, datos);
+        poner(pendiente);
+        return pendiente.futuro;
+    }
+
+    /**
+     * Encola esperando si la cola está llena. No se admite interrupción: el evento ya se aplicó al
+     * estado en memoria y debe llegar al disco; la marca de interrupción se restaura al terminar.
+     */
+    private void poner(Pendiente pendiente) {
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                cola.put(pendiente);
+                break;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+    }
+
+    private void comprobarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El diario está cerrado");
+        }
+    }
+
+    private void escribirLotes() {
+        List<Pendiente> lote = new ArrayList<>(MAX_LOTE);
+        boolean continuar = true;
+        while (continuar) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                continue; // Solo se termina con la marca de cierre, para no perder eventos
+            }
+            cola.drainTo(lote, MAX_LOTE - 1);
+
+            boolean compactar = false;
+            for (Pendiente pendiente : lote) {
+                compactar |= pendiente.tipo == Pendiente.COMPACTAR;
+                continuar &= pendiente.tipo != Pendiente.CERRAR;
+            }
+
+            // Los eventos se confirman en cuanto son durables, antes de una posible compactación
+            try {
+                escribirLote(lote);
+                completar(lote, Pendiente.DATOS, null);
+            } catch (IOException | RuntimeException e) {
+                completar(lote, Pendiente.DATOS, e);
+            }
+
+            try {
+                if (compactar || eventosDesdeInstantanea >= EVENTOS_POR_INSTANTANEA
+                        || (!continuar && eventosDesdeInstantanea >= EVENTOS_POR_INSTANTANEA / 10)) {
+                    escribirInstantanea();
+                }
+                completar(lote, Pendiente.COMPACTAR, null);
+            } catch (IOException | RuntimeException e) {
+                completar(lote, Pendiente.COMPACTAR, e);
+            }
+            completar(lote, Pendiente.CERRAR, null);
+            lote.clear();
+        }
+    }
+
+    private static void completar(List<Pendiente> lote, int tipo, Throwable error) {
+        for (Pendiente pendiente : lote) {
+            if (pendiente.tipo != tipo) continue;
+            if (error == null) {
+                pendiente.futuro.complete(null);
+            } else {
+                pendiente.futuro.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void escribirLote(List<Pendiente> lote) throws IOException {
+        int total = 0;
+        int eventos = 0;
+        for (Pendiente pendiente : lote) {
+            if (pendiente.datos != null) {
+                total += CABECERA_ENTRADA + pendiente.datos.length;
+                eventos++;
+            }
+        }
+        if (eventos == 0) return;
+
+        if (bufferLote.capacity() < total) {
+            bufferLote = ByteBuffer.allocateDirect(Math.max(total, bufferLote.capacity() * 2));
+        }
+        bufferLote.clear();
+        CRC32 crc = new CRC32();
+        for (Pendiente pendiente : lote) {
+            if (pendiente.datos == null) continue;
+            crc.reset();
+            crc.update(pendiente.datos);
+            bufferLote.putInt(pendiente.datos.length);
+            bufferLote.putInt((int) crc.getValue());
+            bufferLote.put(pendiente.datos);
+        }
+        bufferLote.flip();
+        long inicio = canal.position();
+        try {
+            while (bufferLote.hasRemaining()) {
+                canal.write(bufferLote);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            // Se retira el lote parcial para que las siguientes entradas sigan siendo legibles
+            canal.truncate(inicio);
+            canal.position(inicio);
+            throw e;
+        }
+        eventosDesdeInstantanea += eventos;
+    }
+
+    private void escribirInstantanea() throws IOException {
+        EstadoAcademico.Copia copia = estado.copiar();
+
+        // Nunca se reescribe el archivo columnar al que apunta la instantánea vigente
+        String columnar = PREFIJO_COLUMNAR + copia.ultimaSecuencia + EXTENSION_COLUMNAR;
+        for (int n = 1; Files.exists(directorio.resolve(columnar)); n++) {
+            columnar = PREFIJO_COLUMNAR + copia.ultimaSecuencia + "-" + n + EXTENSION_COLUMNAR;
+        }
+        HistorialColumnar.escribir(directorio.resolve(columnar), copia.asignaturas, copia.fechasAlta);
+
+        Path temporal = directorio.resolve(ARCHIVO_INSTANTANEA_TEMPORAL);
+        try (FileChannel archivo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(archivo), 1 << 16));
+            salida.writeInt(MAGIA_INSTANTANEA);
+            salida.writeInt(VERSION);
+            salida.writeLong(copia.ultimaSecuencia);
+            escribirTexto(salida, columnar);
+            salida.writeInt(copia.asignaturas.size());
+            salida.writeInt(copia.evaluaciones.size());
+            for (Evaluacion evaluacion : copia.evaluaciones) {
+                escribirTexto(salida, evaluacion.getEstudiante());
+                escribirTexto(salida, evaluacion.getCalificacion());
+                escribirTexto(salida, evaluacion.getComentarios());
+                salida.writeLong(evaluacion.getFecha());
+            }
+            salida.writeInt(MAGIA_INSTANTANEA);
+            salida.flush();
+            archivo.force(true);
+        }
+        Files.move(temporal, directorio.resolve(ARCHIVO_INSTANTANEA),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // El cambio de nombre debe ser durable antes de vaciar el diario
+        sincronizarDirectorio(directorio);
+
+        // Todo lo escrito hasta ahora está en la instantánea; los eventos aún en cola con una
+        // secuencia ya incluida se escribirán de nuevo y se ignorarán al reproducir.
+        canal.truncate(0);
+        canal.position(0);
+        canal.force(true);
+        eventosDesdeInstantanea = 0;
+        borrarColumnaresAntiguos(columnar);
+    }
+
+    /**
+     * Borra los archivos columnares de instantáneas anteriores o interrumpidas. Un archivo que no
+     * se pueda borrar (en Windows, si sigue mapeado) se intenta de nuevo en la siguiente instantánea.
+     */
+    private void borrarColumnaresAntiguos(String vigente) {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio,
+                PREFIJO_COLUMNAR + "*" + EXTENSION_COLUMNAR)) {
+            for (Path archivo : archivos) {
+                if (archivo.getFileName().toString().equals(vigente)) continue;
+                try {
+                    Files.deleteIfExists(archivo);
+                } catch (IOException e) {
+                    // Se reintenta en la siguiente instantánea
+                }
+            }
+        } catch (IOException e) {
+            // Solo se pierde espacio en disco
+        }
+    }
+
+    private static void sincronizarDirectorio(Path directorio) {
+        try (FileChannel entradas = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            entradas.force(true);
+        } catch (IOException e) {
+            // Windows no permite abrir un directorio como canal; allí el movimiento ya es durable
+        }
+    }
+
+    private static void cargarInstantanea(Path directorio, Path archivo, EstadoAcademico estado) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo), 1 << 16))) {
+            int version = entrada.readInt() == MAGIA_INSTANTANEA ? entrada.readInt() : -1;
+            if (version != VERSION) {
+                throw new IOException("Instantánea con formato desconocido: " + archivo);
+            }
+            long ultimaSecuencia = entrada.readLong();
+            HistorialColumnar columnar = HistorialColumnar.abrir(directorio.resolve(leerTexto(entrada)));
+            int asignaturas = entrada.readInt();
+            if (columnar.filas() != asignaturas) {
+                throw new IOException("La instantánea no coincide con su archivo de asignaturas: " + archivo);
+            }
+            estado.cargar(ultimaSecuencia, columnar);
+            int evaluaciones = entrada.readInt();
+            for (int i = 0; i < evaluaciones; i++) {
+                estado.aplicar(ultimaSecuencia, leerEvaluacion(entrada));
+            }
+            if (entrada.readInt() != MAGIA_INSTANTANEA) {
+                throw new IOException("Instantánea incompleta: " + archivo);
+            }
+            estado.setUltimaSecuencia(ultimaSecuencia);
+        }
+    }
+
+    private static long reproducirDiario(FileChannel canal, EstadoAcademico estado) throws IOException {
+        long desdeInstantanea = estado.getUltimaSecuencia();
+        long posicionValida = 0;
+        long eventos = 0;
+        CRC32 crc = new CRC32();
+
+        canal.position(0);
+        InputStream flujo = new BufferedInputStream(Channels.newInputStream(canal), 1 << 16);
+        DataInputStream entrada = new DataInputStream(flujo);
+        try {
+            while (true) {
+                int longitud = entrada.readInt();
+                int suma = entrada.readInt();
+                if (longitud <= 9 || longitud > canal.size()) break;
+                byte[] datos = new byte[longitud];
+                entrada.readFully(datos);
+                crc.reset();
+                crc.update(datos);
+                if ((int) crc.getValue() != suma) break;
+
+                DataInputStream evento = new DataInputStream(new ByteArrayInputStream(datos));
+                long seq = evento.readLong();
+                byte tipo = evento.readByte();
+                if (tipo != TIPO_ASIGNATURA && tipo != TIPO_EVALUACION && tipo != TIPO_BAJA_ASIGNATURA) break;
+                if (seq > desdeInstantanea) {
+                    if (tipo == TIPO_EVALUACION) {
+                        estado.aplicar(seq, leerEvaluacion(evento));
+                    } else {
+                        RegistroAsignatura registro = leerAsignatura(evento);
+                        long fecha = evento.readLong();
+                        if (tipo == TIPO_BAJA_ASIGNATURA) {
+                            estado.eliminar(seq, fecha, registro);
+                        } else {
+                            estado.aplicar(seq, fecha, registro);
+                        }
+                    }
+                }
+                posicionValida += CABECERA_ENTRADA + longitud;
+                eventos++;
+            }
+        } catch (EOFException e) {
+            // Fin del diario o entrada incompleta
+        }
+
+        // Se descarta una cola incompleta (por ejemplo, tras un corte durante la escritura)
+        if (posicionValida < canal.size()) {
+            canal.truncate(posicionValida);
+        }
+        canal.position(posicionValida);
+        return eventos;
+    }
+
+    private static void escribirAsignatura(DataOutputStream salida, RegistroAsignatura registro, long fecha)
+            throws IOException {
+        escribirTexto(salida, registro.getEstudiante());
+        escribirTexto(salida, registro.getAsignatura());
+        salida.writeInt(registro.getNotaCentesimas());
+        escribirTexto(salida, registro.getSemestre());
+        salida.writeBoolean(registro.isAprobado());
+        salida.writeLong(fecha);
+    }
+
+    private static RegistroAsignatura leerAsignatura(DataInputStream entrada) throws IOException {
+        String estudiante = leerTexto(entrada);
+        String asignatura = leerTexto(entrada);
+        int nota = entrada.readInt();
+        String semestre = leerTexto(entrada);
+        boolean aprobado = entrada.readBoolean();
+        return new RegistroAsignatura(estudiante, asignatura, nota, semestre, aprobado);
+    }
+
+    private static Evaluacion leerEvaluacion(DataInputStream entrada) throws IOException {
+        String estudiante = leerTexto(entrada);
+        String calificacion = leerTexto(entrada);
+        String comentarios = leerTexto(entrada);
+        long fecha = entrada.readLong();
+        return new Evaluacion(estudiante, calificacion, comentarios, fecha);
+    }
+
+    private interface Escritura {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+
+    private byte[] codificar(byte tipo, Escritura escritura) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream salida = new DataOutputStream(bytes);
+            salida.writeLong(0); // La secuencia se fija al encolar
+            salida.writeByte(tipo);
+            escritura.escribir(salida);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    private static String leerTexto(DataInputStream entrada) throws IOException {
+        int longitud = entrada.readInt();
+        if (longitud < 0) {
+            throw new IOException("Longitud de texto inválida: " + longitud);
+        }
+        byte[] bytes = new byte[longitud];
+        entrada.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Pendiente {
+        static final int DATOS = 0;
+        static final int COMPACTAR = 1;
+        static final int CERRAR = 2;
+
+        final int tipo;
+        final byte[] datos;
+        final CompletableFuture<Void> futuro = new CompletableFuture<>();
+
+        Pendiente(int tipo, long secuencia, byte[] datos) {
+            this.tipo = tipo;
+            this.datos = datos;
+            if (datos != null) {
+                // La secuencia ocupa los primeros 8 bytes de los datos
+                ByteBuffer.wrap(datos).putLong(0, secuencia);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación por diccionario de una columna de texto: cada valor distinto recibe un código
+ * entero consecutivo a partir de 0. No es seguro para varios hilos; lo protege quien lo usa.
+ */
+public class Diccionario {
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private final List<String> valores = new ArrayList<>();
+
+    /**
+     * Devuelve el código del valor, asignándole uno nuevo si no existía.
+     */
+    public int codificar(String valor) {
+        Integer codigo = codigos.get(valor);
+        if (codigo == null) {
+            codigo = valores.size();
+            codigos.put(valor, codigo);
+            valores.add(valor);
+        }
+        return codigo;
+    }
+
+    /**
+     * @return El código del valor, o -1 si no está en el diccionario.
+     */
+    public int buscar(String valor) {
+        Integer codigo = codigos.get(valor);
+        return codigo == null ? -1 : codigo;
+    }
+
+    public String valor(int codigo) {
+        return valores.get(codigo);
+    }
+
+    public int tamano() {
+        return valores.size();
+    }
+}
@@ -0,0 +1,348 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Estadísticas de cohorte por grupo (asignatura o semestre): media, mediana, desviación estándar,
+ * percentiles exactos, histograma por tramos de 10 puntos y tasa de aprobación.
+ * <p>
+ * {@link #calcular} elige la agrupación según el número de grupos. Con pocos grupos reparte las filas
+ * entre los núcleos con fork/join; cada tarea cuenta las notas de cada grupo en un histograma exacto de
+ * centésimas (10001 casillas) y los histogramas se suman al unir las tareas. Como la nota es un entero
+ * acotado, del histograma salen sin ordenar nada la suma, la suma de cuadrados, los tramos y cualquier
+ * percentil exacto. Con muchos grupos (por ejemplo, uno por estudiante) esos histogramas serían más
+ * grandes que las propias filas, así que se empaqueta grupo y nota en un {@code long}, se ordena en
+ * paralelo y cada grupo queda como un tramo contiguo ya ordenado. {@link #calcularSecuencial} es la
+ * implementación de referencia, directa y de un solo hilo (ordena las notas de cada grupo); ambas
+ * producen exactamente los mismos valores porque todo se acumula en enteros y se deriva con las
+ * mismas fórmulas.
+ */
+public final class EstadisticasCohorte {
+    public static final int[] PERCENTILES = {10, 25, 50, 75, 90, 95, 99};
+    public static final int TRAMOS = 10;
+
+    private static final int CASILLAS = NotaFija.MAX + 1;    // Una casilla por centésima
+    private static final int UMBRAL_TAREA = 1 << 16;         // Filas mínimas por tarea hoja
+    private static final int BITS_NOTA = 14;                 // NotaFija.MAX cabe en 14 bits
+    private static final long MASCARA_NOTA = (1L << BITS_NOTA) - 1;
+
+    private EstadisticasCohorte() {
+    }
+
+    /**
+     * Calcula las estadísticas en paralelo, aprobando con el umbral general predeterminado.
+     * @param notas Notas en centésimas.
+     * @param grupos Código de grupo de cada nota, entre 0 y nombres.length - 1.
+     * @param nombres Nombre de cada grupo.
+     * @return Las estadísticas de cada grupo, en el orden de los códigos.
+     * @throws IllegalArgumentException si alguna nota está fuera de rango.
+     */
+    public static List<EstadisticasGrupo> calcular(int[] notas, int[] grupos, String[] nombres) {
+        return calcular(notas, grupos, nombres, null);
+    }
+
+    /**
+     * Calcula las estadísticas en paralelo.
+     * @param aprobados Estado de cada fila, decidido con el umbral de su asignatura; null para
+     *                  aprobar con el umbral general predeterminado.
+     * @see #calcular(int[], int[], String[])
+     */
+    public static List<EstadisticasGrupo> calcular(int[] notas, int[] grupos, String[] nombres, boolean[] aprobados) {
+        validar(notas, grupos, aprobados);
+        int numGrupos = nombres.length;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // Hojas suficientes para repartir la carga; el histograma de cada hoja no debe superar sus filas
+        int umbral = Math.max(UMBRAL_TAREA, notas.length / (4 * pool.getParallelism()));
+        if ((long) numGrupos * CASILLAS > umbral) {
+            return calcularOrdenando(notas, grupos, nombres, aprobados);
+        }
+        int[] conteos = pool.invoke(new TareaContar(notas, grupos, aprobados, numGrupos, 0, notas.length, umbral));
+
+        List<EstadisticasGrupo> resultado = new ArrayList<>(numGrupos);
+        int[] acumulado = new int[CASILLAS];
+        for (int g = 0; g < numGrupos; g++) {
+            int base = g * CASILLAS;
+            long suma = 0;
+            long sumaCuadrados = 0;
+            int cantidad = 0;
+            int aprobadas = 0;
+            int[] histograma = new int[TRAMOS];
+            for (int nota = 0; nota < CASILLAS; nota++) {
+                int veces = conteos[base + nota];
+                cantidad += veces;
+                acumulado[nota] = cantidad;
+                if (veces == 0) continue;
+                suma += (long) veces * nota;
+                sumaCuadrados += (long) veces * nota * nota;
+                if (aprobados == null && MotorCalificaciones.aprobadoCentesimas(nota)) aprobadas += veces;
+                histograma[tramo(nota)] += veces;
+            }
+            if (aprobados != null) aprobadas = conteos[numGrupos * CASILLAS + g];
+            resultado.add(construir(nombres[g], cantidad, suma, sumaCuadrados, aprobadas, histograma,
+                    rango -> buscarRango(acumulado, rango)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrupación para muchos grupos: ordena en paralelo las filas por grupo y nota, empaquetadas en un
+     * {@code long}, y recorre cada grupo como un tramo contiguo. La memoria es proporcional a las filas.
+     */
+    private static List<EstadisticasGrupo> calcularOrdenando(int[] notas, int[] grupos, String[] nombres,
+                                                             boolean[] aprobados) {
+        int numGrupos = nombres.length;
+        long[] claves = new long[notas.length];
+        // Grupo, nota y estado: el estado va en el bit más bajo para no alterar el orden por nota
+        Arrays.parallelSetAll(claves, i -> {
+            int nota = notaValida(notas, i);
+            return ((long) grupoValido(grupos, i, numGrupos) << BITS_NOTA | nota) << 1 | (aprobada(nota, aprobados, i) ? 1 : 0);
+        });
+        Arrays.parallelSort(claves);
+
+        List<EstadisticasGrupo> resultado = new ArrayList<>(numGrupos);
+        int fin = 0;
+        for (int g = 0; g < numGrupos; g++) {
+            int inicio = fin;
+            long suma = 0;
+            long sumaCuadrados = 0;
+            int aprobadas = 0;
+            int[] histograma = new int[TRAMOS];
+            while (fin < claves.length && claves[fin] >>> (BITS_NOTA + 1) == g) {
+                long clave = claves[fin++];
+                int nota = (int) (clave >>> 1 & MASCARA_NOTA);
+                suma += nota;
+                sumaCuadrados += (long) nota * nota;
+                aprobadas += (int) (clave & 1);
+                histograma[tramo(nota)]++;
+            }
+            resultado.add(construir(nombres[g], fin - inicio, suma, sumaCuadrados, aprobadas, histograma,
+                    rango -> (int) (claves[inicio + rango] >>> 1 & MASCARA_NOTA)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Implementación de referencia de un solo hilo, con los mismos resultados que {@link #calcular}.
+     */
+    public static List<EstadisticasGrupo> calcularSecuencial(int[] notas, int[] grupos, String[] nombres) {
+        return calcularSecuencial(notas, grupos, nombres, null);
+    }
+
+    /**
+     * Implementación de referencia de un solo hilo, con los mismos resultados que
+     * {@link #calcular(int[], int[], String[], boolean[])}.
+     */
+    public static List<EstadisticasGrupo> calcularSecuencial(int[] notas, int[] grupos, String[] nombres,
+                                                             boolean[] aprobados) {
+        validar(notas, grupos, aprobados);
+        int numGrupos = nombres.length;
+        int[] cantidades = new int[numGrupos];
+        int[] aprobadasPorGrupo = new int[numGrupos];
+        for (int i = 0; i < notas.length; i++) {
+            int nota = notaValida(notas, i);
+            cantidades[grupos[i]]++;
+            if (aprobada(nota, aprobados, i)) aprobadasPorGrupo[grupos[i]]++;
+        }
+        int[][] porGrupo = new int[numGrupos][];
+        for (int g = 0; g < numGrupos; g++) porGrupo[g] = new int[cantidades[g]];
+        int[] llenos = new int[numGrupos];
+        for (int i = 0; i < notas.length; i++) {
+            porGrupo[grupos[i]][llenos[grupos[i]]++] = notas[i];
+        }
+
+        List<EstadisticasGrupo> resultado = new ArrayList<>(numGrupos);
+        for (int g = 0; g < numGrupos; g++) {
+            int[] ordenadas = porGrupo[g];
+            Arrays.sort(ordenadas);
+            long suma = 0;
+            long sumaCuadrados = 0;
+            int[] histograma = new int[TRAMOS];
+            for (int nota : ordenadas) {
+                suma += nota;
+                sumaCuadrados += (long) nota * nota;
+                histograma[tramo(nota)]++;
+            }
+            resultado.add(construir(nombres[g], ordenadas.length, suma, sumaCuadrados, aprobadasPorGrupo[g], histograma,
+                    rango -> ordenadas[rango]));
+        }
+        return resultado;
+    }
+
+    /**
+     * Estadísticas por asignatura de un historial columnar.
+     */
+    public static List<EstadisticasGrupo> porAsignatura(HistorialColumnar historial) {
+        int n = historial.filas();
+        int[] notas = new int[n];
+        int[] grupos = new int[n];
+        Arrays.parallelSetAll(notas, historial::notaCentesimas);
+        Arrays.parallelSetAll(grupos, historial::codigoAsignatura);
+        return calcular(notas, grupos, historial.asignaturas(), aprobados(historial));
+    }
+
+    /**
+     * Estadísticas por semestre de un historial columnar.
+     */
+    public static List<EstadisticasGrupo> porSemestre(HistorialColumnar historial) {
+        int n = historial.filas();
+        int[] notas = new int[n];
+        int[] grupos = new int[n];
+        Arrays.parallelSetAll(notas, historial::notaCentesimas);
+        Arrays.parallelSetAll(grupos, historial::codigoSemestre);
+        return calcular(notas, grupos, historial.semestres(), aprobados(historial));
+    }
+
+    private static boolean[] aprobados(HistorialColumnar historial) {
+        boolean[] aprobados = new boolean[historial.filas()];
+        for (int fila = 0; fila < aprobados.length; fila++) aprobados[fila] = historial.aprobado(fila);
+        return aprobados;
+    }
+
+    /**
+     * Estadísticas de una lista de registros agrupados por la clave indicada,
+     * por ejemplo {@code RegistroAsignatura::getSemestre}.
+     */
+    public static List<EstadisticasGrupo> agrupadas(List<RegistroAsignatura> registros,
+                                                    Function<RegistroAsignatura, String> clave) {
+        Diccionario diccionario = new Diccionario();
+        int[] notas = new int[registros.size()];
+        int[] grupos = new int[registros.size()];
+        boolean[] aprobados = new boolean[registros.size()];
+        for (int i = 0; i < notas.length; i++) {
+            RegistroAsignatura registro = registros.get(i);
+            notas[i] = registro.getNotaCentesimas();
+            grupos[i] = diccionario.codificar(clave.apply(registro));
+            aprobados[i] = registro.isAprobado();
+        }
+        String[] nombres = new String[diccionario.tamano()];
+        for (int g = 0; g < nombres.length; g++) nombres[g] = diccionario.valor(g);
+        return calcular(notas, grupos, nombres, aprobados);
+    }
+
+    private static void validar(int[] notas, int[] grupos, boolean[] aprobados) {
+        if (notas.length != grupos.length || (aprobados != null && aprobados.length != notas.length)) {
+            throw new IllegalArgumentException("Notas, grupos y estados deben tener la misma longitud");
+        }
+    }
+
+    private static boolean aprobada(int nota, boolean[] aprobados, int fila) {
+        return aprobados == null ? MotorCalificaciones.aprobadoCentesimas(nota) : aprobados[fila];
+    }
+
+    private static int notaValida(int[] notas, int fila) {
+        int nota = notas[fila];
+        if (nota < NotaFija.MIN || nota > NotaFija.MAX) {
+            throw new IllegalArgumentException("Nota fuera de rango en la fila " + fila + ": " + nota);
+        }
+        return nota;
+    }
+
+    private static int grupoValido(int[] grupos, int fila, int numGrupos) {
+        int grupo = grupos[fila];
+        if (grupo < 0 || grupo >= numGrupos) {
+            throw new IllegalArgumentException("Grupo fuera de rango en la fila " + fila + ": " + grupo);
+        }
+        return grupo;
+    }
+
+    private interface NotaOrdenada {
+        /**
+         * @return La nota en la posición indicada (desde 0) del grupo ordenado.
+         */
+        int en(int rango);
+    }
+
+    private static EstadisticasGrupo construir(String nombre, int cantidad, long suma, long sumaCuadrados,
+                                               int aprobados, int[] histograma, NotaOrdenada ordenadas) {
+        if (cantidad == 0) {
+            return new EstadisticasGrupo(nombre, 0, 0, 0, 0, new int[PERCENTILES.length], histograma, 0);
+        }
+
+        double media = suma / (double) cantidad / NotaFija.ESCALA;
+        double varianza = (sumaCuadrados - (double) suma * suma / cantidad) / cantidad;
+        double desviacion = Math.sqrt(Math.max(0, varianza)) / NotaFija.ESCALA;
+        double mediana = cantidad % 2 == 1
+                ? ordenadas.en(cantidad / 2) / (double) NotaFija.ESCALA
+                : (ordenadas.en(cantidad / 2 - 1) + ordenadas.en(cantidad / 2)) / 2.0 / NotaFija.ESCALA;
+
+        int[] percentiles = new int[PERCENTILES.length];
+        for (int p = 0; p < PERCENTILES.length; p++) {
+            // Rango más cercano: el menor valor con al menos p% de las notas por debajo o igual
+            int rango = (int) ((PERCENTILES[p] * (long) cantidad + 99) / 100);
+            percentiles[p] = ordenadas.en(Math.max(1, rango) - 1);
+        }
+        return new EstadisticasGrupo(nombre, cantidad, media, mediana, desviacion, percentiles, histograma, aprobados);
+    }
+
+    private static int tramo(int nota) {
+        return Math.min(TRAMOS - 1, nota / (10 * NotaFija.ESCALA));
+    }
+
+    /**
+     * Nota en la posición {@code rango} (desde 0) a partir de los conteos acumulados del histograma.
+     */
+    private static int buscarRango(int[] acumulado, int rango) {
+        int bajo = 0;
+        int alto = CASILLAS - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (acumulado[medio] > rango) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Cuenta las notas de un rango de filas en un histograma de centésimas por grupo.
+     */
+    private static final class TareaContar extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] notas;
+        private final int[] grupos;
+        private final boolean[] aprobados;  // null: el estado sale de la nota al final
+        private final int numGrupos;
+        private final int desde;
+        private final int hasta;
+        private final int umbral;
+
+        TareaContar(int[] notas, int[] grupos, boolean[] aprobados, int numGrupos, int desde, int hasta, int umbral) {
+            this.notas = notas;
+            this.grupos = grupos;
+            this.aprobados = aprobados;
+            this.numGrupos = numGrupos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hasta - desde <= umbral) {
+                // Con estados explícitos, tras los histogramas va el número de aprobadas de cada grupo
+                int[] conteos = new int[numGrupos * CASILLAS + (aprobados == null ? 0 : numGrupos)];
+                for (int i = desde; i < hasta; i++) {
+                    int grupo = grupoValido(grupos, i, numGrupos);
+                    conteos[grupo * CASILLAS + notaValida(notas, i)]++;
+                    if (aprobados != null && aprobados[i]) conteos[numGrupos * CASILLAS + grupo]++;
+                }
+                return conteos;
+            }
+            int medio = (desde + hasta) >>> 1;
+            TareaContar izquierda = new TareaContar(notas, grupos, aprobados, numGrupos, desde, medio, umbral);
+            izquierda.fork();
+            int[] derecha = new TareaContar(notas, grupos, aprobados, numGrupos, medio, hasta, umbral).compute();
+            int[] resultado = izquierda.join();
+            for (int i = 0; i < resultado.length; i++) resultado[i] += derecha[i];
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Estadísticas de distribución de notas de un grupo (una asignatura o un semestre).
+ * Las notas se expresan en puntos salvo los percentiles, que se guardan en centésimas exactas.
+ */
+public final class EstadisticasGrupo {
+    private final String nombre;
+    private final int cantidad;
+    private final double media;
+    private final double mediana;
+    private final double desviacion;
+    private final int[] percentilesCentesimas;
+    private final int[] histograma;
+    private final int aprobados;
+
+    EstadisticasGrupo(String nombre, int cantidad, double media, double mediana, double desviacion,
+                      int[] percentilesCentesimas, int[] histograma, int aprobados) {
+        this.nombre = nombre;
+        this.cantidad = cantidad;
+        this.media = media;
+        this.mediana = mediana;
+        this.desviacion = desviacion;
+        this.percentilesCentesimas = percentilesCentesimas;
+        this.histograma = histograma;
+        this.aprobados = aprobados;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getMediana() {
+        return mediana;
+    }
+
+    /**
+     * @return La desviación estándar poblacional.
+     */
+    public double getDesviacion() {
+        return desviacion;
+    }
+
+    /**
+     * @return Los percentiles de {@link EstadisticasCohorte#PERCENTILES} en centésimas (método del rango más cercano).
+     */
+    public int[] getPercentilesCentesimas() {
+        return percentilesCentesimas.clone();
+    }
+
+    /**
+     * @return Conteo por tramos de 10 puntos: [0, 10), [10, 20) ... [90, 100].
+     */
+    public int[] getHistograma() {
+        return histograma.clone();
+    }
+
+    public int getAprobados() {
+        return aprobados;
+    }
+
+    /**
+     * @return La proporción de notas que alcanzan NOTA_APROBACION, entre 0 y 1.
+     */
+    public double getTasaAprobacion() {
+        return cantidad == 0 ? 0 : aprobados / (double) cantidad;
+    }
+
+    /**
+     * Compara todos los valores, incluidos los decimales exactos de media, mediana y desviación.
+     */
+    public boolean mismosValores(EstadisticasGrupo otro) {
+        return nombre.equals(otro.nombre) && cantidad == otro.cantidad && aprobados == otro.aprobados
+                && Double.compare(media, otro.media) == 0 && Double.compare(mediana, otro.mediana) == 0
+                && Double.compare(desviacion, otro.desviacion) == 0
+                && Arrays.equals(percentilesCentesimas, otro.percentilesCentesimas)
+                && Arrays.equals(histograma, otro.histograma);
+    }
+}
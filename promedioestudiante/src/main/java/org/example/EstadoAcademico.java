@@ -0,0 +1,213 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado en memoria reconstruido a partir del diario: todas las asignaturas registradas
+ * (en un {@link IndiceHistorial} consultable y en un {@link HistorialVersionado} con sus versiones)
+ * y la última evaluación de cada estudiante. Es seguro usarlo desde varios hilos.
+ */
+public class EstadoAcademico {
+    private final IndiceHistorial asignaturas = new IndiceHistorial();
+    private final HistorialVersionado historial = new HistorialVersionado();
+    private final AgregadosAcademicos agregados = new AgregadosAcademicos();
+    private final Map<String, Evaluacion> evaluaciones = new HashMap<>();
+    private final IndiceNombres nombresEstudiantes = new IndiceNombres();
+    private final IndiceNombres nombresAsignaturas = new IndiceNombres();
+    private long[] fechasAlta = new long[1024];   // Fecha de alta de cada fila del índice, para las instantáneas
+    private long ultimaSecuencia;
+
+    /**
+     * @param fecha Instante del alta, en milisegundos desde la época.
+     */
+    synchronized void aplicar(long secuencia, long fecha, RegistroAsignatura registro) {
+        int fila = asignaturas.agregar(registro);
+        if (fila == fechasAlta.length) {
+            fechasAlta = Arrays.copyOf(fechasAlta, fechasAlta.length * 2);
+        }
+        fechasAlta[fila] = fecha;
+        historial.agregar(fila, registro, fecha);
+        agregados.alta(registro);
+        nombresEstudiantes.agregar(registro.getEstudiante());
+        nombresAsignaturas.agregar(registro.getAsignatura());
+        ultimaSecuencia = secuencia;
+    }
+
+    /**
+     * Carga en un estado vacío las asignaturas de una instantánea de una vez, en lugar de fila a fila:
+     * el índice traduce cada diccionario del archivo una sola vez, el historial se construye ya
+     * equilibrado con una sola versión y la clave de cada estudiante se calcula una vez por nombre.
+     * @throws IllegalStateException si el estado ya tiene asignaturas.
+     */
+    synchronized void cargar(long secuencia, HistorialColumnar columnar) {
+        RegistroAsignatura[] registros = asignaturas.cargar(columnar);
+        int n = registros.length;
+        String[] estudiantes = columnar.estudiantes();
+        String[] clavesPorCodigo = new String[estudiantes.length];
+        for (int c = 0; c < estudiantes.length; c++) {
+            clavesPorCodigo[c] = Estudiante.clave(estudiantes[c]);
+            nombresEstudiantes.agregar(estudiantes[c]);
+        }
+        for (String asignatura : columnar.asignaturas()) nombresAsignaturas.agregar(asignatura);
+
+        String[] clavesEstudiante = new String[n];
+        long[] fechas = new long[n];
+        for (int fila = 0; fila < n; fila++) {
+            clavesEstudiante[fila] = clavesPorCodigo[columnar.codigoEstudiante(fila)];
+            fechas[fila] = columnar.fechaAlta(fila);
+        }
+        fechasAlta = Arrays.copyOf(fechas, Math.max(n, fechasAlta.length));
+        historial.cargar(registros, clavesEstudiante, fechas);
+        agregados.altas(registros, clavesEstudiante);
+        ultimaSecuencia = secuencia;
+    }
+
+    /**
+     * Elimina la asignatura: el mismo objeto si sigue registrado o, si no, la última con los mismos datos.
+     * @param fecha Instante de la baja, en milisegundos desde la época.
+     * @return El registro eliminado, o null si no había ninguno igual.
+     */
+    synchronized RegistroAsignatura eliminar(long secuencia, long fecha, RegistroAsignatura registro) {
+        int fila = asignaturas.buscarFila(registro);
+        if (fila < 0) return null;
+        RegistroAsignatura eliminado = asignaturas.fila(fila);
+        asignaturas.eliminar(fila);
+        historial.quitar(fila, eliminado, fecha);
+        agregados.baja(eliminado);
+        ultimaSecuencia = secuencia;
+        return eliminado;
+    }
+
+    /**
+     * Registra la asignatura sin diario, con la siguiente secuencia y la hora actual como haría
+     * {@link DiarioCalificaciones}.
+     */
+    synchronized void aplicar(RegistroAsignatura registro) {
+        aplicar(ultimaSecuencia + 1, System.currentTimeMillis(), registro);
+    }
+
+    /**
+     * Elimina la asignatura sin diario; solo consume una secuencia si había algo que eliminar.
+     * @return El registro eliminado, o null si no había ninguno igual.
+     */
+    synchronized RegistroAsignatura eliminar(RegistroAsignatura registro) {
+        return eliminar(ultimaSecuencia + 1, System.currentTimeMillis(), registro);
+    }
+
+    /**
+     * Guarda la evaluación sin diario, con la siguiente secuencia.
+     */
+    synchronized void aplicar(Evaluacion evaluacion) {
+        aplicar(ultimaSecuencia + 1, evaluacion);
+    }
+
+    /**
+     * @return true si la asignatura está registrada (ese objeto o uno con los mismos datos).
+     */
+    public boolean contiene(RegistroAsignatura registro) {
+        return asignaturas.buscarFila(registro) >= 0;
+    }
+
+    synchronized void aplicar(long secuencia, Evaluacion evaluacion) {
+        evaluaciones.put(Estudiante.clave(evaluacion.getEstudiante()), evaluacion);
+        nombresEstudiantes.agregar(evaluacion.getEstudiante());
+        ultimaSecuencia = secuencia;
+    }
+
+    synchronized long getUltimaSecuencia() {
+        return ultimaSecuencia;
+    }
+
+    synchronized void setUltimaSecuencia(long ultimaSecuencia) {
+        this.ultimaSecuencia = ultimaSecuencia;
+    }
+
+    /**
+     * @return Las asignaturas del estudiante, en orden de registro. Se leen de la versión vigente sin bloqueos.
+     */
+    public List<RegistroAsignatura> asignaturasDe(String estudiante) {
+        return historial.actual().de(estudiante);
+    }
+
+    /**
+     * @return El historial con sus versiones, para consultarlo en una fecha pasada.
+     */
+    public HistorialVersionado getHistorial() {
+        return historial;
+    }
+
+    /**
+     * @return Los agregados por estudiante, semestre y asignatura, siempre al día.
+     */
+    public AgregadosAcademicos getAgregados() {
+        return agregados;
+    }
+
+    /**
+     * @return El índice del historial, para consultas y reportes.
+     */
+    public IndiceHistorial getIndice() {
+        return asignaturas;
+    }
+
+    /**
+     * @return Los nombres de estudiantes conocidos, para autocompletar.
+     */
+    public IndiceNombres getNombresEstudiantes() {
+        return nombresEstudiantes;
+    }
+
+    /**
+     * @return Los nombres de asignaturas conocidos, para autocompletar.
+     */
+    public IndiceNombres getNombresAsignaturas() {
+        return nombresAsignaturas;
+    }
+
+    /**
+     * @return La última evaluación del estudiante, o null si no tiene.
+     */
+    public synchronized Evaluacion evaluacionDe(String estudiante) {
+        return evaluaciones.get(Estudiante.clave(estudiante));
+    }
+
+    /**
+     * @return El número total de asignaturas registradas.
+     */
+    public int totalAsignaturas() {
+        return asignaturas.tamano();
+    }
+
+    /**
+     * Copia de referencias tomada bajo el bloqueo, para escribir instantáneas sin detener a los escritores.
+     */
+    synchronized Copia copiar() {
+        int[] filas = asignaturas.consulta().ejecutar().filas();
+        List<RegistroAsignatura> vigentes = new ArrayList<>(filas.length);
+        long[] fechas = new long[filas.length];
+        for (int i = 0; i < filas.length; i++) {
+            vigentes.add(asignaturas.fila(filas[i]));
+            fechas[i] = fechasAlta[filas[i]];
+        }
+        return new Copia(ultimaSecuencia, vigentes, fechas, new ArrayList<>(evaluaciones.values()));
+    }
+
+    static final class Copia {
+        final long ultimaSecuencia;
+        final List<RegistroAsignatura> asignaturas;
+        final long[] fechasAlta;      // Paralelo a asignaturas
+        final List<Evaluacion> evaluaciones;
+
+        Copia(long ultimaSecuencia, List<RegistroAsignatura> asignaturas, long[] fechasAlta,
+              List<Evaluacion> evaluaciones) {
+            this.ultimaSecuencia = ultimaSecuencia;
+            this.asignaturas = asignaturas;
+            this.fechasAlta = fechasAlta;
+            this.evaluaciones = evaluaciones;
+        }
+    }
+}
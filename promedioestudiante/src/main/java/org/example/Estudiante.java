@@ -0,0 +1,85 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Datos inmutables de un estudiante en el {@link RegistroEstudiantes}: sus notas y el resultado
+ * calculado. Cada cambio publica un objeto nuevo, así que quien lo lee nunca ve un estado a medias.
+ */
+public final class Estudiante {
+    public static final String APROBADO = "APROBADO";
+    public static final String REPROBADO = "REPROBADO";
+
+    /**
+     * Clave con la que se agrupa a un estudiante sin distinguir mayúsculas. Es la misma en todos los
+     * índices y no depende de la configuración regional (con la turca, "I" no pasaría a "i").
+     */
+    static String clave(String nombre) {
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+
+    private final long id;
+    private final String nombre;
+    private final int[] notas;
+    private final int promedioCentesimas;
+    private final boolean aprobado;
+    private final int version;
+
+    Estudiante(long id, String nombre, int[] notas, int promedioCentesimas, boolean aprobado, int version) {
+        this.id = id;
+        this.nombre = nombre;
+        this.notas = notas;
+        this.promedioCentesimas = promedioCentesimas;
+        this.aprobado = aprobado;
+        this.version = version;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getNumNotas() {
+        return notas.length;
+    }
+
+    /**
+     * @return La nota de la evaluación indicada, en centésimas.
+     */
+    public int getNotaCentesimas(int evaluacion) {
+        return notas[evaluacion];
+    }
+
+    /**
+     * @return Una copia de las notas en centésimas.
+     */
+    public int[] getNotasCentesimas() {
+        return notas.clone();
+    }
+
+    public int getPromedioCentesimas() {
+        return promedioCentesimas;
+    }
+
+    public double getPromedio() {
+        return NotaFija.aDouble(promedioCentesimas);
+    }
+
+    public boolean isAprobado() {
+        return aprobado;
+    }
+
+    public String getEstado() {
+        return aprobado ? APROBADO : REPROBADO;
+    }
+
+    /**
+     * @return El número de veces que se han registrado notas para el estudiante, empezando en 1.
+     */
+    public int getVersion() {
+        return version;
+    }
+}
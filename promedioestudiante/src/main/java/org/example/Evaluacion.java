@@ -0,0 +1,37 @@
+package org.example;
+
+/**
+ * Evaluación cualitativa de un estudiante guardada desde la pantalla de detalles.
+ */
+public final class Evaluacion {
+    private final String estudiante;
+    private final String calificacion;
+    private final String comentarios;
+    private final long fecha;
+
+    public Evaluacion(String estudiante, String calificacion, String comentarios, long fecha) {
+        this.estudiante = estudiante;
+        this.calificacion = calificacion;
+        this.comentarios = comentarios;
+        this.fecha = fecha;
+    }
+
+    public String getEstudiante() {
+        return estudiante;
+    }
+
+    public String getCalificacion() {
+        return calificacion;
+    }
+
+    public String getComentarios() {
+        return comentarios;
+    }
+
+    /**
+     * @return Momento en que se guardó la evaluación, en milisegundos desde la época.
+     */
+    public long getFecha() {
+        return fecha;
+    }
+}
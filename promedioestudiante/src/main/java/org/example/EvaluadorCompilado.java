@@ -0,0 +1,211 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Forma compilada de una {@link PoliticaCalificacion}: pesos y umbrales en arreglos planos de enteros,
+ * sin estructuras que interpretar por estudiante. Con pesos {@code w} y notas {@code n} (en centésimas)
+ * de las evaluaciones que cuentan, el estudiante aprueba si {@code Σ w·n >= umbral · Σ w}, comparación
+ * exacta en enteros, y su promedio es {@code Σ w·n / Σ w} redondeado a la centésima.
+ * Es inmutable y puede compartirse entre hilos.
+ */
+public final class EvaluadorCompilado {
+    private final int[] pesos;
+    private final int descartar;
+    private final int pesoTotal;
+    private final int umbralGeneral;
+    private final int[] umbrales;
+    private final Map<String, Integer> codigos = new HashMap<>();
+
+    EvaluadorCompilado(int[] pesos, int descartar, int umbralGeneral, String[] asignaturas, int[] umbrales) {
+        this.pesos = pesos;
+        this.descartar = descartar;
+        this.umbralGeneral = umbralGeneral;
+        this.umbrales = umbrales;
+        int total = 0;
+        for (int peso : pesos) total += peso;
+        this.pesoTotal = total;
+        for (int i = 0; i < asignaturas.length; i++) codigos.put(asignaturas[i], i);
+    }
+
+    public int getNumComponentes() {
+        return pesos.length;
+    }
+
+    /**
+     * @return El código del umbral propio de la asignatura, o -1 si usa el umbral general.
+     *         Se resuelve una vez por asignatura, no por estudiante.
+     */
+    public int codigoAsignatura(String asignatura) {
+        Integer codigo = asignatura == null ? null : codigos.get(asignatura);
+        return codigo == null ? -1 : codigo;
+    }
+
+    /**
+     * @return El umbral en centésimas para el código dado (-1 para el general).
+     */
+    public int umbral(int codigoAsignatura) {
+        return codigoAsignatura < 0 ? umbralGeneral : umbrales[codigoAsignatura];
+    }
+
+    /**
+     * Crea una fila del historial con su estado decidido por el umbral de la asignatura
+     * (o el general si la política no define uno propio).
+     * @throws IllegalArgumentException si la nota está fuera de rango.
+     */
+    public RegistroAsignatura registro(String estudiante, String asignatura, int notaCentesimas, String semestre) {
+        return new RegistroAsignatura(estudiante, asignatura, notaCentesimas, semestre,
+                notaCentesimas >= umbral(codigoAsignatura(asignatura)));
+    }
+
+    /**
+     * @param notas Notas en centésimas, una por evaluación.
+     * @return El promedio ponderado en centésimas, redondeando la mitad hacia arriba.
+     */
+    public int promedioCentesimas(int... notas) {
+        long sumaYPeso = sumaYPeso(notas);
+        return redondear((int) (sumaYPeso >>> 32), (int) sumaYPeso);
+    }
+
+    /**
+     * @param notas Notas en centésimas, una por evaluación.
+     * @param codigoAsignatura Código de {@link #codigoAsignatura(String)}, o -1 para el umbral general.
+     */
+    public boolean aprobado(int[] notas, int codigoAsignatura) {
+        long sumaYPeso = sumaYPeso(notas);
+        return (int) (sumaYPeso >>> 32) >= (long) umbral(codigoAsignatura) * (int) sumaYPeso;
+    }
+
+    /**
+     * Califica un lote. Cada elemento de {@code columnas} contiene la nota de una evaluación
+     * para todos los estudiantes, como en {@link MotorCalificaciones#calificarCentesimas}.
+     * @param columnas Una columna de notas en centésimas por evaluación.
+     * @param codigosAsignatura Código de asignatura de cada estudiante, o null para usar el umbral general.
+     * @param promedios Arreglo de salida con el promedio en centésimas.
+     * @param aprobados Arreglo de salida con el estado.
+     * @return El número de aprobados.
+     * @throws IllegalArgumentException si las dimensiones no coinciden o alguna nota está fuera de rango.
+     */
+    public int evaluar(int[][] columnas, int[] codigosAsignatura, int[] promedios, boolean[] aprobados) {
+        if (columnas.length != pesos.length) {
+            throw new IllegalArgumentException("La política tiene " + pesos.length + " evaluaciones y se recibieron " + columnas.length);
+        }
+        if (promedios.length != aprobados.length) {
+            throw new IllegalArgumentException("Los arreglos de salida deben tener la misma longitud");
+        }
+        int n = promedios.length;
+        for (int[] columna : columnas) {
+            if (columna.length != n) {
+                throw new IllegalArgumentException("Todas las columnas deben tener " + n + " notas");
+            }
+        }
+        if (codigosAsignatura != null && codigosAsignatura.length != n) {
+            throw new IllegalArgumentException("Debe haber un código de asignatura por estudiante");
+        }
+        return descartar == 0
+                ? evaluarSinDescarte(columnas, codigosAsignatura, promedios, aprobados)
+                : evaluarConDescarte(columnas, codigosAsignatura, promedios, aprobados);
+    }
+
+    /**
+     * Sin descartes el peso total es fijo: se acumula columna por columna en recorridos secuenciales.
+     */
+    private int evaluarSinDescarte(int[][] columnas, int[] codigosAsignatura, int[] promedios, boolean[] aprobados) {
+        int n = promedios.length;
+        Arrays.fill(promedios, 0);
+        for (int k = 0; k < columnas.length; k++) {
+            int[] columna = columnas[k];
+            int peso = pesos[k];
+            for (int i = 0; i < n; i++) {
+                int nota = columna[i];
+                if (nota < NotaFija.MIN || nota > NotaFija.MAX) throw notaFueraDeRango(k, i);
+                promedios[i] += peso * nota;
+            }
+        }
+
+        int total = 0;
+        long umbralFijo = (long) umbralGeneral * pesoTotal;
+        for (int i = 0; i < n; i++) {
+            int suma = promedios[i];
+            long minimo = codigosAsignatura == null ? umbralFijo : (long) umbral(codigosAsignatura[i]) * pesoTotal;
+            boolean aprobado = suma >= minimo;
+            aprobados[i] = aprobado;
+            if (aprobado) total++;
+            promedios[i] = redondear(suma, pesoTotal);
+        }
+        return total;
+    }
+
+    private int evaluarConDescarte(int[][] columnas, int[] codigosAsignatura, int[] promedios, boolean[] aprobados) {
+        int n = promedios.length;
+        int[] notas = new int[pesos.length];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < notas.length; k++) {
+                int nota = columnas[k][i];
+                if (nota < NotaFija.MIN || nota > NotaFija.MAX) throw notaFueraDeRango(k, i);
+                notas[k] = nota;
+            }
+            long sumaYPeso = sumaYPesoConDescarte(notas);
+            int suma = (int) (sumaYPeso >>> 32);
+            int peso = (int) sumaYPeso;
+            int umbral = codigosAsignatura == null ? umbralGeneral : umbral(codigosAsignatura[i]);
+            boolean aprobado = suma >= (long) umbral * peso;
+            aprobados[i] = aprobado;
+            if (aprobado) total++;
+            promedios[i] = redondear(suma, peso);
+        }
+        return total;
+    }
+
+    /**
+     * @return La suma ponderada en los 32 bits altos y el peso que cuenta en los bajos.
+     */
+    private long sumaYPeso(int[] notas) {
+        if (notas.length != pesos.length) {
+            throw new IllegalArgumentException("Se esperaban " + pesos.length + " notas y hay " + notas.length);
+        }
+        for (int k = 0; k < notas.length; k++) {
+            if (notas[k] < NotaFija.MIN || notas[k] > NotaFija.MAX) throw notaFueraDeRango(k, 0);
+        }
+        if (descartar > 0) return sumaYPesoConDescarte(notas);
+        int suma = 0;
+        for (int k = 0; k < notas.length; k++) suma += pesos[k] * notas[k];
+        return ((long) suma << 32) | pesoTotal;
+    }
+
+    /**
+     * Descarta las {@code descartar} notas más bajas; entre notas iguales se descarta la última evaluación.
+     */
+    private long sumaYPesoConDescarte(int[] notas) {
+        int descartadas = 0; // Máscara de bits: hay como mucho MAX_COMPONENTES evaluaciones
+        for (int d = 0; d < descartar; d++) {
+            int menor = -1;
+            for (int k = 0; k < notas.length; k++) {
+                if ((descartadas & (1 << k)) == 0 && (menor < 0 || notas[k] <= notas[menor])) menor = k;
+            }
+            descartadas |= 1 << menor;
+        }
+        int suma = 0;
+        int peso = 0;
+        for (int k = 0; k < notas.length; k++) {
+            if ((descartadas & (1 << k)) == 0) {
+                suma += pesos[k] * notas[k];
+                peso += pesos[k];
+            }
+        }
+        return ((long) suma << 32) | peso;
+    }
+
+    private static int redondear(int suma, int peso) {
+        return (int) ((2L * suma + peso) / (2L * peso));
+    }
+
+    private static IllegalArgumentException notaFueraDeRango(int evaluacion, int estudiante) {
+        return new IllegalArgumentException("Nota fuera de rango en la evaluación " + (evaluacion + 1)
+                + " del estudiante " + (estudiante + 1) + ": debe estar entre "
+                + MotorCalificaciones.MIN_NOTA + " y " + MotorCalificaciones.MAX_NOTA);
+    }
+}
@@ -0,0 +1,421 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * Exporta expedientes e informes de cohorte a CSV o JSON Lines leyendo directamente del modelo de datos.
+ * <p>
+ * El texto se codifica a UTF-8 a mano dentro de un búfer directo del {@link PoolBuffers}, que se vuelca
+ * con {@link FileChannel#write} cada vez que se llena: no se crean cadenas intermedias por celda ni
+ * se acumula el archivo en memoria, así que una exportación de millones de filas usa memoria constante.
+ * Se escribe en un archivo temporal que reemplaza al destino solo al terminar bien.
+ */
+public final class ExportadorStreaming {
+
+    /**
+     * Formatos de salida.
+     */
+    public enum Formato {
+        CSV, JSONL;
+
+        /**
+         * @return JSONL para las extensiones .jsonl y .json, CSV en otro caso.
+         */
+        public static Formato deArchivo(Path archivo) {
+            String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+            return nombre.endsWith(".jsonl") || nombre.endsWith(".json") ? JSONL : CSV;
+        }
+    }
+
+    static final String[] COLUMNAS_EXPEDIENTE = columnasExpediente();
+    private static final int FILAS_POR_AVANCE = 65_536; // Cada cuántas filas se informa el avance y se mira la cancelación
+
+    private final PoolBuffers pool;
+
+    public ExportadorStreaming() {
+        this(PoolBuffers.compartido());
+    }
+
+    public ExportadorStreaming(PoolBuffers pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Exporta el expediente de un estudiante: las columnas de la tabla de historial más la calificación
+     * y los comentarios de su evaluación, repetidos en cada fila. Las asignaturas se leen de la versión
+     * sin copiarlas.
+     * @param evaluacion La evaluación guardada del estudiante, o null si no tiene.
+     * @return El número de filas exportadas.
+     */
+    public long exportarExpediente(Path destino, Formato formato, HistorialVersionado.Version version,
+                                   String estudiante, Evaluacion evaluacion) throws IOException {
+        return escribir(destino, salida -> {
+            if (formato == Formato.CSV) encabezadoCsv(salida, COLUMNAS_EXPEDIENTE);
+            long[] escritas = new long[1];
+            version.recorrer(estudiante, registro -> {
+                filaExpediente(salida, formato, registro, evaluacion);
+                escritas[0]++;
+            });
+            return escritas[0];
+        });
+    }
+
+    /**
+     * Exporta todo el historial de una versión recorriéndola sin copiarla; mientras tanto pueden
+     * seguir registrándose asignaturas, que quedarán en versiones posteriores.
+     * @param evaluaciones Devuelve la evaluación de cada estudiante, o null. Se consulta una vez por estudiante.
+     * @param control Para informar el avance y cancelar; puede ser null.
+     * @return El número de filas exportadas.
+     * @throws CancellationException si se cancela; el destino no se modifica.
+     */
+    public long exportarHistorial(Path destino, Formato formato, HistorialVersionado.Version version,
+                                  Function<String, Evaluacion> evaluaciones,
+                                  PlanificadorTareas.ControlTarea control) throws IOException {
+        long total = version.tamano();
+        return escribir(destino, salida -> {
+            if (formato == Formato.CSV) encabezadoCsv(salida, COLUMNAS_EXPEDIENTE);
+            long[] escritas = new long[1];
+            Object[] ultima = new Object[2]; // Estudiante y evaluación de la fila anterior: las filas vienen agrupadas
+            version.recorrer(registro -> {
+                if (!registro.getEstudiante().equals(ultima[0])) {
+                    ultima[0] = registro.getEstudiante();
+                    ultima[1] = evaluaciones.apply(registro.getEstudiante());
+                }
+                filaExpediente(salida, formato, registro, (Evaluacion) ultima[1]);
+                if (++escritas[0] % FILAS_POR_AVANCE == 0 && control != null) {
+                    if (control.isCancelada()) throw new CancellationException("Exportación cancelada");
+                    control.progreso(escritas[0], total);
+                }
+            });
+            return escritas[0];
+        });
+    }
+
+    /**
+     * Exporta el informe de cohortes: una fila por grupo con sus estadísticas, percentiles e histograma.
+     * @return El número de grupos exportados.
+     */
+    public long exportarCohorte(Path destino, Formato formato, List<EstadisticasGrupo> grupos) throws IOException {
+        return escribir(destino, salida -> {
+            if (formato == Formato.CSV) encabezadoCsv(salida, columnasCohorte());
+            for (EstadisticasGrupo grupo : grupos) {
+                filaCohorte(salida, formato, grupo);
+            }
+            return grupos.size();
+        });
+    }
+
+    // ---------------------------------------------------------------- Filas
+
+    private static void filaExpediente(Salida salida, Formato formato, RegistroAsignatura registro, Evaluacion evaluacion) {
+        String calificacion = evaluacion == null ? null : evaluacion.getCalificacion();
+        String comentarios = evaluacion == null ? null : evaluacion.getComentarios();
+        if (formato == Formato.CSV) {
+            salida.campoCsv(registro.getEstudiante()).ascii(',')
+                    .campoCsv(registro.getAsignatura()).ascii(',')
+                    .decimal(registro.getNotaCentesimas()).ascii(',')
+                    .campoCsv(registro.getSemestre()).ascii(',')
+                    .campoCsv(registro.getEstado()).ascii(',')
+                    .campoCsv(calificacion == null ? "" : calificacion).ascii(',')
+                    .campoCsv(comentarios == null ? "" : comentarios).ascii('\n');
+        } else {
+            salida.ascii("{\"estudiante\":").cadenaJson(registro.getEstudiante())
+                    .ascii(",\"asignatura\":").cadenaJson(registro.getAsignatura())
+                    .ascii(",\"nota\":").decimal(registro.getNotaCentesimas())
+                    .ascii(",\"semestre\":").cadenaJson(registro.getSemestre())
+                    .ascii(",\"estado\":").cadenaJson(registro.getEstado())
+                    .ascii(",\"calificacion\":").cadenaJson(calificacion)
+                    .ascii(",\"comentarios\":").cadenaJson(comentarios)
+                    .ascii("}\n");
+        }
+    }
+
+    private static void filaCohorte(Salida salida, Formato formato, EstadisticasGrupo grupo) {
+        int[] percentiles = grupo.getPercentilesCentesimas();
+        int[] histograma = grupo.getHistograma();
+        long tasa = Math.round(grupo.getTasaAprobacion() * 10_000); // Porcentaje en centésimas
+        if (formato == Formato.CSV) {
+            salida.campoCsv(grupo.getNombre()).ascii(',').entero(grupo.getCantidad()).ascii(',')
+                    .decimal(Math.round(grupo.getMedia() * 100)).ascii(',')
+                    .decimal(Math.round(grupo.getMediana() * 100)).ascii(',')
+                    .decimal(Math.round(grupo.getDesviacion() * 100));
+            for (int percentil : percentiles) salida.ascii(',').decimal(percentil);
+            salida.ascii(',').entero(grupo.getAprobados()).ascii(',').decimal(tasa);
+            for (int conteo : histograma) salida.ascii(',').entero(conteo);
+            salida.ascii('\n');
+        } else {
+            salida.ascii("{\"grupo\":").cadenaJson(grupo.getNombre())
+                    .ascii(",\"cantidad\":").entero(grupo.getCantidad())
+                    .ascii(",\"media\":").decimal(Math.round(grupo.getMedia() * 100))
+                    .ascii(",\"mediana\":").decimal(Math.round(grupo.getMediana() * 100))
+                    .ascii(",\"desviacion\":").decimal(Math.round(grupo.getDesviacion() * 100))
+                    .ascii(",\"percentiles\":{");
+            for (int i = 0; i < percentiles.length; i++) {
+                if (i > 0) salida.ascii(',');
+                salida.ascii('"').ascii('p').entero(EstadisticasCohorte.PERCENTILES[i]).ascii("\":").decimal(percentiles[i]);
+            }
+            salida.ascii("},\"aprobados\":").entero(grupo.getAprobados())
+                    .ascii(",\"tasaAprobacion\":").decimal(tasa)
+                    .ascii(",\"histograma\":[");
+            for (int i = 0; i < histograma.length; i++) {
+                if (i > 0) salida.ascii(',');
+                salida.entero(histograma[i]);
+            }
+            salida.ascii("]}\n");
+        }
+    }
+
+    private static void encabezadoCsv(Salida salida, String[] columnas) {
+        for (int i = 0; i < columnas.length; i++) {
+            if (i > 0) salida.ascii(',');
+            salida.campoCsv(columnas[i]);
+        }
+        salida.ascii('\n');
+    }
+
+    private static String[] columnasExpediente() {
+        ModeloHistorial.Columna[] tabla = ModeloHistorial.Columna.values();
+        String[] columnas = new String[tabla.length + 3];
+        columnas[0] = "Estudiante";
+        for (int i = 0; i < tabla.length; i++) columnas[i + 1] = tabla[i].getTitulo();
+        columnas[tabla.length + 1] = "Calificación";
+        columnas[tabla.length + 2] = "Comentarios";
+        return columnas;
+    }
+
+    private static String[] columnasCohorte() {
+        int[] percentiles = EstadisticasCohorte.PERCENTILES;
+        int tramos = EstadisticasCohorte.TRAMOS;
+        String[] columnas = new String[7 + percentiles.length + tramos];
+        int c = 0;
+        columnas[c++] = "Grupo";
+        columnas[c++] = "Cantidad";
+        columnas[c++] = "Media";
+        columnas[c++] = "Mediana";
+        columnas[c++] = "Desviación";
+        for (int percentil : percentiles) columnas[c++] = "P" + percentil;
+        columnas[c++] = "Aprobados";
+        columnas[c++] = "Tasa de aprobación (%)";
+        int ancho = (MotorCalificaciones.MAX_NOTA - MotorCalificaciones.MIN_NOTA) / tramos;
+        for (int t = 0; t < tramos; t++) columnas[c++] = (t * ancho) + "-" + ((t + 1) * ancho);
+        return columnas;
+    }
+
+    // ---------------------------------------------------------------- Escritura
+
+    private interface Contenido {
+        long escribir(Salida salida);
+    }
+
+    private long escribir(Path destino, Contenido contenido) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        ByteBuffer buffer = pool.tomar();
+        boolean terminado = false;
+        try {
+            long filas;
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                Salida salida = new Salida(canal, buffer);
+                try {
+                    filas = contenido.escribir(salida);
+                    salida.vaciar();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            terminado = true;
+            return filas;
+        } finally {
+            pool.devolver(buffer);
+            if (!terminado) Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Codificador UTF-8 sobre un búfer directo. Los bytes se preparan en un arreglo pequeño que se copia
+     * en bloque al búfer directo: escribir byte a byte en memoria fuera del heap es bastante más lento.
+     * Los errores de E/S se lanzan como {@link UncheckedIOException} para poder escribir desde
+     * recorridos con lambdas.
+     */
+    static final class Salida {
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+        private final byte[] bytes = new byte[8192];
+        private final byte[] digitos = new byte[20];
+        private int pos;
+
+        Salida(FileChannel canal, ByteBuffer buffer) {
+            this.canal = canal;
+            this.buffer = buffer;
+        }
+
+        Salida ascii(char c) {
+            if (pos == bytes.length) pasar();
+            bytes[pos++] = (byte) c;
+            return this;
+        }
+
+        Salida ascii(String texto) {
+            for (int i = 0; i < texto.length(); i++) ascii(texto.charAt(i));
+            return this;
+        }
+
+        /**
+         * Escribe el texto en UTF-8. Un sustituto sin pareja se escribe como '?'.
+         */
+        Salida texto(String texto) {
+            return texto(texto, 0, texto.length());
+        }
+
+        /**
+         * Escribe los caracteres de {@code desde} a {@code hasta} (exclusive) sin crear subcadenas.
+         */
+        Salida texto(String texto, int desde, int hasta) {
+            int n = hasta;
+            for (int i = desde; i < n; i++) {
+                char c = texto.charAt(i);
+                if (pos + 4 > bytes.length) pasar();
+                if (c < 0x80) {
+                    bytes[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                    bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, texto.charAt(++i));
+                    bytes[pos++] = (byte) (0xF0 | (cp >> 18));
+                    bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    bytes[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    bytes[pos++] = (byte) '?';
+                } else {
+                    bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                    bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Campo CSV: entre comillas solo si contiene separadores, comillas o saltos de línea.
+         */
+        Salida campoCsv(String valor) {
+            boolean comillas = false;
+            for (int i = 0; i < valor.length() && !comillas; i++) {
+                char c = valor.charAt(i);
+                comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!comillas) return texto(valor);
+            ascii('"');
+            int desde = 0;
+            for (int i = valor.indexOf('"'); i >= 0; i = valor.indexOf('"', i + 1)) {
+                texto(valor, desde, i + 1).ascii('"'); // Las comillas se duplican
+                desde = i + 1;
+            }
+            return texto(valor, desde, valor.length()).ascii('"');
+        }
+
+        /**
+         * Cadena JSON entre comillas, o null.
+         */
+        Salida cadenaJson(String valor) {
+            if (valor == null) return ascii("null");
+            ascii('"');
+            int desde = 0;
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c >= 0x20 && c != '"' && c != '\\') continue;
+                texto(valor, desde, i);
+                desde = i + 1;
+                switch (c) {
+                    case '"':
+                        ascii("\\\"");
+                        break;
+                    case '\\':
+                        ascii("\\\\");
+                        break;
+                    case '\n':
+                        ascii("\\n");
+                        break;
+                    case '\r':
+                        ascii("\\r");
+                        break;
+                    case '\t':
+                        ascii("\\t");
+                        break;
+                    default:
+                        ascii("\\u00").ascii((char) HEX[c >> 4]).ascii((char) HEX[c & 0xF]);
+                }
+            }
+            return texto(valor, desde, valor.length()).ascii('"');
+        }
+
+        Salida entero(long valor) {
+            if (valor < 0) {
+                ascii('-');
+                valor = -valor;
+            }
+            int n = 0;
+            do {
+                digitos[n++] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor > 0);
+            if (pos + n > bytes.length) pasar();
+            while (n > 0) bytes[pos++] = digitos[--n];
+            return this;
+        }
+
+        /**
+         * Número con dos decimales a partir de centésimas.
+         */
+        Salida decimal(long centesimas) {
+            if (centesimas < 0) {
+                ascii('-');
+                centesimas = -centesimas;
+            }
+            entero(centesimas / 100).ascii('.');
+            long fraccion = centesimas % 100;
+            return ascii((char) ('0' + fraccion / 10)).ascii((char) ('0' + fraccion % 10));
+        }
+
+        /**
+         * Copia los bytes preparados al búfer directo, volcándolo antes si no caben.
+         */
+        private void pasar() {
+            if (buffer.remaining() < pos) escribirBuffer();
+            buffer.put(bytes, 0, pos);
+            pos = 0;
+        }
+
+        void vaciar() {
+            pasar();
+            escribirBuffer();
+        }
+
+        private void escribirBuffer() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) canal.write(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -2,11 +2,21 @@ package org.example;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.*;
-import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
 /**
  * Clase principal para gestionar la información de estudiantes.
  * Utiliza SWT para crear una interfaz gráfica con dos pantallas:
@@ -15,10 +25,13 @@ import org.eclipse.swt.widgets.*;
  */
 @SuppressWarnings("SpellCheckingInspection")
 public class GestorEstudiantes {
-    private static final int MAX_NOMBRE_LENGTH = 50; // Límite máximo de caracteres para el nombre
-    private static final int MAX_NOTA = 100;        // Nota máxima permitida
-    private static final int MIN_NOTA = 0;          // Nota mínima permitida
-    private static final double NOTA_APROBACION = 70.0; // Umbral para aprobar
+    private static final int MAX_NOMBRE_LENGTH = ValidadorNotas.MAX_NOMBRE_LENGTH; // Límite máximo de caracteres para el nombre
+    private static final int MAX_NOTA = MotorCalificaciones.MAX_NOTA; // Nota máxima permitida
+    private static final int MIN_NOTA = MotorCalificaciones.MIN_NOTA; // Nota mínima permitida
+    private static final int MAX_RECHAZOS_MOSTRADOS = 20; // Rechazos listados al terminar una importación
+    private static final int LOTE_IMPORTACION = 1024; // Estudiantes importados que se califican juntos
+    private static final String DIRECTORIO_DATOS = ".gestor-estudiantes"; // Carpeta del diario en el directorio del usuario
+    private static final String ARCHIVO_POLITICA = "politica.properties"; // Política de calificación opcional en esa carpeta
 
     // Shells para las dos pantallas
     private final Shell shellPrincipal;
@@ -26,17 +39,48 @@ public class GestorEstudiantes {
 
     // Componentes pantalla principal
     private Text txtNombre;
-    private final Text[] txtParciales = new Text[3];
+    private Text[] txtParciales; // Uno por evaluación de la política activa
     private Label lblResultado;
     private Button btnModoNoche;
+    private Button btnImportar;
+    private Button btnExportarHistorial;
+
+    // Política de calificación activa y su forma compilada
+    private PoliticaCalificacion politica = PoliticaCalificacion.predeterminada();
+    private EvaluadorCompilado evaluador = politica.compilar();
+
+    // Trabajo en segundo plano y actualizaciones de la interfaz
+    private final PlanificadorTareas planificador = new PlanificadorTareas();
+    private final CoalescedorUI coalescedor;
+    private final MonitorLatencia monitorLatencia;
+    private final Metricas metricas = new Metricas();
+    private final RegistroEstudiantes registroEstudiantes = new RegistroEstudiantes(); // Compartido con las importaciones
+    private PlanificadorTareas.Tarea<ImportadorCsv.Resumen> tareaImportacion;
+    private ImportadorCsv importadorActivo;
     private boolean modoNoche = false;
-    private Color colorTextoNormal;
-    private Color colorFondoNormal;
-    private Color colorTextoNoche;
-    private Color colorFondoNoche;
+    private final MotorTemas motorTemas;
 
     // Componentes pantalla de detalles
+    private Label lblNombreDetalle;
+    private Label lblPromedioDetalle;
+    private Label lblEstadoDetalle;
     private Table tblHistorial;
+    private Label lblPromedioHistorial;
+    private Label lblAprobadasHistorial;
+    private ModeloHistorial modeloHistorial;
+    private TablaHistorialVirtual tablaHistorial;
+    private Label lblHistorial;
+    private Button btnEliminarAsignatura;
+    private Button btnDeshacer;
+    private Button btnRehacer;
+    private DateTime dtFechaHistorial;
+    private DateTime dtHoraHistorial;
+    private boolean viendoVersionPasada; // La tabla muestra el historial en una fecha pasada
+    private HistorialVersionado.Version versionPasada; // La versión mostrada en ese caso
+
+    // Cambios del historial hechos en la pantalla de detalles, para deshacer y rehacer sin límite
+    private final Deque<Cambio> cambiosDeshacer = new ArrayDeque<>();
+    private final Deque<Cambio> cambiosRehacer = new ArrayDeque<>();
     private Text txtComentarios;
     private Combo cmbCalificacion;
 
@@ -46,9 +90,11 @@ public class GestorEstudiantes {
     private Combo cmbSemestre;
 
     // Control para mantener datos entre pantallas
-    private String nombreEstudiante;
-    private double promedioCalculado;
-    private String estadoFinal;
+    private Estudiante estudianteActual; // Último calculado; sus datos viven en el registro
+
+    // Historial académico de todos los estudiantes, persistido en el diario local
+    private DiarioCalificaciones diario;
+    private EstadoAcademico estadoAcademico = new EstadoAcademico();
 
     /**
      * Constructor que inicializa la aplicación con un Display de SWT.
@@ -56,32 +102,89 @@ public class GestorEstudiantes {
      */
     public GestorEstudiantes(Display display) {
         shellPrincipal = new Shell(display);
-        inicializarColores();
+        coalescedor = new CoalescedorUI(display, shellPrincipal);
+        monitorLatencia = new MonitorLatencia(display); // Solo sondea durante importaciones y exportaciones
+        motorTemas = new MotorTemas(display);
+        cargarPolitica();
         inicializarComponentesPrincipal();
         configurarEventosPrincipal();
         configurarValidaciones();
+        abrirDiario();
+    }
+
+    /**
+     * Carga la política de calificación del directorio de datos, si existe; si no, se usan
+     * tres parciales con el mismo peso.
+     */
+    private void cargarPolitica() {
+        Path archivo = Paths.get(System.getProperty("user.home"), DIRECTORIO_DATOS, ARCHIVO_POLITICA);
+        if (!Files.exists(archivo)) return;
+        try {
+            politica = PoliticaCalificacion.cargar(archivo);
+            evaluador = politica.compilar();
+        } catch (Exception e) {
+            mostrarError("No se pudo cargar la política de calificación, se usará la predeterminada: " + e.getMessage());
+        }
     }
 
     /**
-     * Inicializa los colores predeterminados para los modos día y noche.
+     * Abre el diario local y recupera el historial guardado en sesiones anteriores.
      */
-    private void inicializarColores() {
+    private void abrirDiario() {
         try {
-            colorTextoNormal = shellPrincipal.getDisplay().getSystemColor(SWT.COLOR_BLACK);
-            colorFondoNormal = shellPrincipal.getDisplay().getSystemColor(SWT.COLOR_WHITE);
-            colorTextoNoche = shellPrincipal.getDisplay().getSystemColor(SWT.COLOR_WHITE);
-            colorFondoNoche = shellPrincipal.getDisplay().getSystemColor(SWT.COLOR_DARK_GRAY);
+            diario = DiarioCalificaciones.abrir(Paths.get(System.getProperty("user.home"), DIRECTORIO_DATOS));
+            estadoAcademico = diario.getEstado();
         } catch (Exception e) {
-            mostrarError("Error al inicializar colores: " + e.getMessage());
+            mostrarError("No se pudo abrir el historial guardado, los cambios no se conservarán: " + e.getMessage());
         }
     }
 
+    /**
+     * Registra una asignatura en el estado y en el diario. Puede llamarse desde cualquier hilo.
+     */
+    private void registrarAsignatura(RegistroAsignatura registro) {
+        if (diario == null) {
+            estadoAcademico.aplicar(registro);
+            return;
+        }
+        diario.registrar(registro).whenComplete((ok, error) -> {
+            if (error != null) notificarErrorPersistencia(error);
+        });
+    }
+
+    /**
+     * Elimina una asignatura del estado y del diario.
+     * @throws IllegalArgumentException si la asignatura no está registrada.
+     */
+    private void quitarAsignatura(RegistroAsignatura registro) {
+        if (diario == null) {
+            if (estadoAcademico.eliminar(registro) == null) {
+                throw new IllegalArgumentException("La asignatura no está registrada en el historial");
+            }
+            return;
+        }
+        diario.eliminar(registro).whenComplete((ok, error) -> {
+            if (error != null) notificarErrorPersistencia(error);
+        });
+    }
+
+    private void notificarErrorPersistencia(Throwable error) {
+        Display display = shellPrincipal.getDisplay();
+        if (display.isDisposed()) return;
+        display.asyncExec(() -> {
+            if (!shellPrincipal.isDisposed()) {
+                mostrarError("Error al guardar en el historial: " + error.getMessage());
+            }
+        });
+    }
+
     /**
      * Inicializa los componentes de la pantalla principal.
      */
     private void inicializarComponentesPrincipal() {
         try {
-            shellPrincipal.setSize(400, 350);
+            int componentes = politica.getNumComponentes();
+            shellPrincipal.setSize(400, 325 + 30 * componentes);
             shellPrincipal.setText("Gestión Estudiantil - Pantalla Principal");
             shellPrincipal.setLayout(new GridLayout(2, false));
 
@@ -90,10 +193,17 @@ public class GestorEstudiantes {
             txtNombre = new Text(shellPrincipal, SWT.BORDER);
             txtNombre.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
             txtNombre.setTextLimit(MAX_NOMBRE_LENGTH);
-
-            // Componentes para las notas
-            for (int i = 0; i < 3; i++) {
-                new Label(shellPrincipal, SWT.NONE).setText("Parcial " + (i + 1) + ":");
+            // El estado se reemplaza al abrir el diario: se consulta el índice vigente en cada búsqueda
+            new AutocompletadoTexto(txtNombre,
+                    texto -> estadoAcademico.getNombresEstudiantes().buscar(texto, AutocompletadoTexto.MAX_SUGERENCIAS));
+
+            // Un campo por evaluación de la política activa, con su peso si no todas pesan igual
+            boolean mismoPeso = true;
+            for (int i = 1; i < componentes; i++) mismoPeso &= politica.getPeso(i) == politica.getPeso(0);
+            txtParciales = new Text[componentes];
+            for (int i = 0; i < txtParciales.length; i++) {
+                new Label(shellPrincipal, SWT.NONE).setText(politica.getComponente(i)
+                        + (mismoPeso ? "" : " (peso " + politica.getPeso(i) + ")") + ":");
                 txtParciales[i] = new Text(shellPrincipal, SWT.BORDER);
                 txtParciales[i].setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
             }
@@ -119,25 +229,47 @@ public class GestorEstudiantes {
             btnVerDetalles.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 2, 1));
             btnVerDetalles.addListener(SWT.Selection, e -> abrirPantallaDetalles());
 
+            // Botón para importar estudiantes y notas desde CSV
+            btnImportar = new Button(shellPrincipal, SWT.PUSH);
+            btnImportar.setText("Importar CSV");
+            btnImportar.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 2, 1));
+            btnImportar.addListener(SWT.Selection, e -> importarCsv());
+
+            // Botón para exportar todo el historial y el informe de cohortes
+            btnExportarHistorial = new Button(shellPrincipal, SWT.PUSH);
+            btnExportarHistorial.setText("Exportar historial");
+            btnExportarHistorial.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 2, 1));
+            btnExportarHistorial.addListener(SWT.Selection, e -> exportarHistorial());
+
+            // Controles de la pantalla principal que cambian con el modo noche
+            motorTemas.registrar(shellPrincipal);
+            motorTemas.registrar(txtNombre);
+            for (Text txtParcial : txtParciales) motorTemas.registrar(txtParcial);
+            motorTemas.registrar(lblResultado);
+
         } catch (Exception e) {
             mostrarError("Error al inicializar componentes: " + e.getMessage());
         }
     }
 
     /**
-     * Inicializa los componentes de la pantalla de detalles, incluyendo el botón "Salir".
+     * Crea los componentes de la pantalla de detalles, incluyendo el botón "Salir".
+     * Se llama una sola vez: al cerrarla la pantalla se oculta y se reutiliza en la siguiente
+     * apertura, enlazada a los datos del estudiante actual con {@link #vincularDatosDetalles()}.
      */
     private void inicializarComponentesDetalles() {
         try {
             shellDetalles = new Shell(shellPrincipal.getDisplay(), SWT.DIALOG_TRIM | SWT.APPLICATION_MODAL);
-            shellDetalles.setSize(500, 660);
+            shellDetalles.setSize(500, 780);
             shellDetalles.setText("Detalles del Estudiante");
             shellDetalles.setLayout(new GridLayout(2, false));
 
-            // Convertir fields a variables locales
-            Label lblNombreDetalle;
-            Label lblPromedioDetalle;
-            Label lblEstadoDetalle;
+            // Cerrar solo oculta la pantalla, para reabrirla sin reconstruirla
+            shellDetalles.addListener(SWT.Close, e -> {
+                e.doit = false;
+                shellDetalles.setVisible(false);
+            });
+
             Button btnGuardar;
 
             // Grupo de información del estudiante
@@ -150,17 +282,22 @@ public class GestorEstudiantes {
             new Label(grpInfo, SWT.NONE).setText("Nombre:");
             lblNombreDetalle = new Label(grpInfo, SWT.NONE);
             lblNombreDetalle.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-            lblNombreDetalle.setText(nombreEstudiante);
 
             new Label(grpInfo, SWT.NONE).setText("Promedio:");
             lblPromedioDetalle = new Label(grpInfo, SWT.NONE);
             lblPromedioDetalle.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-            lblPromedioDetalle.setText(String.format("%.2f", promedioCalculado));
 
             new Label(grpInfo, SWT.NONE).setText("Estado:");
             lblEstadoDetalle = new Label(grpInfo, SWT.NONE);
             lblEstadoDetalle.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-            lblEstadoDetalle.setText(estadoFinal);
+
+            new Label(grpInfo, SWT.NONE).setText("Promedio historial:");
+            lblPromedioHistorial = new Label(grpInfo, SWT.NONE);
+            lblPromedioHistorial.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+            new Label(grpInfo, SWT.NONE).setText("Asignaturas aprobadas:");
+            lblAprobadasHistorial = new Label(grpInfo, SWT.NONE);
+            lblAprobadasHistorial.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
 
             // Grupo para agregar asignatura
             Group grpAgregarAsignatura = new Group(shellDetalles, SWT.NONE);
@@ -173,6 +310,8 @@ public class GestorEstudiantes {
             new Label(grpAgregarAsignatura, SWT.NONE).setText("Asignatura:");
             txtAsignatura = new Text(grpAgregarAsignatura, SWT.BORDER);
             txtAsignatura.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+            new AutocompletadoTexto(txtAsignatura,
+                    texto -> estadoAcademico.getNombresAsignaturas().buscar(texto, AutocompletadoTexto.MAX_SUGERENCIAS));
 
             new Label(grpAgregarAsignatura, SWT.NONE).setText("Nota:");
             txtNota = new Text(grpAgregarAsignatura, SWT.BORDER);
@@ -192,11 +331,11 @@ public class GestorEstudiantes {
             btnAgregarAsignatura.addListener(SWT.Selection, e -> agregarAsignatura());
 
             // Tabla de historial académico
-            Label lblHistorial = new Label(shellDetalles, SWT.NONE);
+            lblHistorial = new Label(shellDetalles, SWT.NONE);
             lblHistorial.setText("Historial de Asignaturas:");
             lblHistorial.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
 
-            tblHistorial = new Table(shellDetalles, SWT.BORDER | SWT.FULL_SELECTION);
+            tblHistorial = new Table(shellDetalles, SWT.BORDER | SWT.FULL_SELECTION | SWT.VIRTUAL);
             tblHistorial.setLinesVisible(true);
             tblHistorial.setHeaderVisible(true);
             GridData gdTable = new GridData(SWT.FILL, SWT.FILL, true, true, 2, 1);
@@ -204,16 +343,46 @@ public class GestorEstudiantes {
             gdTable.minimumHeight = 100;
             tblHistorial.setLayoutData(gdTable);
 
-            // Crear columnas
-            String[] titles = {"Asignatura", "Nota", "Semestre", "Estado"};
-            for (String title : titles) {
-                TableColumn column = new TableColumn(tblHistorial, SWT.NONE);
-                column.setText(title);
-                column.setWidth(100);
-            }
+            // Enlazar el modelo a la tabla virtual (crea las columnas); las filas se cargan al vincular
+            modeloHistorial = new ModeloHistorial();
+            tablaHistorial = new TablaHistorialVirtual(tblHistorial, modeloHistorial);
+
+            // Cambios sobre el historial
+            Composite cmpCambios = new Composite(shellDetalles, SWT.NONE);
+            cmpCambios.setLayout(new GridLayout(3, true));
+            cmpCambios.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+
+            btnEliminarAsignatura = new Button(cmpCambios, SWT.PUSH);
+            btnEliminarAsignatura.setText("Eliminar");
+            btnEliminarAsignatura.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+            btnEliminarAsignatura.addListener(SWT.Selection, e -> eliminarAsignatura());
 
-            // Añadir datos iniciales a la tabla
-            agregarDatosEjemploTabla();
+            btnDeshacer = new Button(cmpCambios, SWT.PUSH);
+            btnDeshacer.setText("Deshacer");
+            btnDeshacer.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+            btnDeshacer.addListener(SWT.Selection, e -> deshacerCambio());
+
+            btnRehacer = new Button(cmpCambios, SWT.PUSH);
+            btnRehacer.setText("Rehacer");
+            btnRehacer.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+            btnRehacer.addListener(SWT.Selection, e -> rehacerCambio());
+
+            // Consulta del historial tal como estaba en una fecha
+            Composite cmpFecha = new Composite(shellDetalles, SWT.NONE);
+            cmpFecha.setLayout(new GridLayout(5, false));
+            cmpFecha.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+
+            new Label(cmpFecha, SWT.NONE).setText("Ver al:");
+            dtFechaHistorial = new DateTime(cmpFecha, SWT.DATE | SWT.DROP_DOWN);
+            dtHoraHistorial = new DateTime(cmpFecha, SWT.TIME | SWT.SHORT);
+
+            Button btnVerFecha = new Button(cmpFecha, SWT.PUSH);
+            btnVerFecha.setText("Ver");
+            btnVerFecha.addListener(SWT.Selection, e -> verHistorialEnFecha());
+
+            Button btnVerActual = new Button(cmpFecha, SWT.PUSH);
+            btnVerActual.setText("Actual");
+            btnVerActual.addListener(SWT.Selection, e -> refrescarHistorialDetalle());
 
             // Sección de comentarios y calificación
             Group grpComentarios = new Group(shellDetalles, SWT.NONE);
@@ -235,7 +404,7 @@ public class GestorEstudiantes {
 
             // Botones de acción
             Composite btnComposite = new Composite(shellDetalles, SWT.NONE);
-            btnComposite.setLayout(new GridLayout(3, false)); // Cambiado a 3 columnas para el nuevo botón
+            btnComposite.setLayout(new GridLayout(4, false));
             btnComposite.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
 
             btnGuardar = new Button(btnComposite, SWT.PUSH);
@@ -243,6 +412,11 @@ public class GestorEstudiantes {
             btnGuardar.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, true, false));
             btnGuardar.addListener(SWT.Selection, e -> guardarComentarios());
 
+            Button btnExportar = new Button(btnComposite, SWT.PUSH);
+            btnExportar.setText("Exportar");
+            btnExportar.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, true, false));
+            btnExportar.addListener(SWT.Selection, e -> exportarExpediente());
+
             Button btnVolver = new Button(btnComposite, SWT.PUSH);
             btnVolver.setText("Volver");
             btnVolver.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, true, false));
@@ -260,11 +434,8 @@ public class GestorEstudiantes {
                 }
             });
 
-            shellDetalles.layout(true, true);
-
-            if (modoNoche) {
-                aplicarModoNochePantallaDetalles();
-            }
+            // Registro de temas una sola vez; si el modo noche está activo se aplica al registrar
+            motorTemas.registrarArbol(shellDetalles);
 
         } catch (Exception e) {
             mostrarError("Error al inicializar pantalla de detalles: " + e.getMessage());
@@ -273,47 +444,40 @@ public class GestorEstudiantes {
 
     // Método extraído para validar entradas numéricas con decimales
     private void validarNumeroDecimal(VerifyEvent e, Text campo) {
-        String text = e.text;
-        if (text.isEmpty()) return;
-        if (text.equals(".") && !campo.getText().contains(".")) return;
-        if (!text.matches("[0-9.]")) e.doit = false;
+        if (!ValidadorNotas.permiteInsercion(campo.getText(), e.start, e.end, e.text)) e.doit = false;
     }
 
     private void agregarAsignatura() {
+        long inicio = System.nanoTime();
         try {
-            String asignatura = txtAsignatura.getText().trim();
-            String notaStr = txtNota.getText().trim();
-            String semestre = cmbSemestre.getText();
-
-            if (asignatura.isEmpty()) {
-                mostrarMensaje(shellDetalles, SWT.ICON_WARNING, "Debe ingresar el nombre de la asignatura");
-                return;
-            }
-
-            if (notaStr.isEmpty()) {
-                mostrarMensaje(shellDetalles, SWT.ICON_WARNING, "Debe ingresar la nota");
+            String asignatura;
+            int nota;
+            try {
+                asignatura = unificarNombre(estadoAcademico.getNombresAsignaturas(),
+                        ValidadorNotas.validarAsignatura(txtAsignatura.getText()));
+                nota = ValidadorNotas.parsearCentesimas(txtNota.getText());
+            } catch (IllegalArgumentException ex) {
+                metricas.rechazoValidacion();
+                mostrarMensaje(shellDetalles, SWT.ICON_WARNING, ex.getMessage());
                 return;
             }
+            String semestre = cmbSemestre.getText();
 
-            double nota = Double.parseDouble(notaStr);
-            if (nota < MIN_NOTA || nota > MAX_NOTA) {
-                mostrarMensaje(shellDetalles, SWT.ICON_WARNING,
-                        "La nota debe estar entre " + MIN_NOTA + " y " + MAX_NOTA);
-                return;
+            RegistroAsignatura registro = evaluador.registro(estudianteActual.getNombre(), asignatura, nota, semestre);
+            registrarAsignatura(registro);
+            registrarCambio(new Cambio(true, registro));
+            if (viendoVersionPasada) {
+                refrescarHistorialDetalle();
+            } else {
+                int posicion = modeloHistorial.agregar(registro);
+                tablaHistorial.filaAgregada(posicion);
+                actualizarAgregadosDetalle();
             }
 
-            String estado = nota >= NOTA_APROBACION ? "Aprobado" : "Reprobado";
-
-            TableItem item = new TableItem(tblHistorial, SWT.NONE);
-            item.setText(new String[]{
-                    asignatura,
-                    String.format("%.1f", nota),
-                    semestre,
-                    estado
-            });
-
             txtAsignatura.setText("");
             txtNota.setText("");
+            metricas.filaInsertada();
+            metricas.registrar(Metricas.Operacion.AGREGAR_ASIGNATURA, inicio); // Antes del diálogo modal
 
             mostrarMensaje(shellDetalles, SWT.ICON_INFORMATION, "Asignatura agregada correctamente");
         } catch (Exception e) {
@@ -321,17 +485,156 @@ public class GestorEstudiantes {
         }
     }
 
-    private void agregarDatosEjemploTabla() {
-        String[][] datos = {
-                {"Programación I", "85", "2023-1", "Aprobado"},
-                {"Matemáticas", "78", "2023-1", "Aprobado"},
-                {"Física", "65", "2023-1", "Reprobado"}
-        };
+    /**
+     * Elimina la asignatura seleccionada en la tabla.
+     */
+    private void eliminarAsignatura() {
+        int seleccion = tblHistorial.getSelectionIndex();
+        if (seleccion < 0) {
+            mostrarMensaje(shellDetalles, SWT.ICON_WARNING, "Seleccione la asignatura a eliminar");
+            return;
+        }
+        RegistroAsignatura registro = modeloHistorial.fila(seleccion);
+        try {
+            quitarAsignatura(registro);
+        } catch (IllegalArgumentException e) {
+            mostrarMensaje(shellDetalles, SWT.ICON_WARNING, e.getMessage());
+            return;
+        }
+        registrarCambio(new Cambio(false, registro));
+        refrescarHistorialDetalle();
+    }
 
-        for (String[] fila : datos) {
-            TableItem item = new TableItem(tblHistorial, SWT.NONE);
-            item.setText(fila);
+    private void registrarCambio(Cambio cambio) {
+        cambiosDeshacer.push(cambio);
+        cambiosRehacer.clear();
+        actualizarBotonesCambios();
+    }
+
+    private void deshacerCambio() {
+        if (cambiosDeshacer.isEmpty()) return;
+        Cambio cambio = cambiosDeshacer.peek();
+        if (aplicarCambio(cambio.inverso())) {
+            cambiosRehacer.push(cambiosDeshacer.pop());
         }
+        refrescarHistorialDetalle();
+    }
+
+    private void rehacerCambio() {
+        if (cambiosRehacer.isEmpty()) return;
+        Cambio cambio = cambiosRehacer.peek();
+        if (aplicarCambio(cambio)) {
+            cambiosDeshacer.push(cambiosRehacer.pop());
+        }
+        refrescarHistorialDetalle();
+    }
+
+    /**
+     * @return false si el cambio ya no puede aplicarse, por ejemplo porque la asignatura se eliminó por otra vía.
+     */
+    private boolean aplicarCambio(Cambio cambio) {
+        try {
+            if (cambio.alta) {
+                registrarAsignatura(cambio.registro);
+            } else {
+                quitarAsignatura(cambio.registro);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            mostrarMensaje(shellDetalles, SWT.ICON_WARNING, e.getMessage());
+            return false;
+        }
+    }
+
+    private void actualizarBotonesCambios() {
+        btnDeshacer.setEnabled(!cambiosDeshacer.isEmpty());
+        btnRehacer.setEnabled(!cambiosRehacer.isEmpty());
+        btnEliminarAsignatura.setEnabled(!viendoVersionPasada);
+    }
+
+    /**
+     * Vuelve a cargar el historial vigente del estudiante en la tabla.
+     */
+    private void refrescarHistorialDetalle() {
+        viendoVersionPasada = false;
+        versionPasada = null;
+        lblHistorial.setText("Historial de Asignaturas:");
+        // Una sola reconstrucción de la vista aunque el historial sea grande y haya un orden activo
+        modeloHistorial.reemplazar(estadoAcademico.asignaturasDe(estudianteActual.getNombre()));
+        tablaHistorial.refrescar();
+        actualizarAgregadosDetalle();
+        actualizarBotonesCambios();
+    }
+
+    /**
+     * Muestra el historial del estudiante tal como estaba en la fecha y hora elegidas. La versión se
+     * obtiene del historial persistente sin copiarlo.
+     */
+    private void verHistorialEnFecha() {
+        Calendar fecha = Calendar.getInstance();
+        fecha.clear();
+        fecha.set(dtFechaHistorial.getYear(), dtFechaHistorial.getMonth(), dtFechaHistorial.getDay(),
+                dtHoraHistorial.getHours(), dtHoraHistorial.getMinutes(), 59);
+        fecha.set(Calendar.MILLISECOND, 999);
+        HistorialVersionado.Version version = estadoAcademico.getHistorial().enFecha(fecha.getTimeInMillis());
+
+        viendoVersionPasada = true;
+        versionPasada = version;
+        lblHistorial.setText("Historial de Asignaturas al "
+                + new SimpleDateFormat("dd/MM/yyyy HH:mm").format(fecha.getTime()) + ":");
+        modeloHistorial.reemplazar(version.de(estudianteActual.getNombre()));
+        tablaHistorial.refrescar();
+        tblHistorial.setTopIndex(0);
+        actualizarBotonesCambios();
+    }
+
+    /**
+     * Muestra los agregados del historial guardado del estudiante, que se mantienen al día
+     * en cada alta sin recorrer el historial.
+     */
+    private void actualizarAgregadosDetalle() {
+        AgregadosAcademicos.Resumen resumen = estadoAcademico.getAgregados().deEstudiante(estudianteActual.getNombre());
+        if (resumen.getCantidad() == 0) {
+            lblPromedioHistorial.setText("Sin asignaturas registradas");
+            lblAprobadasHistorial.setText("0");
+            return;
+        }
+        lblPromedioHistorial.setText(NotaFija.aTexto(resumen.getPromedioCentesimas(), 2, new char[NotaFija.MAX_CARACTERES])
+                + (resumen.isAprobado() ? " - APROBADO" : " - REPROBADO"));
+        lblAprobadasHistorial.setText(resumen.getAprobadas() + " de " + resumen.getCantidad());
+    }
+
+    /**
+     * Enlaza la pantalla de detalles, ya construida, a los datos del estudiante actual.
+     */
+    private void vincularDatosDetalles() {
+        lblNombreDetalle.setText(estudianteActual.getNombre());
+        lblPromedioDetalle.setText(String.format("%.2f", estudianteActual.getPromedio()));
+        lblEstadoDetalle.setText(estudianteActual.getEstado());
+
+        // Deshacer y rehacer se limitan a los cambios hechos desde que se abrió la pantalla
+        cambiosDeshacer.clear();
+        cambiosRehacer.clear();
+        refrescarHistorialDetalle();
+        tblHistorial.setTopIndex(0);
+        Calendar ahora = Calendar.getInstance();
+        dtFechaHistorial.setDate(ahora.get(Calendar.YEAR), ahora.get(Calendar.MONTH), ahora.get(Calendar.DAY_OF_MONTH));
+        dtHoraHistorial.setTime(ahora.get(Calendar.HOUR_OF_DAY), ahora.get(Calendar.MINUTE), 0);
+
+        txtAsignatura.setText("");
+        txtNota.setText("");
+        cmbSemestre.select(0);
+
+        // Recuperar la última evaluación guardada del estudiante
+        Evaluacion evaluacion = estadoAcademico.evaluacionDe(estudianteActual.getNombre());
+        if (evaluacion != null) {
+            cmbCalificacion.setText(evaluacion.getCalificacion());
+            txtComentarios.setText(evaluacion.getComentarios());
+        } else {
+            cmbCalificacion.select(0);
+            txtComentarios.setText("");
+        }
+        shellDetalles.layout(true, true);
     }
 
     private void configurarEventosPrincipal() {
@@ -356,36 +659,52 @@ public class GestorEstudiantes {
         }
     }
 
+    /**
+     * Si ya existe el mismo nombre escrito con otras tildes, mayúsculas o espacios, usa el existente
+     * para no crear un duplicado ("fisica" se guarda como "Física").
+     */
+    private static String unificarNombre(IndiceNombres indice, String nombre) {
+        String existente = indice.equivalente(nombre);
+        return existente != null ? existente : nombre;
+    }
+
     private void calcularPromedio() {
+        long inicio = System.nanoTime();
         try {
-            nombreEstudiante = txtNombre.getText().trim();
-            if (nombreEstudiante.isEmpty()) {
+            String nombre = txtNombre.getText().trim();
+            if (nombre.isEmpty()) {
+                metricas.rechazoValidacion();
                 mostrarError("El nombre del estudiante es obligatorio");
                 return;
             }
-
-            double suma = 0;
-            for (int i = 0; i < 3; i++) {
-                String notaTexto = txtParciales[i].getText().trim();
-                if (notaTexto.isEmpty()) {
-                    mostrarError("La nota del parcial " + (i + 1) + " es obligatoria");
+            nombre = unificarNombre(estadoAcademico.getNombresEstudiantes(), nombre);
+
+            // Notas en punto fijo: la aprobación se decide con la suma ponderada exacta, sin redondeos
+            int[] notas = new int[txtParciales.length];
+            for (int i = 0; i < txtParciales.length; i++) {
+                int nota = NotaFija.parsear(txtParciales[i].getText());
+                if (nota < 0) metricas.rechazoValidacion();
+                if (nota == NotaFija.VACIA) {
+                    mostrarError("La nota de " + politica.getComponente(i) + " es obligatoria");
                     return;
                 }
-
-                double nota = Double.parseDouble(notaTexto);
-                if (nota < MIN_NOTA || nota > MAX_NOTA) {
+                if (nota == NotaFija.FORMATO_INVALIDO) {
+                    mostrarError("Ingrese valores numéricos válidos");
+                    return;
+                }
+                if (nota == NotaFija.FUERA_DE_RANGO) {
                     mostrarError("Las notas deben estar entre " + MIN_NOTA + " y " + MAX_NOTA);
                     return;
                 }
-                suma += nota;
+                notas[i] = nota;
             }
 
-            promedioCalculado = suma / 3;
-            estadoFinal = promedioCalculado >= NOTA_APROBACION ? "APROBADO" : "REPROBADO";
-            lblResultado.setText(String.format("%s - Promedio: %.2f - %s", nombreEstudiante, promedioCalculado, estadoFinal));
+            estudianteActual = registroEstudiantes.registrar(nombre, notas,
+                    evaluador.promedioCentesimas(notas), evaluador.aprobado(notas, -1));
+            lblResultado.setText(String.format("%s - Promedio: %.2f - %s",
+                    estudianteActual.getNombre(), estudianteActual.getPromedio(), estudianteActual.getEstado()));
+            metricas.registrar(Metricas.Operacion.CALCULAR_PROMEDIO, inicio);
 
-        } catch (NumberFormatException ex) {
-            mostrarError("Ingrese valores numéricos válidos");
         } catch (Exception ex) {
             mostrarError("Error al calcular el promedio: " + ex.getMessage());
         }
@@ -393,59 +712,14 @@ public class GestorEstudiantes {
 
     private void actualizarModoNoche() {
         try {
-            Color textoColor = modoNoche ? colorTextoNoche : colorTextoNormal;
-            Color fondoColor = modoNoche ? colorFondoNoche : colorFondoNormal;
-
-            shellPrincipal.setBackground(fondoColor);
-            txtNombre.setBackground(fondoColor);
-            txtNombre.setForeground(textoColor);
-
-            for (Text txtParcial : txtParciales) {
-                txtParcial.setBackground(fondoColor);
-                txtParcial.setForeground(textoColor);
-            }
-
-            lblResultado.setBackground(fondoColor);
-            lblResultado.setForeground(textoColor);
-
+            // Ambas pantallas (la de detalles aunque esté oculta) cambian en un solo lote
+            motorTemas.aplicar(modoNoche ? MotorTemas.Tema.NOCHE : MotorTemas.Tema.DIA);
             btnModoNoche.setText(modoNoche ? "Modo Día" : "Modo Noche");
-
-            if (shellDetalles != null && !shellDetalles.isDisposed()) {
-                aplicarModoNochePantallaDetalles();
-            }
-
         } catch (Exception e) {
             mostrarError("Error al cambiar el modo de visualización");
         }
     }
 
-    private void aplicarModoNochePantallaDetalles() {
-        Color textoColor = modoNoche ? colorTextoNoche : colorTextoNormal;
-        Color fondoColor = modoNoche ? colorFondoNoche : colorFondoNormal;
-
-        shellDetalles.setBackground(fondoColor);
-
-        Control[] controles = shellDetalles.getChildren();
-        for (Control control : controles) {
-            if (!(control instanceof Table)) {
-                aplicarModoNocheRecursivo(control, textoColor, fondoColor);
-            }
-        }
-    }
-
-    private void aplicarModoNocheRecursivo(Control control, Color textoColor, Color fondoColor) {
-        control.setBackground(fondoColor);
-        control.setForeground(textoColor);
-
-        if (control instanceof Composite) {
-            for (Control hijo : ((Composite) control).getChildren()) {
-                if (!(hijo instanceof Table)) {
-                    aplicarModoNocheRecursivo(hijo, textoColor, fondoColor);
-                }
-            }
-        }
-    }
-
     private void mostrarMensaje(Shell shell, int style, String mensaje) {
         MessageBox mb = new MessageBox(shell, style | SWT.OK);
         mb.setMessage(mensaje);
@@ -462,31 +736,285 @@ public class GestorEstudiantes {
             return;
         }
 
-        inicializarComponentesDetalles();
+        long inicio = System.nanoTime();
+        if (shellDetalles == null || shellDetalles.isDisposed()) {
+            inicializarComponentesDetalles();
+        }
+        vincularDatosDetalles();
         shellDetalles.open();
+        metricas.registrar(Metricas.Operacion.ABRIR_DETALLES, inicio);
 
         Display display = shellPrincipal.getDisplay();
-        while (!shellDetalles.isDisposed()) {
-            if (!display.readAndDispatch()) {
-                display.sleep();
+        while (!shellDetalles.isDisposed() && shellDetalles.isVisible()) {
+            despacharEvento(display);
+        }
+    }
+
+    /**
+     * Atiende un evento del bucle de SWT, o duerme si no hay ninguno, midiendo lo que tarda en despacharse.
+     */
+    private void despacharEvento(Display display) {
+        long inicio = System.nanoTime();
+        if (display.readAndDispatch()) {
+            metricas.registrar(Metricas.Operacion.DESPACHO_EVENTOS, inicio);
+        } else {
+            display.sleep();
+        }
+    }
+
+    private void importarCsv() {
+        if (tareaImportacion != null) {
+            // Mientras hay una importación en curso el botón la cancela
+            tareaImportacion.cancelar();
+            importadorActivo.cancelar();
+            return;
+        }
+
+        FileDialog dialogo = new FileDialog(shellPrincipal, SWT.OPEN);
+        dialogo.setFilterExtensions(new String[]{"*.csv", "*.*"});
+        String ruta = dialogo.open();
+        if (ruta == null) return;
+
+        Display display = shellPrincipal.getDisplay();
+        // La importación usa la política activa al empezar, aunque se cargue otra mientras tanto
+        EvaluadorCompilado evaluadorImportacion = evaluador;
+        int componentes = evaluadorImportacion.getNumComponentes();
+        ImportadorCsv importador = new ImportadorCsv(Paths.get(ruta), evaluadorImportacion);
+        List<String> rechazos = new ArrayList<>();
+        int[] aprobados = new int[1];
+        String resultadoPrevio = lblResultado.getText();
+
+        // Los estudiantes se califican por lotes con el evaluador, desde el hilo de la importación
+        String[] nombresLote = new String[LOTE_IMPORTACION];
+        int[][] notasLote = new int[LOTE_IMPORTACION][];
+        int[] enLote = new int[1];
+        Runnable calificarLote = () -> {
+            int n = enLote[0];
+            if (n == 0) return;
+            int[][] columnas = new int[componentes][n];
+            for (int i = 0; i < n; i++) {
+                for (int k = 0; k < componentes; k++) columnas[k][i] = notasLote[i][k];
+            }
+            int[] promedios = new int[n];
+            boolean[] estados = new boolean[n];
+            aprobados[0] += evaluadorImportacion.evaluar(columnas, null, promedios, estados);
+            // Mientras la interfaz sigue leyendo el registro
+            for (int i = 0; i < n; i++) {
+                registroEstudiantes.registrar(nombresLote[i], notasLote[i], promedios[i], estados[i]);
+            }
+            enLote[0] = 0;
+        };
+
+        ImportadorCsv.Receptor receptor = new ImportadorCsv.Receptor() {
+            @Override
+            public void estudiante(String nombre, int[] parcialesCentesimas) {
+                nombresLote[enLote[0]] = nombre;
+                notasLote[enLote[0]++] = parcialesCentesimas;
+                if (enLote[0] == LOTE_IMPORTACION) calificarLote.run();
             }
+
+            @Override
+            public void asignatura(RegistroAsignatura registro) {
+                registrarAsignatura(registro);
+                metricas.filaInsertada();
+            }
+
+            @Override
+            public void rechazo(long linea, String motivo) {
+                metricas.rechazoValidacion();
+                if (rechazos.size() < MAX_RECHAZOS_MOSTRADOS) rechazos.add("Línea " + linea + ": " + motivo);
+            }
+        };
+
+        monitorLatencia.iniciar();
+        btnImportar.setText("Cancelar importación");
+        importadorActivo = importador;
+        tareaImportacion = planificador.enviar(
+                control -> {
+                    try {
+                        return importador.importar(receptor, control::progreso);
+                    } finally {
+                        calificarLote.run();
+                    }
+                },
+                fraccion -> coalescedor.publicarUltima(lblResultado, () -> {
+                    if (!lblResultado.isDisposed()) {
+                        lblResultado.setText("Importando... " + (int) (fraccion * 100) + "%");
+                    }
+                }));
+
+        tareaImportacion.getResultado().whenComplete((resumen, error) -> {
+            String mensaje;
+            int icono;
+            if (error instanceof CancellationException) {
+                mensaje = "Importación cancelada";
+                icono = SWT.ICON_INFORMATION;
+            } else if (error != null) {
+                mensaje = "Error al importar el archivo: " + error.getMessage();
+                icono = SWT.ICON_ERROR;
+            } else {
+                StringBuilder sb = new StringBuilder("Importación finalizada")
+                        .append("\nLíneas: ").append(resumen.getLineas())
+                        .append("\nEstudiantes: ").append(resumen.getEstudiantes())
+                        .append(" (aprobados: ").append(aprobados[0]).append(")")
+                        .append("\nEstudiantes registrados en total: ").append(registroEstudiantes.tamano())
+                        .append("\nAsignaturas: ").append(resumen.getAsignaturas())
+                        .append("\nRechazadas: ").append(resumen.getRechazos());
+                for (String rechazo : rechazos) sb.append("\n").append(rechazo);
+                mensaje = sb.toString();
+                icono = resumen.getRechazos() > 0 ? SWT.ICON_WARNING : SWT.ICON_INFORMATION;
+            }
+
+            // El mensaje modal se abre fuera del coalescedor para no dejar el redibujado suspendido
+            if (display.isDisposed()) return;
+            display.asyncExec(() -> {
+                if (shellPrincipal.isDisposed()) return;
+                tareaImportacion = null;
+                importadorActivo = null;
+                monitorLatencia.detener();
+                btnImportar.setText("Importar CSV");
+                // Un último avance aún sin aplicar dejaría el porcentaje en la etiqueta
+                coalescedor.descartar(lblResultado);
+                lblResultado.setText(resultadoPrevio);
+                mostrarMensaje(shellPrincipal, icono, mensaje + latenciaBucleEventos());
+            });
+        });
+    }
+
+    /**
+     * Pide un archivo .csv o .jsonl en el que guardar.
+     * @return La ruta elegida, o null si se canceló.
+     */
+    private Path elegirArchivoExportacion(Shell padre, String nombreSugerido) {
+        FileDialog dialogo = new FileDialog(padre, SWT.SAVE);
+        dialogo.setFilterExtensions(new String[]{"*.csv", "*.jsonl"});
+        dialogo.setFilterNames(new String[]{"CSV (*.csv)", "JSON Lines (*.jsonl)"});
+        dialogo.setFileName(nombreSugerido + ".csv");
+        dialogo.setOverwrite(true);
+        String ruta = dialogo.open();
+        return ruta == null ? null : Paths.get(ruta);
+    }
+
+    /**
+     * Exporta el expediente del estudiante (sus asignaturas en orden de registro y la evaluación
+     * guardada) recorriendo la versión del historial que muestra la tabla, sin copiarla.
+     */
+    private void exportarExpediente() {
+        Path destino = elegirArchivoExportacion(shellDetalles, estudianteActual.getNombre().replaceAll("[^\\p{L}\\p{N}]+", "_"));
+        if (destino == null) return;
+        HistorialVersionado.Version version = viendoVersionPasada ? versionPasada : estadoAcademico.getHistorial().actual();
+        try {
+            long exportadas = new ExportadorStreaming().exportarExpediente(destino, ExportadorStreaming.Formato.deArchivo(destino),
+                    version, estudianteActual.getNombre(), estadoAcademico.evaluacionDe(estudianteActual.getNombre()));
+            mostrarMensaje(shellDetalles, SWT.ICON_INFORMATION, "Expediente exportado: " + exportadas + " asignaturas");
+        } catch (Exception e) {
+            mostrarMensaje(shellDetalles, SWT.ICON_ERROR, "Error al exportar el expediente: " + e.getMessage());
         }
     }
 
+    /**
+     * Exporta en segundo plano todo el historial vigente y, junto a él, el informe de cohortes por
+     * asignatura ({@code <nombre>-cohortes.<ext>}).
+     */
+    private void exportarHistorial() {
+        Path destino = elegirArchivoExportacion(shellPrincipal, "historial");
+        if (destino == null) return;
+        ExportadorStreaming.Formato formato = ExportadorStreaming.Formato.deArchivo(destino);
+        String nombre = destino.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        Path cohortes = destino.resolveSibling(punto > 0
+                ? nombre.substring(0, punto) + "-cohortes" + nombre.substring(punto) : nombre + "-cohortes");
+
+        // La versión se fija aquí: lo que se registre durante la exportación no entra en el archivo
+        HistorialVersionado.Version version = estadoAcademico.getHistorial().actual();
+        EstadoAcademico estado = estadoAcademico;
+        ExportadorStreaming exportador = new ExportadorStreaming();
+        String resultadoPrevio = lblResultado.getText();
+        btnExportarHistorial.setEnabled(false);
+        monitorLatencia.iniciar();
+
+        PlanificadorTareas.Tarea<Long> tarea = planificador.enviar(control -> {
+            long filas = exportador.exportarHistorial(destino, formato, version, estado::evaluacionDe, control);
+            List<RegistroAsignatura> registros = new ArrayList<>(version.tamano());
+            version.recorrer(registros::add);
+            exportador.exportarCohorte(cohortes, formato,
+                    EstadisticasCohorte.agrupadas(registros, RegistroAsignatura::getAsignatura));
+            return filas;
+        }, fraccion -> coalescedor.publicarUltima(lblResultado, () -> {
+            if (!lblResultado.isDisposed()) {
+                lblResultado.setText("Exportando... " + (int) (fraccion * 100) + "%");
+            }
+        }));
+
+        Display display = shellPrincipal.getDisplay();
+        tarea.getResultado().whenComplete((filas, error) -> {
+            if (display.isDisposed()) return;
+            display.asyncExec(() -> {
+                if (shellPrincipal.isDisposed()) return;
+                btnExportarHistorial.setEnabled(true);
+                monitorLatencia.detener();
+                coalescedor.descartar(lblResultado);
+                lblResultado.setText(resultadoPrevio);
+                if (error != null) {
+                    Throwable causa = error.getCause() != null ? error.getCause() : error;
+                    mostrarError("Error al exportar el historial: " + causa.getMessage());
+                } else {
+                    mostrarMensaje(shellPrincipal, SWT.ICON_INFORMATION, "Historial exportado: " + filas
+                            + " asignaturas\nInforme de cohortes: " + cohortes.getFileName() + latenciaBucleEventos());
+                }
+            });
+        });
+    }
+
+    private String latenciaBucleEventos() {
+        return String.format("\nLatencia del bucle de eventos: media %.1f ms, máxima %.1f ms",
+                monitorLatencia.getLatenciaMediaMs(), monitorLatencia.getLatenciaMaximaMs());
+    }
+
     private void guardarComentarios() {
+        long inicio = System.nanoTime();
         String calificacion = cmbCalificacion.getText();
         String comentarios = txtComentarios.getText();
 
         if (comentarios.trim().isEmpty()) {
+            metricas.rechazoValidacion();
             MessageBox mb = new MessageBox(shellDetalles, SWT.ICON_WARNING | SWT.OK);
             mb.setMessage("Por favor ingrese algún comentario antes de guardar");
             mb.open();
             return;
         }
 
-        MessageBox mb = new MessageBox(shellDetalles, SWT.ICON_INFORMATION | SWT.OK);
-        mb.setMessage("Evaluación guardada correctamente:\nCalificación: " + calificacion +
-                "\nComentarios: " + comentarios);
+        Evaluacion evaluacion = new Evaluacion(estudianteActual.getNombre(), calificacion, comentarios, System.currentTimeMillis());
+        if (diario == null) {
+            estadoAcademico.aplicar(evaluacion);
+            metricas.registrar(Metricas.Operacion.GUARDAR_COMENTARIOS, inicio);
+            confirmarEvaluacion(evaluacion, null);
+            return;
+        }
+
+        // La confirmación llega cuando el evento es durable, sin bloquear la interfaz durante el fsync
+        Display display = shellPrincipal.getDisplay();
+        try {
+            diario.registrar(evaluacion).whenComplete((ok, error) -> {
+                metricas.registrar(Metricas.Operacion.GUARDAR_COMENTARIOS, inicio);
+                if (!display.isDisposed()) display.asyncExec(() -> confirmarEvaluacion(evaluacion, error));
+            });
+        } catch (RuntimeException e) {
+            confirmarEvaluacion(evaluacion, e);
+        }
+    }
+
+    private void confirmarEvaluacion(Evaluacion evaluacion, Throwable error) {
+        if (shellPrincipal.isDisposed()) return;
+        // Los detalles pueden haberse cerrado mientras se esperaba al disco
+        Shell padre = shellDetalles.isVisible() ? shellDetalles : shellPrincipal;
+        if (error != null) {
+            mostrarMensaje(padre, SWT.ICON_ERROR, "Error al guardar la evaluación: " + error.getMessage());
+            return;
+        }
+        MessageBox mb = new MessageBox(padre, SWT.ICON_INFORMATION | SWT.OK);
+        mb.setMessage("Evaluación guardada correctamente:\nCalificación: " + evaluacion.getCalificacion() +
+                "\nComentarios: " + evaluacion.getComentarios());
         mb.open();
     }
 
@@ -499,17 +1027,40 @@ public class GestorEstudiantes {
     }
 
     public void dispose() {
+        if (tareaImportacion != null) tareaImportacion.cancelar();
+        if (importadorActivo != null) importadorActivo.cancelar();
+        planificador.close();
+        monitorLatencia.close();
+        metricas.close();
+        try {
+            if (diario != null) diario.close();
+        } catch (Exception e) {
+            System.err.println("Error al cerrar el historial: " + e.getMessage());
+        }
         try {
-            if (colorTextoNormal != null) colorTextoNormal.dispose();
-            if (colorFondoNormal != null) colorFondoNormal.dispose();
-            if (colorTextoNoche != null) colorTextoNoche.dispose();
-            if (colorFondoNoche != null) colorFondoNoche.dispose();
+            // Solo se liberan los recursos propios del motor de temas, nunca los colores del sistema
+            motorTemas.close();
         } catch (Exception e) {
             System.err.println("Error al liberar recursos: " + e.getMessage());
         }
     }
 
+    /**
+     * Punto de entrada. Con {@code --lote} califica por lotes sin interfaz gráfica (ver {@link ModoLote})
+     * y con {@code --servicio} inicia el {@link ServicioCalificaciones}; en esos casos el Display nunca
+     * se crea y la biblioteca nativa de SWT no llega a cargarse.
+     */
     public static void main(String[] args) {
+        if (ModoLote.solicitado(args)) {
+            System.exit(ModoLote.ejecutar(args));
+        }
+        if (ServicioCalificaciones.solicitado(args)) {
+            System.exit(ServicioCalificaciones.ejecutar(args));
+        }
+        iniciarInterfaz();
+    }
+
+    private static void iniciarInterfaz() {
         Display display = null;
         GestorEstudiantes gestorEstudiantes = null;
 
@@ -519,9 +1070,7 @@ public class GestorEstudiantes {
             gestorEstudiantes.open();
 
             while (!gestorEstudiantes.isDisposed()) {
-                if (!display.readAndDispatch()) {
-                    display.sleep();
-                }
+                gestorEstudiantes.despacharEvento(display);
             }
         } catch (Exception e) {
             MessageBox mb = new MessageBox(new Shell(display), SWT.ICON_ERROR | SWT.OK);
@@ -532,4 +1081,21 @@ public class GestorEstudiantes {
             if (display != null && !display.isDisposed()) display.dispose();
         }
     }
+
+    /**
+     * Alta o baja de una asignatura en el historial; deshacerla es aplicar el cambio inverso.
+     */
+    private static final class Cambio {
+        final boolean alta;
+        final RegistroAsignatura registro;
+
+        Cambio(boolean alta, RegistroAsignatura registro) {
+            this.alta = alta;
+            this.registro = registro;
+        }
+
+        Cambio inverso() {
+            return new Cambio(!alta, registro);
+        }
+    }
 }
\ No newline at end of file
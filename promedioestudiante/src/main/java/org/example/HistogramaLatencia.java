@@ -0,0 +1,122 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias log-lineal al estilo de HdrHistogram: cada potencia de dos se divide en
+ * 32 casillas, con lo que cualquier valor se guarda con un error relativo menor al 3 % en memoria
+ * fija (unos 15 KB). Registrar es un incremento atómico sin bloqueos ni asignaciones, apto para los
+ * caminos críticos de la interfaz y de los hilos de trabajo.
+ */
+public final class HistogramaLatencia {
+    private static final int BITS_SUBCASILLA = 5;
+    private static final int SUBCASILLAS = 1 << BITS_SUBCASILLA;       // Casillas por potencia de dos
+    private static final int LINEALES = 2 * SUBCASILLAS;               // Valores exactos de 0 a 63
+    private static final int CASILLAS = LINEALES + (63 - BITS_SUBCASILLA - 1) * SUBCASILLAS;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CASILLAS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una medición.
+     * @param nanos Duración en nanosegundos; los valores negativos se registran como 0.
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        conteos.incrementAndGet(casilla(valor));
+        total.add(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde {@code inicioNanos}, tomado con {@link System#nanoTime()}.
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * @return Una copia coherente de los conteos, para calcular percentiles sin detener a quien registra.
+     */
+    public Instantanea instantanea() {
+        long[] copia = new long[CASILLAS];
+        long cantidad = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            copia[i] = conteos.get(i);
+            cantidad += copia[i];
+        }
+        return new Instantanea(copia, cantidad, total.sum(), maximo.get());
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < CASILLAS; i++) conteos.set(i, 0);
+        total.reset();
+        maximo.set(0);
+    }
+
+    static int casilla(long valor) {
+        if (valor < LINEALES) return (int) valor;
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBCASILLA;
+        return LINEALES + (desplazamiento - 1) * SUBCASILLAS + (int) (valor >>> desplazamiento) - SUBCASILLAS;
+    }
+
+    /**
+     * @return El mayor valor que cae en la casilla indicada.
+     */
+    static long maximoDeCasilla(int casilla) {
+        if (casilla < LINEALES) return casilla;
+        int k = casilla - LINEALES;
+        int desplazamiento = k / SUBCASILLAS + 1;
+        long sub = k % SUBCASILLAS + SUBCASILLAS;
+        return ((sub + 1) << desplazamiento) - 1;
+    }
+
+    /**
+     * Copia inmutable del histograma en un instante.
+     */
+    public static final class Instantanea {
+        private final long[] conteos;
+        private final long cantidad;
+        private final long totalNanos;
+        private final long maximoNanos;
+
+        private Instantanea(long[] conteos, long cantidad, long totalNanos, long maximoNanos) {
+            this.conteos = conteos;
+            this.cantidad = cantidad;
+            this.totalNanos = totalNanos;
+            this.maximoNanos = maximoNanos;
+        }
+
+        public long getCantidad() {
+            return cantidad;
+        }
+
+        public double getMediaMs() {
+            return cantidad == 0 ? 0 : totalNanos / (double) cantidad / 1_000_000;
+        }
+
+        public double getMaximoMs() {
+            return maximoNanos / 1_000_000.0;
+        }
+
+        /**
+         * @param percentil Entre 0 y 100.
+         * @return El valor del percentil en milisegundos (límite superior de su casilla, sin pasar del máximo).
+         */
+        public double percentilMs(double percentil) {
+            if (cantidad == 0) return 0;
+            long rango = Math.max(1, (long) Math.ceil(percentil / 100 * cantidad));
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                acumulado += conteos[i];
+                if (acumulado >= rango) {
+                    return Math.min(maximoDeCasilla(i), maximoNanos) / 1_000_000.0;
+                }
+            }
+            return getMaximoMs();
+        }
+    }
+}
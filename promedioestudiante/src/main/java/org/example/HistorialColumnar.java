@@ -0,0 +1,320 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Formato binario por columnas para el historial académico y su lector por mapeo en memoria.
+ * <p>
+ * Estudiante, asignatura, semestre y estado se codifican por diccionario y sus códigos se empaquetan
+ * con 1, 2 o 4 bytes según el tamaño del diccionario; las notas se guardan en centésimas como short
+ * y la fecha de alta de cada fila en milisegundos desde la época, como long. La cabecera contiene un índice con la posición de cada columna y de cada diccionario:
+ * <pre>
+ * magia (int) | versión (int) | filas (int) | columnas (int)
+ * por columna: ancho (byte) | posición diccionario (long) | posición datos (long) | longitud datos (long)
+ * diccionario: valores (int), y por valor: longitud (short) + UTF-8
+ * </pre>
+ * Al abrir solo se decodifican los diccionarios; los datos se leen directamente del archivo mapeado.
+ */
+public final class HistorialColumnar {
+    private static final int MAGIA = 0x4745434C;  // "GECL"
+    private static final int VERSION = 2;
+    private static final int COLUMNAS = 6;
+    private static final int DICCIONARIOS = 4;     // Las primeras columnas se codifican por diccionario
+    private static final int BYTES_CABECERA = 16 + COLUMNAS * 25;
+
+    // Orden de las columnas en el archivo
+    private static final int ESTUDIANTE = 0;
+    private static final int ASIGNATURA = 1;
+    private static final int SEMESTRE = 2;
+    private static final int ESTADO = 3;
+    private static final int NOTA = 4;
+    private static final int FECHA = 5;
+
+    private final int filas;
+    private final String[][] diccionarios = new String[DICCIONARIOS][];
+    private final ByteBuffer[] datos = new ByteBuffer[COLUMNAS];
+    private final int[] anchos = new int[COLUMNAS];
+
+    private HistorialColumnar(int filas) {
+        this.filas = filas;
+    }
+
+    /**
+     * Escribe las filas en formato columnar. Al volver, el archivo ya está en disco ({@code force}).
+     * @param archivo Archivo de destino; se reemplaza si existe.
+     * @param registros Las filas a escribir.
+     * @param fechasAlta Fecha de alta de cada fila, en milisegundos desde la época, en el orden de {@code registros}.
+     * @throws IOException si no se puede escribir.
+     */
+    public static void escribir(Path archivo, Collection<RegistroAsignatura> registros, long[] fechasAlta)
+            throws IOException {
+        int n = registros.size();
+        if (fechasAlta.length != n) {
+            throw new IllegalArgumentException("Hay " + n + " filas y " + fechasAlta.length + " fechas");
+        }
+        Diccionario[] diccionarios = new Diccionario[DICCIONARIOS];
+        int[][] codigos = new int[DICCIONARIOS][n];
+        short[] notas = new short[n];
+        for (int c = 0; c < diccionarios.length; c++) diccionarios[c] = new Diccionario();
+
+        int i = 0;
+        for (RegistroAsignatura registro : registros) {
+            codigos[ESTUDIANTE][i] = diccionarios[ESTUDIANTE].codificar(registro.getEstudiante());
+            codigos[ASIGNATURA][i] = diccionarios[ASIGNATURA].codificar(registro.getAsignatura());
+            codigos[SEMESTRE][i] = diccionarios[SEMESTRE].codificar(registro.getSemestre());
+            codigos[ESTADO][i] = diccionarios[ESTADO].codificar(registro.getEstado());
+            notas[i] = (short) registro.getNotaCentesimas();
+            i++;
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bufer = ByteBuffer.allocateDirect(1 << 16);
+            long[] posicionesDiccionario = new long[COLUMNAS];
+            long[] posicionesDatos = new long[COLUMNAS];
+            long[] longitudes = new long[COLUMNAS];
+            int[] anchos = new int[COLUMNAS];
+
+            // La cabecera se escribe al final, cuando se conocen las posiciones
+            canal.position(BYTES_CABECERA);
+            for (int c = 0; c < diccionarios.length; c++) {
+                posicionesDiccionario[c] = canal.position();
+                escribirDiccionario(canal, bufer, diccionarios[c]);
+                anchos[c] = ancho(diccionarios[c].tamano());
+                posicionesDatos[c] = canal.position();
+                for (int f = 0; f < n; f++) {
+                    asegurarEspacio(canal, bufer, anchos[c]);
+                    int codigo = codigos[c][f];
+                    if (anchos[c] == 1) {
+                        bufer.put((byte) codigo);
+                    } else if (anchos[c] == 2) {
+                        bufer.putShort((short) codigo);
+                    } else {
+                        bufer.putInt(codigo);
+                    }
+                }
+                vaciar(canal, bufer);
+                longitudes[c] = canal.position() - posicionesDatos[c];
+            }
+
+            anchos[NOTA] = 2;
+            posicionesDiccionario[NOTA] = -1;
+            posicionesDatos[NOTA] = canal.position();
+            for (int f = 0; f < n; f++) {
+                asegurarEspacio(canal, bufer, 2);
+                bufer.putShort(notas[f]);
+            }
+            vaciar(canal, bufer);
+            longitudes[NOTA] = canal.position() - posicionesDatos[NOTA];
+
+            anchos[FECHA] = 8;
+            posicionesDiccionario[FECHA] = -1;
+            posicionesDatos[FECHA] = canal.position();
+            for (int f = 0; f < n; f++) {
+                asegurarEspacio(canal, bufer, 8);
+                bufer.putLong(fechasAlta[f]);
+            }
+            vaciar(canal, bufer);
+            longitudes[FECHA] = canal.position() - posicionesDatos[FECHA];
+
+            bufer.clear();
+            bufer.putInt(MAGIA).putInt(VERSION).putInt(n).putInt(COLUMNAS);
+            for (int c = 0; c < COLUMNAS; c++) {
+                bufer.put((byte) anchos[c]).putLong(posicionesDiccionario[c])
+                        .putLong(posicionesDatos[c]).putLong(longitudes[c]);
+            }
+            bufer.flip();
+            canal.position(0);
+            while (bufer.hasRemaining()) canal.write(bufer);
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Abre un archivo columnar mapeándolo en memoria.
+     * @throws IOException si el archivo no existe o no tiene el formato esperado.
+     */
+    public static HistorialColumnar abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(BYTES_CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // Leer la cabecera completa
+            }
+            cabecera.flip();
+            if (cabecera.remaining() < BYTES_CABECERA || cabecera.getInt() != MAGIA || cabecera.getInt() != VERSION) {
+                throw new IOException("Archivo columnar con formato desconocido: " + archivo);
+            }
+            int filas = cabecera.getInt();
+            if (cabecera.getInt() != COLUMNAS) {
+                throw new IOException("Número de columnas inesperado en " + archivo);
+            }
+
+            HistorialColumnar historial = new HistorialColumnar(filas);
+            for (int c = 0; c < COLUMNAS; c++) {
+                historial.anchos[c] = cabecera.get();
+                long posicionDiccionario = cabecera.getLong();
+                long posicionDatos = cabecera.getLong();
+                long longitud = cabecera.getLong();
+                if (longitud != (long) filas * historial.anchos[c] || posicionDatos + longitud > canal.size()) {
+                    throw new IOException("Columna " + c + " dañada en " + archivo);
+                }
+
+                // Cada columna se mapea por separado: así ninguna región supera el límite de 2 GiB
+                MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, posicionDatos, longitud);
+                historial.datos[c] = region;
+                if (posicionDiccionario >= 0) {
+                    long longitudDiccionario = posicionDatos - posicionDiccionario;
+                    historial.diccionarios[c] = leerDiccionario(
+                            canal.map(FileChannel.MapMode.READ_ONLY, posicionDiccionario, longitudDiccionario));
+                }
+            }
+            return historial;
+        }
+    }
+
+    public int filas() {
+        return filas;
+    }
+
+    public String estudiante(int fila) {
+        return diccionarios[ESTUDIANTE][codigo(ESTUDIANTE, fila)];
+    }
+
+    public String asignatura(int fila) {
+        return diccionarios[ASIGNATURA][codigo(ASIGNATURA, fila)];
+    }
+
+    public String semestre(int fila) {
+        return diccionarios[SEMESTRE][codigo(SEMESTRE, fila)];
+    }
+
+    public String estado(int fila) {
+        return diccionarios[ESTADO][codigo(ESTADO, fila)];
+    }
+
+    /**
+     * @return true si la fila se guardó como aprobada, con el umbral que tenía su asignatura.
+     */
+    public boolean aprobado(int fila) {
+        return RegistroAsignatura.APROBADO.equals(estado(fila));
+    }
+
+    public int notaCentesimas(int fila) {
+        return datos[NOTA].getShort(fila * 2);
+    }
+
+    /**
+     * @return La fecha de alta de la fila, en milisegundos desde la época.
+     */
+    public long fechaAlta(int fila) {
+        return datos[FECHA].getLong(fila * 8);
+    }
+
+    /**
+     * @return El código de diccionario del estudiante de la fila.
+     */
+    public int codigoEstudiante(int fila) {
+        return codigo(ESTUDIANTE, fila);
+    }
+
+    /**
+     * @return El código de diccionario de la asignatura de la fila, útil para agrupar sin comparar textos.
+     */
+    public int codigoAsignatura(int fila) {
+        return codigo(ASIGNATURA, fila);
+    }
+
+    /**
+     * @return El código de diccionario del semestre de la fila.
+     */
+    public int codigoSemestre(int fila) {
+        return codigo(SEMESTRE, fila);
+    }
+
+    /**
+     * @return Los valores del diccionario de estudiantes, indexados por código.
+     */
+    public String[] estudiantes() {
+        return diccionarios[ESTUDIANTE].clone();
+    }
+
+    /**
+     * @return Los valores del diccionario de asignaturas, indexados por código.
+     */
+    public String[] asignaturas() {
+        return diccionarios[ASIGNATURA].clone();
+    }
+
+    /**
+     * @return Los valores del diccionario de semestres, indexados por código.
+     */
+    public String[] semestres() {
+        return diccionarios[SEMESTRE].clone();
+    }
+
+    /**
+     * Materializa una fila. Los textos se comparten con el diccionario, no se copian.
+     */
+    public RegistroAsignatura registro(int fila) {
+        return new RegistroAsignatura(estudiante(fila), asignatura(fila), notaCentesimas(fila), semestre(fila), aprobado(fila));
+    }
+
+    private int codigo(int columna, int fila) {
+        ByteBuffer columnaDatos = datos[columna];
+        switch (anchos[columna]) {
+            case 1:
+                return columnaDatos.get(fila) & 0xFF;
+            case 2:
+                return columnaDatos.getShort(fila * 2) & 0xFFFF;
+            default:
+                return columnaDatos.getInt(fila * 4);
+        }
+    }
+
+    private static int ancho(int valores) {
+        if (valores <= 1 << 8) return 1;
+        if (valores <= 1 << 16) return 2;
+        return 4;
+    }
+
+    private static void escribirDiccionario(FileChannel canal, ByteBuffer bufer, Diccionario diccionario) throws IOException {
+        asegurarEspacio(canal, bufer, 4);
+        bufer.putInt(diccionario.tamano());
+        for (int codigo = 0; codigo < diccionario.tamano(); codigo++) {
+            byte[] bytes = diccionario.valor(codigo).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IOException("Valor demasiado largo para el diccionario: " + bytes.length + " bytes");
+            }
+            asegurarEspacio(canal, bufer, 2 + bytes.length);
+            bufer.putShort((short) bytes.length).put(bytes);
+        }
+        vaciar(canal, bufer);
+    }
+
+    private static String[] leerDiccionario(ByteBuffer region) {
+        String[] valores = new String[region.getInt()];
+        for (int codigo = 0; codigo < valores.length; codigo++) {
+            byte[] bytes = new byte[region.getShort()];
+            region.get(bytes);
+            valores[codigo] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return valores;
+    }
+
+    private static void asegurarEspacio(FileChannel canal, ByteBuffer bufer, int bytes) throws IOException {
+        if (bufer.remaining() < bytes) vaciar(canal, bufer);
+    }
+
+    private static void vaciar(FileChannel canal, ByteBuffer bufer) throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) canal.write(bufer);
+        bufer.clear();
+    }
+}
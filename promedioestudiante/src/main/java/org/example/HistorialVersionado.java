@@ -0,0 +1,229 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Historial académico versionado sobre un {@link ArbolPersistente}. Cada alta o baja publica una
+ * versión nueva que comparte casi toda su estructura con la anterior, de modo que las versiones
+ * antiguas se conservan sin copiar el historial: la pantalla de detalles puede ver el expediente tal
+ * como estaba en una fecha y los lectores en segundo plano trabajan sobre una versión fija sin bloqueos.
+ * <p>
+ * Las filas se ordenan por estudiante y, dentro de cada uno, por número de fila del {@link IndiceHistorial},
+ * así que las asignaturas de un estudiante se obtienen con un recorrido de rango. Los cambios dentro del
+ * mismo milisegundo se agrupan en una sola versión, lo que acota la memoria al reconstruir el historial.
+ * <p>
+ * La fecha de cada cambio la da quien lo aplica (la del evento en el diario), no el reloj, así que
+ * reproducir el diario o cargar una instantánea reconstruye las versiones con sus fechas originales.
+ * Una instantánea se carga de una vez ({@link #cargar}): se publica una sola versión y las anteriores
+ * se reconstruyen solo si se consultan.
+ */
+public class HistorialVersionado {
+
+    /**
+     * Estado inmutable del historial tras un cambio.
+     */
+    public static final class Version {
+        private final long numero;
+        private final long fecha;
+        private final ArbolPersistente<Clave, RegistroAsignatura> filas;
+
+        private Version(long numero, long fecha, ArbolPersistente<Clave, RegistroAsignatura> filas) {
+            this.numero = numero;
+            this.fecha = fecha;
+            this.filas = filas;
+        }
+
+        /**
+         * @return El número de cambios aplicados hasta esta versión.
+         */
+        public long getNumero() {
+            return numero;
+        }
+
+        /**
+         * @return El instante de la versión, en milisegundos desde la época.
+         */
+        public long getFecha() {
+            return fecha;
+        }
+
+        public int tamano() {
+            return filas.tamano();
+        }
+
+        /**
+         * @return Las asignaturas del estudiante en esta versión, en orden de registro.
+         */
+        public List<RegistroAsignatura> de(String estudiante) {
+            String clave = Estudiante.clave(estudiante);
+            return filas.valores(new Clave(clave, Integer.MIN_VALUE), new Clave(clave, Integer.MAX_VALUE));
+        }
+
+        /**
+         * Recorre las asignaturas del estudiante en esta versión, en orden de registro, sin copiarlas.
+         */
+        public void recorrer(String estudiante, Consumer<RegistroAsignatura> accion) {
+            String clave = Estudiante.clave(estudiante);
+            filas.recorrer(new Clave(clave, Integer.MIN_VALUE), new Clave(clave, Integer.MAX_VALUE),
+                    (c, registro) -> accion.accept(registro));
+        }
+
+        /**
+         * Recorre todas las asignaturas de esta versión, agrupadas por estudiante, sin copiarlas.
+         */
+        public void recorrer(Consumer<RegistroAsignatura> accion) {
+            filas.recorrer(null, null, (clave, registro) -> accion.accept(registro));
+        }
+
+        /**
+         * @return Todas las asignaturas de esta versión, agrupadas por estudiante.
+         */
+        public List<RegistroAsignatura> todas() {
+            return filas.valores();
+        }
+    }
+
+    private final List<Version> versiones = new ArrayList<>(); // Protegida por el monitor de this
+    private volatile Version actual = new Version(0, Long.MIN_VALUE, ArbolPersistente.vacio());
+
+    // Filas cargadas de una instantánea, en orden de clave, con su fecha de alta
+    private Clave[] clavesBase = new Clave[0];
+    private RegistroAsignatura[] registrosBase = new RegistroAsignatura[0];
+    private long[] fechasBase = new long[0];
+
+    /**
+     * Carga de una vez las filas de una instantánea en un historial vacío. El árbol se construye ya
+     * equilibrado en O(n) y se publica una sola versión; las versiones anteriores, en las fechas de
+     * alta de las filas, se reconstruyen al pedirlas con {@link #enFecha}.
+     * @param registros Las filas, indexadas por el número que les asignó el índice.
+     * @param clavesEstudiante La clave ({@link Estudiante#clave}) del estudiante de cada fila.
+     * @param fechas La fecha de alta de cada fila, en milisegundos desde la época.
+     * @throws IllegalStateException si el historial ya tiene versiones.
+     */
+    synchronized void cargar(RegistroAsignatura[] registros, String[] clavesEstudiante, long[] fechas) {
+        if (actual.numero != 0) throw new IllegalStateException("El historial ya tiene versiones");
+        int n = registros.length;
+        if (n == 0) return;
+        Clave[] claves = new Clave[n];
+        for (int fila = 0; fila < n; fila++) claves[fila] = new Clave(clavesEstudiante[fila], fila);
+        Arrays.sort(claves); // Por estudiante; las filas de cada uno ya llegan en orden
+
+        RegistroAsignatura[] valores = new RegistroAsignatura[n];
+        long[] fechasOrdenadas = new long[n];
+        long ultima = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            valores[i] = registros[claves[i].fila];
+            fechasOrdenadas[i] = fechas[claves[i].fila];
+            ultima = Math.max(ultima, fechasOrdenadas[i]);
+        }
+        clavesBase = claves;
+        registrosBase = valores;
+        fechasBase = fechasOrdenadas;
+        actual = new Version(n, ultima, ArbolPersistente.desdeOrdenadas(claves, valores));
+        versiones.add(actual);
+    }
+
+    /**
+     * Agrega la fila con el número que le asignó el índice.
+     * @param fecha Instante del alta, en milisegundos desde la época.
+     */
+    synchronized void agregar(int fila, RegistroAsignatura registro, long fecha) {
+        publicar(actual.filas.con(new Clave(Estudiante.clave(registro.getEstudiante()), fila), registro), fecha);
+    }
+
+    /**
+     * Quita la fila con el número que le asignó el índice.
+     * @param fecha Instante de la baja, en milisegundos desde la época.
+     */
+    synchronized void quitar(int fila, RegistroAsignatura registro, long fecha) {
+        publicar(actual.filas.sin(new Clave(Estudiante.clave(registro.getEstudiante()), fila)), fecha);
+    }
+
+    private void publicar(ArbolPersistente<Clave, RegistroAsignatura> filas, long fechaCambio) {
+        Version anterior = actual;
+        long fecha = Math.max(fechaCambio, anterior.fecha); // Las fechas nunca retroceden
+        Version nueva = new Version(anterior.numero + 1, fecha, filas);
+        if (!versiones.isEmpty() && versiones.get(versiones.size() - 1).fecha == fecha) {
+            versiones.set(versiones.size() - 1, nueva);
+        } else {
+            versiones.add(nueva);
+        }
+        actual = nueva;
+    }
+
+    /**
+     * @return La versión vigente. No toma bloqueos.
+     */
+    public Version actual() {
+        return actual;
+    }
+
+    /**
+     * @param fecha Instante en milisegundos desde la época.
+     * @return La última versión publicada en ese instante o antes, vacía si el historial es posterior.
+     */
+    public synchronized Version enFecha(long fecha) {
+        int desde = 0;
+        int hasta = versiones.size() - 1;
+        Version encontrada = null;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            Version version = versiones.get(medio);
+            if (version.fecha <= fecha) {
+                encontrada = version;
+                desde = medio + 1;
+            } else {
+                hasta = medio - 1;
+            }
+        }
+        return encontrada != null ? encontrada : versionBase(fecha);
+    }
+
+    /**
+     * Reconstruye la versión en una fecha anterior a todas las publicadas a partir de las filas
+     * cargadas de la instantánea, con las que ya se habían dado de alta en esa fecha.
+     */
+    private Version versionBase(long fecha) {
+        int cantidad = 0;
+        long ultima = Long.MIN_VALUE;
+        for (long alta : fechasBase) {
+            if (alta <= fecha) cantidad++;
+        }
+        Clave[] claves = new Clave[cantidad];
+        RegistroAsignatura[] valores = new RegistroAsignatura[cantidad];
+        int k = 0;
+        for (int i = 0; i < fechasBase.length; i++) {
+            if (fechasBase[i] > fecha) continue;
+            claves[k] = clavesBase[i];
+            valores[k++] = registrosBase[i];
+            ultima = Math.max(ultima, fechasBase[i]);
+        }
+        return new Version(cantidad, cantidad == 0 ? fecha : ultima, ArbolPersistente.desdeOrdenadas(claves, valores));
+    }
+
+    /**
+     * @return El número de versiones conservadas.
+     */
+    public synchronized int cantidadVersiones() {
+        return versiones.size();
+    }
+
+    private static final class Clave implements Comparable<Clave> {
+        final String estudiante;
+        final int fila;
+
+        Clave(String estudiante, int fila) {
+            this.estudiante = estudiante;
+            this.fila = fila;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int c = estudiante.compareTo(otra.estudiante);
+            return c != 0 ? c : Integer.compare(fila, otra.fila);
+        }
+    }
+}
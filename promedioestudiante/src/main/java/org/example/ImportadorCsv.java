@@ -0,0 +1,262 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Importación masiva de estudiantes y notas desde archivos CSV exportados por el registro académico.
+ * El archivo se lee por bloques de tamaño fijo a través de un {@link FileChannel}, por lo que la
+ * memoria usada no depende del tamaño del archivo. Formato de cada línea, con una nota por
+ * evaluación de la política de calificación activa:
+ * <pre>
+ * estudiante,&lt;nombre&gt;,&lt;nota 1&gt;,...,&lt;nota n&gt;
+ * asignatura,&lt;estudiante&gt;,&lt;asignatura&gt;,&lt;nota&gt;,&lt;semestre&gt;
+ * </pre>
+ * Los campos pueden ir entre comillas dobles. Se ignoran las líneas vacías y una cabecera inicial
+ * que empiece por "tipo".
+ */
+public class ImportadorCsv {
+    private static final int TAMANO_BLOQUE = 1 << 20;       // Bytes leídos por cada llamada al canal
+    private static final int MAX_LONGITUD_LINEA = 64 * 1024; // Las líneas más largas se rechazan
+
+    /**
+     * Recibe los registros válidos y los rechazos a medida que se leen.
+     * Se invoca desde el hilo que ejecuta la importación.
+     */
+    public interface Receptor {
+        void estudiante(String nombre, int[] parcialesCentesimas);
+
+        void asignatura(RegistroAsignatura registro);
+
+        void rechazo(long linea, String motivo);
+    }
+
+    /**
+     * Recibe el avance de la importación en bytes.
+     */
+    public interface Progreso {
+        void avance(long bytesLeidos, long bytesTotales);
+    }
+
+    /**
+     * Totales de una importación terminada o cancelada.
+     */
+    public static final class Resumen {
+        private long lineas;
+        private long estudiantes;
+        private long asignaturas;
+        private long rechazos;
+        private boolean cancelada;
+
+        public long getLineas() {
+            return lineas;
+        }
+
+        public long getEstudiantes() {
+            return estudiantes;
+        }
+
+        public long getAsignaturas() {
+            return asignaturas;
+        }
+
+        public long getRechazos() {
+            return rechazos;
+        }
+
+        public boolean isCancelada() {
+            return cancelada;
+        }
+    }
+
+    private final Path archivo;
+    private final EvaluadorCompilado evaluador;
+    private final int numNotas;
+    private volatile boolean cancelado;
+
+    // Estado de la línea en curso (reutilizado entre líneas)
+    private byte[] linea = new byte[4096];
+    private int longitudLinea;
+    private boolean lineaDescartada;
+    private final List<String> campos = new ArrayList<>(5);
+    private final StringBuilder campo = new StringBuilder();
+
+    /**
+     * @param evaluador Política con la que se importa: fija las notas por estudiante, una por
+     *                  evaluación, y el umbral con que se califica cada asignatura.
+     */
+    public ImportadorCsv(Path archivo, EvaluadorCompilado evaluador) {
+        this.archivo = archivo;
+        this.evaluador = evaluador;
+        this.numNotas = evaluador.getNumComponentes();
+    }
+
+    /**
+     * Solicita la cancelación; la importación se detiene al terminar el bloque en curso.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    /**
+     * Lee el archivo completo. Debe llamarse fuera del hilo de la interfaz.
+     * @param receptor Destino de los registros y rechazos.
+     * @param progreso Destino del avance, puede ser null.
+     * @return Los totales de la importación.
+     * @throws IOException si el archivo no puede leerse.
+     */
+    public Resumen importar(Receptor receptor, Progreso progreso) throws IOException {
+        Resumen resumen = new Resumen();
+        longitudLinea = 0;
+        lineaDescartada = false;
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long total = canal.size();
+            long leidos = 0;
+            ByteBuffer bloque = ByteBuffer.allocate(TAMANO_BLOQUE);
+            byte[] bytes = bloque.array();
+
+            int n;
+            while ((n = canal.read(bloque)) != -1) {
+                if (cancelado) {
+                    resumen.cancelada = true;
+                    return resumen;
+                }
+                for (int i = 0; i < n; i++) {
+                    byte b = bytes[i];
+                    if (b == '\n') {
+                        terminarLinea(resumen, receptor);
+                    } else {
+                        agregarByte(b);
+                    }
+                }
+                bloque.clear();
+                leidos += n;
+                if (progreso != null) progreso.avance(leidos, total);
+            }
+            if (longitudLinea > 0 || lineaDescartada) {
+                terminarLinea(resumen, receptor);
+            }
+        }
+        return resumen;
+    }
+
+    private void agregarByte(byte b) {
+        if (lineaDescartada) return;
+        if (longitudLinea == linea.length) {
+            if (linea.length >= MAX_LONGITUD_LINEA) {
+                lineaDescartada = true;
+                return;
+            }
+            byte[] mayor = new byte[Math.min(linea.length * 2, MAX_LONGITUD_LINEA)];
+            System.arraycopy(linea, 0, mayor, 0, longitudLinea);
+            linea = mayor;
+        }
+        linea[longitudLinea++] = b;
+    }
+
+    private void terminarLinea(Resumen resumen, Receptor receptor) {
+        long numero = ++resumen.lineas;
+        int inicio = 0;
+        int fin = longitudLinea;
+        boolean descartada = lineaDescartada;
+        longitudLinea = 0;
+        lineaDescartada = false;
+
+        if (descartada) {
+            rechazar(resumen, receptor, numero, "La línea supera " + MAX_LONGITUD_LINEA + " bytes");
+            return;
+        }
+        if (numero == 1 && fin >= 3 && (linea[0] & 0xFF) == 0xEF && (linea[1] & 0xFF) == 0xBB && (linea[2] & 0xFF) == 0xBF) {
+            inicio = 3; // BOM de UTF-8
+        }
+        if (fin > inicio && linea[fin - 1] == '\r') fin--;
+        if (fin == inicio) return;
+
+        String texto = new String(linea, inicio, fin - inicio, StandardCharsets.UTF_8);
+        try {
+            dividirCampos(texto, campos, campo);
+            String tipo = campos.get(0).trim().toLowerCase(Locale.ROOT);
+            if (numero == 1 && tipo.equals("tipo")) return;
+
+            if (tipo.equals("estudiante")) {
+                exigirCampos(2 + numNotas);
+                String nombre = ValidadorNotas.validarNombre(campos.get(1));
+                int[] parciales = new int[numNotas];
+                for (int i = 0; i < parciales.length; i++) {
+                    parciales[i] = ValidadorNotas.parsearCentesimas(campos.get(2 + i));
+                }
+                receptor.estudiante(nombre, parciales);
+                resumen.estudiantes++;
+            } else if (tipo.equals("asignatura")) {
+                exigirCampos(5);
+                String estudiante = ValidadorNotas.validarNombre(campos.get(1));
+                String asignatura = ValidadorNotas.validarAsignatura(campos.get(2));
+                int nota = ValidadorNotas.parsearCentesimas(campos.get(3));
+                String semestre = ValidadorNotas.validarSemestre(campos.get(4));
+                receptor.asignatura(evaluador.registro(estudiante, asignatura, nota, semestre));
+                resumen.asignaturas++;
+            } else {
+                throw new IllegalArgumentException("Tipo de registro desconocido: " + campos.get(0));
+            }
+        } catch (IllegalArgumentException e) {
+            rechazar(resumen, receptor, numero, e.getMessage());
+        }
+    }
+
+    private void rechazar(Resumen resumen, Receptor receptor, long numero, String motivo) {
+        resumen.rechazos++;
+        receptor.rechazo(numero, motivo);
+    }
+
+    private void exigirCampos(int esperados) {
+        if (campos.size() != esperados) {
+            throw new IllegalArgumentException("Se esperaban " + esperados + " campos y hay " + campos.size());
+        }
+    }
+
+    /**
+     * Divide una línea CSV en campos, admitiendo comillas dobles y comillas escapadas ("").
+     * @param campos Lista de salida, se vacía antes de usarla.
+     * @param campo Búfer de trabajo reutilizable.
+     * @throws IllegalArgumentException si quedan comillas sin cerrar.
+     */
+    static void dividirCampos(String texto, List<String> campos, StringBuilder campo) {
+        campos.clear();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(campo.toString());
+    }
+}
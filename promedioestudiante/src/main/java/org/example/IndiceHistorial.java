@@ -0,0 +1,387 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Almacén en memoria del historial académico con índices de mapas de bits.
+ * <p>
+ * Asignatura, semestre, estado y estudiante se codifican por diccionario y cada valor tiene un
+ * {@link MapaBits} con las filas que lo contienen. Los rangos de nota se resuelven filtrando las
+ * filas ya seleccionadas o, si no hay otra condición, con un orden de filas por nota (ordenación
+ * por conteo sobre las centésimas) que se reconstruye de forma perezosa tras nuevas inserciones.
+ * Las filas eliminadas no se reutilizan: al eliminarlas se quitan de todos los mapas de bits y del
+ * mapa de filas vigentes, de modo que las consultas no pagan nada por ellas.
+ * Las lecturas pueden ejecutarse en paralelo; las inserciones toman el bloqueo de escritura.
+ */
+public class IndiceHistorial {
+
+    /**
+     * Columnas de texto indexadas.
+     */
+    public enum Dimension {
+        ASIGNATURA, SEMESTRE, ESTADO, ESTUDIANTE
+    }
+
+    private static final Dimension[] DIMENSIONES = Dimension.values();
+
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final List<RegistroAsignatura> filas = new ArrayList<>();
+    private final Diccionario[] diccionarios = new Diccionario[DIMENSIONES.length];
+    private final List<List<MapaBits>> mapas = new ArrayList<>();
+    private final MapaBits aprobados = new MapaBits();
+    private final MapaBits vigentes = new MapaBits();
+
+    private int[] notas = new int[1024];          // Nota de cada fila, -1 si se eliminó
+    private int[] ordenPorNota = new int[0];      // Filas ordenadas por nota
+    private int[] inicioNota = new int[0];        // inicioNota[c]: primera posición con nota >= c
+    private volatile boolean ordenVigente = true;
+
+    public IndiceHistorial() {
+        for (Dimension dimension : DIMENSIONES) {
+            diccionarios[dimension.ordinal()] = new Diccionario();
+            mapas.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Agrega una fila al historial y a todos los índices.
+     * @return El número de fila asignado.
+     */
+    public int agregar(RegistroAsignatura registro) {
+        bloqueo.writeLock().lock();
+        try {
+            int fila = filas.size();
+            filas.add(registro);
+            marcar(Dimension.ASIGNATURA, registro.getAsignatura(), fila);
+            marcar(Dimension.SEMESTRE, registro.getSemestre(), fila);
+            marcar(Dimension.ESTADO, registro.getEstado(), fila);
+            marcar(Dimension.ESTUDIANTE, Estudiante.clave(registro.getEstudiante()), fila);
+            if (registro.isAprobado()) aprobados.agregar(fila);
+            vigentes.agregar(fila);
+            if (fila == notas.length) {
+                notas = Arrays.copyOf(notas, notas.length * 2);
+            }
+            notas[fila] = registro.getNotaCentesimas();
+            ordenVigente = false;
+            return fila;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga de una vez en un índice vacío todas las filas de un archivo columnar, numeradas desde 0.
+     * Cada valor de los diccionarios del archivo se traduce una sola vez y los mapas de bits reciben
+     * sus filas en orden creciente, sin buscar textos por fila.
+     * @return Las filas cargadas, en orden de número de fila.
+     * @throws IllegalStateException si el índice ya tiene filas.
+     */
+    public RegistroAsignatura[] cargar(HistorialColumnar columnar) {
+        bloqueo.writeLock().lock();
+        try {
+            if (!filas.isEmpty()) throw new IllegalStateException("El índice ya tiene filas");
+            int n = columnar.filas();
+            String[] estudiantes = columnar.estudiantes();
+            for (int c = 0; c < estudiantes.length; c++) estudiantes[c] = Estudiante.clave(estudiantes[c]);
+            List<MapaBits> porEstudiante = traducir(Dimension.ESTUDIANTE, estudiantes);
+            List<MapaBits> porAsignatura = traducir(Dimension.ASIGNATURA, columnar.asignaturas());
+            List<MapaBits> porSemestre = traducir(Dimension.SEMESTRE, columnar.semestres());
+            List<MapaBits> porEstado = traducir(Dimension.ESTADO,
+                    new String[]{RegistroAsignatura.APROBADO, RegistroAsignatura.REPROBADO});
+
+            RegistroAsignatura[] registros = new RegistroAsignatura[n];
+            if (notas.length < n) notas = new int[n];
+            for (int fila = 0; fila < n; fila++) {
+                RegistroAsignatura registro = columnar.registro(fila);
+                registros[fila] = registro;
+                porEstudiante.get(columnar.codigoEstudiante(fila)).agregar(fila);
+                porAsignatura.get(columnar.codigoAsignatura(fila)).agregar(fila);
+                porSemestre.get(columnar.codigoSemestre(fila)).agregar(fila);
+                porEstado.get(registro.isAprobado() ? 0 : 1).agregar(fila);
+                if (registro.isAprobado()) aprobados.agregar(fila);
+                vigentes.agregar(fila);
+                notas[fila] = registro.getNotaCentesimas();
+            }
+            filas.addAll(Arrays.asList(registros));
+            ordenVigente = false;
+            return registros;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca una fila como eliminada; deja de aparecer en consultas y copias.
+     * @return false si ya estaba eliminada.
+     */
+    public boolean eliminar(int fila) {
+        bloqueo.writeLock().lock();
+        try {
+            if (fila < 0 || fila >= filas.size()) throw new IndexOutOfBoundsException("Fila inexistente: " + fila);
+            if (!vigentes.quitar(fila)) return false;
+            RegistroAsignatura registro = filas.get(fila);
+            desmarcar(Dimension.ASIGNATURA, registro.getAsignatura(), fila);
+            desmarcar(Dimension.SEMESTRE, registro.getSemestre(), fila);
+            desmarcar(Dimension.ESTADO, registro.getEstado(), fila);
+            desmarcar(Dimension.ESTUDIANTE, Estudiante.clave(registro.getEstudiante()), fila);
+            aprobados.quitar(fila);
+            notas[fila] = -1; // Fuera del orden por nota
+            ordenVigente = false;
+            return true;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca la última fila vigente con los mismos datos que el registro, prefiriendo la que
+     * contiene ese mismo objeto.
+     * @return El número de fila, o -1 si no hay ninguna.
+     */
+    public int buscarFila(RegistroAsignatura registro) {
+        bloqueo.readLock().lock();
+        try {
+            int[] candidatas = consulta()
+                    .estudiante(registro.getEstudiante())
+                    .asignatura(registro.getAsignatura())
+                    .semestre(registro.getSemestre())
+                    .ejecutarConBloqueo()
+                    .aArreglo();
+            int igual = -1;
+            for (int i = candidatas.length - 1; i >= 0; i--) {
+                RegistroAsignatura candidata = filas.get(candidatas[i]);
+                if (candidata == registro) return candidatas[i];
+                if (igual < 0 && candidata.getNotaCentesimas() == registro.getNotaCentesimas()
+                        && candidata.getEstudiante().equals(registro.getEstudiante())) {
+                    igual = candidatas[i];
+                }
+            }
+            return igual;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return El número de filas vigentes.
+     */
+    public int tamano() {
+        bloqueo.readLock().lock();
+        try {
+            return vigentes.cardinalidad();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve la fila indicada.
+     */
+    public RegistroAsignatura fila(int fila) {
+        bloqueo.readLock().lock();
+        try {
+            return filas.get(fila);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Una copia de las filas vigentes en orden de inserción.
+     */
+    public List<RegistroAsignatura> copiarFilas() {
+        bloqueo.readLock().lock();
+        try {
+            if (vigentes.cardinalidad() == filas.size()) return new ArrayList<>(filas);
+            List<RegistroAsignatura> copia = new ArrayList<>(vigentes.cardinalidad());
+            vigentes.recorrer(fila -> copia.add(filas.get(fila)));
+            return copia;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inicia una consulta; sin condiciones selecciona todas las filas.
+     */
+    public Consulta consulta() {
+        return new Consulta();
+    }
+
+    /**
+     * Tasa de aprobación (entre 0 y 1) para cada valor de una dimensión, por ejemplo por semestre.
+     * Se calcula solo con los mapas de bits, sin recorrer las filas.
+     */
+    public Map<String, Double> tasaAprobacionPor(Dimension dimension) {
+        bloqueo.readLock().lock();
+        try {
+            Map<String, Double> tasas = new LinkedHashMap<>();
+            Diccionario diccionario = diccionarios[dimension.ordinal()];
+            List<MapaBits> porValor = mapas.get(dimension.ordinal());
+            for (int codigo = 0; codigo < diccionario.tamano(); codigo++) {
+                MapaBits filasValor = porValor.get(codigo);
+                int total = filasValor.cardinalidad();
+                if (total == 0) continue;
+                int aprobadosValor = filasValor.y(aprobados).cardinalidad();
+                tasas.put(diccionario.valor(codigo), aprobadosValor / (double) total);
+            }
+            return tasas;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private void marcar(Dimension dimension, String valor, int fila) {
+        mapa(dimension, valor).agregar(fila);
+    }
+
+    private MapaBits mapa(Dimension dimension, String valor) {
+        int codigo = diccionarios[dimension.ordinal()].codificar(valor);
+        List<MapaBits> porValor = mapas.get(dimension.ordinal());
+        if (codigo == porValor.size()) {
+            porValor.add(new MapaBits());
+        }
+        return porValor.get(codigo);
+    }
+
+    /**
+     * @return El mapa de bits de cada valor, en el orden de {@code valores}.
+     */
+    private List<MapaBits> traducir(Dimension dimension, String[] valores) {
+        List<MapaBits> traducidos = new ArrayList<>(valores.length);
+        for (String valor : valores) traducidos.add(mapa(dimension, valor));
+        return traducidos;
+    }
+
+    private void desmarcar(Dimension dimension, String valor, int fila) {
+        int codigo = diccionarios[dimension.ordinal()].buscar(valor);
+        if (codigo >= 0) mapas.get(dimension.ordinal()).get(codigo).quitar(fila);
+    }
+
+    /**
+     * Reconstruye el orden por nota con una ordenación por conteo. Requiere el bloqueo de lectura;
+     * la reconstrucción se serializa con el monitor del índice.
+     */
+    private void actualizarOrdenPorNota() {
+        if (ordenVigente) return;
+        synchronized (this) {
+            if (ordenVigente) return;
+            int n = filas.size();
+            int[] inicio = new int[NotaFija.MAX + 2];
+            int cantidad = 0;
+            for (int i = 0; i < n; i++) {
+                if (notas[i] >= 0) {
+                    inicio[notas[i] + 1]++;
+                    cantidad++;
+                }
+            }
+            for (int c = 1; c < inicio.length; c++) inicio[c] += inicio[c - 1];
+            int[] siguiente = Arrays.copyOf(inicio, inicio.length);
+            int[] orden = new int[cantidad];
+            for (int i = 0; i < n; i++) {
+                if (notas[i] >= 0) orden[siguiente[notas[i]]++] = i;
+            }
+            ordenPorNota = orden;
+            inicioNota = inicio;
+            ordenVigente = true;
+        }
+    }
+
+    /**
+     * Consulta sobre el historial. Las condiciones se combinan con Y lógico.
+     */
+    public final class Consulta {
+        private final Map<Dimension, String> valores = new LinkedHashMap<>();
+        private int notaMin = NotaFija.MIN;
+        private int notaMax = NotaFija.MAX;
+
+        private Consulta() {
+        }
+
+        public Consulta asignatura(String asignatura) {
+            valores.put(Dimension.ASIGNATURA, asignatura);
+            return this;
+        }
+
+        public Consulta semestre(String semestre) {
+            valores.put(Dimension.SEMESTRE, semestre);
+            return this;
+        }
+
+        public Consulta estudiante(String estudiante) {
+            valores.put(Dimension.ESTUDIANTE, Estudiante.clave(estudiante));
+            return this;
+        }
+
+        /**
+         * Filtra por estado: true para "Aprobado", false para "Reprobado".
+         */
+        public Consulta aprobado(boolean aprobado) {
+            valores.put(Dimension.ESTADO, aprobado ? RegistroAsignatura.APROBADO : RegistroAsignatura.REPROBADO);
+            return this;
+        }
+
+        /**
+         * Filtra por rango de nota en centésimas (ambos extremos inclusive).
+         */
+        public Consulta notaEntre(int minimoCentesimas, int maximoCentesimas) {
+            this.notaMin = Math.max(NotaFija.MIN, minimoCentesimas);
+            this.notaMax = Math.min(NotaFija.MAX, maximoCentesimas);
+            return this;
+        }
+
+        /**
+         * Ejecuta la consulta sobre el estado actual del índice.
+         */
+        public ResultadoConsulta ejecutar() {
+            bloqueo.readLock().lock();
+            try {
+                return new ResultadoConsulta(IndiceHistorial.this, ejecutarConBloqueo());
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+        }
+
+        /**
+         * Requiere el bloqueo de lectura.
+         */
+        private MapaBits ejecutarConBloqueo() {
+            List<MapaBits> condiciones = new ArrayList<>();
+            for (Map.Entry<Dimension, String> condicion : valores.entrySet()) {
+                int codigo = diccionarios[condicion.getKey().ordinal()].buscar(condicion.getValue());
+                if (codigo < 0) return new MapaBits();
+                condiciones.add(mapas.get(condicion.getKey().ordinal()).get(codigo));
+            }
+
+            // Se parte de la condición más selectiva y se intersecan las demás
+            condiciones.sort((a, b) -> Integer.compare(a.cardinalidad(), b.cardinalidad()));
+            MapaBits resultado = null;
+            for (MapaBits condicion : condiciones) {
+                resultado = resultado == null ? condicion.y(condicion) : resultado.y(condicion);
+            }
+
+            boolean conRango = notaMin > NotaFija.MIN || notaMax < NotaFija.MAX;
+            if (resultado == null) {
+                resultado = conRango ? rangoNota(notaMin, notaMax) : vigentes.y(vigentes);
+            } else if (conRango) {
+                int[] notasFilas = notas;
+                resultado = resultado.filtrar(fila -> notasFilas[fila] >= notaMin && notasFilas[fila] <= notaMax);
+            }
+            return resultado;
+        }
+
+        private MapaBits rangoNota(int minimo, int maximo) {
+            if (minimo > maximo) return new MapaBits();
+            actualizarOrdenPorNota();
+            int desde = inicioNota[minimo];
+            int hasta = inicioNota[maximo + 1];
+            return MapaBits.deFilas(Arrays.copyOfRange(ordenPorNota, desde, hasta), hasta - desde);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de nombres (estudiantes o asignaturas) para autocompletar mientras se escribe.
+ * Cada nombre se guarda normalizado (sin tildes, en minúsculas y con los espacios colapsados) en un
+ * mapa ordenado: buscar un prefijo es una búsqueda logarítmica más el recorrido de los primeros
+ * resultados, sin depender del tamaño del índice. También se indexa el inicio de cada palabra, de
+ * modo que "lope" encuentra "Ana López" y "fisica" encuentra "Física".
+ * Admite altas concurrentes con búsquedas sin bloqueos.
+ */
+public class IndiceNombres {
+    private final NavigableMap<String, Set<String>> completos = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> palabras = new ConcurrentSkipListMap<>();
+    private final Map<String, Boolean> conocidos = new ConcurrentHashMap<>();
+
+    /**
+     * Agrega un nombre; si ya estaba escrito exactamente igual no hace nada.
+     */
+    public void agregar(String nombre) {
+        // Comprobación barata antes de normalizar: al reconstruir el historial casi todos los nombres se repiten
+        if (nombre == null || conocidos.putIfAbsent(nombre, Boolean.TRUE) != null) return;
+        String clave = normalizar(nombre);
+        if (clave.isEmpty()) return;
+        agregar(completos, clave, nombre);
+        for (int i = clave.indexOf(' '); i >= 0; i = clave.indexOf(' ', i + 1)) {
+            agregar(palabras, clave.substring(i + 1), nombre);
+        }
+    }
+
+    private static void agregar(NavigableMap<String, Set<String>> mapa, String clave, String nombre) {
+        mapa.computeIfAbsent(clave, c -> ConcurrentHashMap.newKeySet()).add(nombre);
+    }
+
+    /**
+     * Busca nombres que empiecen por el texto, o con alguna palabra que empiece por él.
+     * Primero van las coincidencias con el nombre completo, en orden alfabético.
+     * @param texto Texto escrito, con o sin tildes.
+     * @param limite Número máximo de resultados.
+     */
+    public List<String> buscar(String texto, int limite) {
+        String prefijo = normalizar(texto);
+        Set<String> resultado = new LinkedHashSet<>();
+        if (prefijo.isEmpty() || limite <= 0) return new ArrayList<>(resultado);
+        recolectar(completos, prefijo, resultado, limite);
+        if (resultado.size() < limite) recolectar(palabras, prefijo, resultado, limite);
+        return new ArrayList<>(resultado);
+    }
+
+    private static void recolectar(NavigableMap<String, Set<String>> mapa, String prefijo, Set<String> resultado, int limite) {
+        for (Map.Entry<String, Set<String>> entrada : mapa.tailMap(prefijo, true).entrySet()) {
+            if (!entrada.getKey().startsWith(prefijo)) return;
+            for (String nombre : entrada.getValue()) {
+                resultado.add(nombre);
+                if (resultado.size() >= limite) return;
+            }
+        }
+    }
+
+    /**
+     * @return Un nombre ya indexado que solo difiere en tildes, mayúsculas o espacios, o null.
+     */
+    public String equivalente(String nombre) {
+        Set<String> iguales = completos.get(normalizar(nombre));
+        if (iguales == null) return null;
+        for (String igual : iguales) return igual;
+        return null;
+    }
+
+    /**
+     * @return El número de nombres distintos.
+     */
+    public int tamano() {
+        return conocidos.size();
+    }
+
+    /**
+     * Quita tildes y diacríticos, pasa a minúsculas y colapsa los espacios.
+     */
+    static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesto.length());
+        boolean espacio = false;
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isWhitespace(c)) {
+                espacio = sb.length() > 0;
+                continue;
+            }
+            if (espacio) {
+                sb.append(' ');
+                espacio = false;
+            }
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
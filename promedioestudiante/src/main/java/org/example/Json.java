@@ -0,0 +1,230 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector y escritor JSON mínimo para el servicio local, sin dependencias externas.
+ * Los objetos se leen como {@code Map<String, Object>}, los arreglos como {@code List<Object>} y los
+ * números como {@link BigDecimal}, de modo que una nota como 85.35 llega sin errores de redondeo.
+ */
+final class Json {
+    private static final int MAX_PROFUNDIDAD = 32;
+
+    private final String texto;
+    private int pos;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el texto no es JSON válido.
+     */
+    static Object leer(String texto) {
+        Json json = new Json(texto);
+        json.saltarEspacios();
+        Object valor = json.valor(0);
+        json.saltarEspacios();
+        if (json.pos != texto.length()) throw json.error("Contenido después del valor");
+        return valor;
+    }
+
+    /**
+     * Escribe una cadena JSON entre comillas, escapando lo necesario.
+     */
+    static StringBuilder cadena(StringBuilder sb, String valor) {
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private Object valor(int profundidad) {
+        if (profundidad > MAX_PROFUNDIDAD) throw error("Anidamiento demasiado profundo");
+        if (pos >= texto.length()) throw error("Fin inesperado");
+        char c = texto.charAt(pos);
+        switch (c) {
+            case '{':
+                return objeto(profundidad);
+            case '[':
+                return arreglo(profundidad);
+            case '"':
+                return cadena();
+            case 't':
+                literal("true");
+                return Boolean.TRUE;
+            case 'f':
+                literal("false");
+                return Boolean.FALSE;
+            case 'n':
+                literal("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return numero();
+                throw error("Carácter inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> objeto(int profundidad) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        pos++;
+        saltarEspacios();
+        if (consumir('}')) return mapa;
+        do {
+            saltarEspacios();
+            if (pos >= texto.length() || texto.charAt(pos) != '"') throw error("Se esperaba el nombre de un campo");
+            String clave = cadena();
+            saltarEspacios();
+            if (!consumir(':')) throw error("Se esperaba ':'");
+            saltarEspacios();
+            mapa.put(clave, valor(profundidad + 1));
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir('}')) throw error("Se esperaba '}'");
+        return mapa;
+    }
+
+    private List<Object> arreglo(int profundidad) {
+        List<Object> lista = new ArrayList<>();
+        pos++;
+        saltarEspacios();
+        if (consumir(']')) return lista;
+        do {
+            saltarEspacios();
+            lista.add(valor(profundidad + 1));
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir(']')) throw error("Se esperaba ']'");
+        return lista;
+    }
+
+    private String cadena() {
+        pos++;
+        StringBuilder sb = null;
+        int inicio = pos;
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c == '"') {
+                String resultado = sb == null ? texto.substring(inicio, pos) : sb.append(texto, inicio, pos).toString();
+                pos++;
+                return resultado;
+            }
+            if (c == '\\') {
+                if (sb == null) sb = new StringBuilder();
+                sb.append(texto, inicio, pos);
+                sb.append(escape());
+                inicio = pos;
+            } else if (c < 0x20) {
+                throw error("Carácter de control sin escapar");
+            } else {
+                pos++;
+            }
+        }
+        throw error("Cadena sin cerrar");
+    }
+
+    private char escape() {
+        pos++;
+        if (pos >= texto.length()) throw error("Escape incompleto");
+        char c = texto.charAt(pos++);
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (pos + 4 > texto.length()) throw error("Escape \\u incompleto");
+                // Exactamente cuatro dígitos hexadecimales ASCII, sin signo
+                int unicode = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digito = digitoHexadecimal(texto.charAt(pos + i));
+                    if (digito < 0) throw error("Escape \\u inválido");
+                    unicode = unicode << 4 | digito;
+                }
+                pos += 4;
+                return (char) unicode;
+            default:
+                throw error("Escape inválido '\\" + c + "'");
+        }
+    }
+
+    private static int digitoHexadecimal(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    private BigDecimal numero() {
+        int inicio = pos;
+        while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) pos++;
+        try {
+            return new BigDecimal(texto.substring(inicio, pos));
+        } catch (NumberFormatException e) {
+            throw error("Número inválido");
+        }
+    }
+
+    private void literal(String palabra) {
+        if (!texto.startsWith(palabra, pos)) throw error("Se esperaba " + palabra);
+        pos += palabra.length();
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void saltarEspacios() {
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + mensaje);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example;
+
+/**
+ * Punto de entrada sin dependencias de SWT. Con {@code --lote} ejecuta {@link ModoLote} y con
+ * {@code --servicio} el {@link ServicioCalificaciones}, sin cargar ninguna clase de SWT, de modo que
+ * sirve en servidores donde la biblioteca gráfica no está instalada; en cualquier otro caso abre la
+ * interfaz de {@link GestorEstudiantes}.
+ * <p>
+ * {@link GestorEstudiantes#main} también acepta {@code --lote}, pero al verificar esa clase la JVM
+ * necesita el jar de SWT en el classpath.
+ */
+public final class Lanzador {
+    private Lanzador() {
+    }
+
+    public static void main(String[] args) {
+        if (ModoLote.solicitado(args)) {
+            System.exit(ModoLote.ejecutar(args));
+        }
+        if (ServicioCalificaciones.solicitado(args)) {
+            System.exit(ServicioCalificaciones.ejecutar(args));
+        }
+        GestorEstudiantes.main(args);
+    }
+}
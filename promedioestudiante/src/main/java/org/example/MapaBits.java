@@ -0,0 +1,375 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Mapa de bits comprimido al estilo Roaring para conjuntos de números de fila.
+ * <p>
+ * Las filas se agrupan en bloques de 65536 según sus 16 bits altos. Cada bloque se guarda
+ * como arreglo ordenado de los 16 bits bajos mientras tiene pocas filas, y como mapa de bits
+ * denso de 8 KiB a partir de {@link #LIMITE_ARREGLO} filas. Así, un valor poco frecuente
+ * (un estudiante entre miles) ocupa unos pocos bytes y uno frecuente (un semestre) un bit por fila.
+ * No es seguro para varios hilos; lo protege quien lo usa.
+ */
+public final class MapaBits {
+    static final int LIMITE_ARREGLO = 4096;
+    private static final int PALABRAS_BLOQUE = 1024; // 65536 bits
+
+    private int[] claves = new int[4];
+    private Object[] bloques = new Object[4];       // short[] (arreglo) o long[] (mapa de bits)
+    private int[] cardinalidades = new int[4];
+    private int tamano;
+
+    /**
+     * Crea un mapa con todas las filas en [desde, hasta).
+     */
+    public static MapaBits rango(int desde, int hasta) {
+        MapaBits mapa = new MapaBits();
+        for (int fila = desde; fila < hasta; ) {
+            int clave = fila >>> 16;
+            int finBloque = Math.min(hasta, (clave + 1) << 16);
+            long[] palabras = new long[PALABRAS_BLOQUE];
+            int bajo = fila & 0xFFFF;
+            int alto = finBloque - (clave << 16);
+            for (int b = bajo; b < alto; b++) {
+                palabras[b >>> 6] |= 1L << b;
+            }
+            mapa.anexarBloque(clave, compactar(palabras, alto - bajo), alto - bajo);
+            fila = finBloque;
+        }
+        return mapa;
+    }
+
+    /**
+     * Crea un mapa a partir de filas en cualquier orden.
+     */
+    public static MapaBits deFilas(int[] filas, int cantidad) {
+        int[] ordenadas = Arrays.copyOf(filas, cantidad);
+        Arrays.sort(ordenadas);
+        MapaBits mapa = new MapaBits();
+        for (int i = 0; i < cantidad; i++) {
+            mapa.agregar(ordenadas[i]);
+        }
+        return mapa;
+    }
+
+    /**
+     * Agrega una fila. Es O(1) amortizado cuando las filas llegan en orden creciente.
+     */
+    public void agregar(int fila) {
+        int clave = fila >>> 16;
+        short bajo = (short) fila;
+        int i = tamano > 0 && claves[tamano - 1] == clave ? tamano - 1 : buscarClave(clave);
+        if (i < 0) {
+            i = -i - 1;
+            insertarBloque(i, clave, new short[4], 0);
+        }
+
+        Object bloque = bloques[i];
+        if (bloque instanceof long[]) {
+            long[] palabras = (long[]) bloque;
+            long mascara = 1L << (bajo & 0xFFFF);
+            int p = (bajo & 0xFFFF) >>> 6;
+            if ((palabras[p] & mascara) == 0) {
+                palabras[p] |= mascara;
+                cardinalidades[i]++;
+            }
+            return;
+        }
+
+        short[] valores = (short[]) bloque;
+        int n = cardinalidades[i];
+        int pos = n > 0 && Short.toUnsignedInt(valores[n - 1]) < Short.toUnsignedInt(bajo)
+                ? -(n + 1) : buscarCorto(valores, n, bajo);
+        if (pos >= 0) return;
+        pos = -pos - 1;
+        if (n == LIMITE_ARREGLO) {
+            long[] palabras = aPalabras(valores, n);
+            palabras[(bajo & 0xFFFF) >>> 6] |= 1L << (bajo & 0xFFFF);
+            bloques[i] = palabras;
+            cardinalidades[i] = n + 1;
+            return;
+        }
+        if (n == valores.length) {
+            valores = Arrays.copyOf(valores, Math.min(LIMITE_ARREGLO, n * 2));
+            bloques[i] = valores;
+        }
+        System.arraycopy(valores, pos, valores, pos + 1, n - pos);
+        valores[pos] = bajo;
+        cardinalidades[i] = n + 1;
+    }
+
+    /**
+     * Quita una fila. Un bloque denso que baja de {@link #LIMITE_ARREGLO} filas vuelve a ser un arreglo
+     * y un bloque vacío se descarta.
+     * @return false si la fila no estaba.
+     */
+    public boolean quitar(int fila) {
+        int i = buscarClave(fila >>> 16);
+        if (i < 0) return false;
+        Object bloque = bloques[i];
+        int bajo = fila & 0xFFFF;
+        int n = cardinalidades[i];
+        if (bloque instanceof long[]) {
+            long[] palabras = (long[]) bloque;
+            long mascara = 1L << bajo;
+            if ((palabras[bajo >>> 6] & mascara) == 0) return false;
+            palabras[bajo >>> 6] &= ~mascara;
+            cardinalidades[i] = n - 1;
+            if (n - 1 <= LIMITE_ARREGLO) bloques[i] = compactar(palabras, n - 1);
+        } else {
+            short[] valores = (short[]) bloque;
+            int pos = buscarCorto(valores, n, (short) bajo);
+            if (pos < 0) return false;
+            System.arraycopy(valores, pos + 1, valores, pos, n - pos - 1);
+            cardinalidades[i] = n - 1;
+        }
+        if (n == 1) quitarBloque(i);
+        return true;
+    }
+
+    public boolean contiene(int fila) {
+        int i = buscarClave(fila >>> 16);
+        if (i < 0) return false;
+        Object bloque = bloques[i];
+        int bajo = fila & 0xFFFF;
+        if (bloque instanceof long[]) {
+            return (((long[]) bloque)[bajo >>> 6] & (1L << bajo)) != 0;
+        }
+        return buscarCorto((short[]) bloque, cardinalidades[i], (short) bajo) >= 0;
+    }
+
+    public int cardinalidad() {
+        int total = 0;
+        for (int i = 0; i < tamano; i++) total += cardinalidades[i];
+        return total;
+    }
+
+    /**
+     * @return Un mapa nuevo con las filas presentes en ambos mapas.
+     */
+    public MapaBits y(MapaBits otro) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < tamano && j < otro.tamano) {
+            int a = claves[i];
+            int b = otro.claves[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Object x = bloques[i];
+                Object y = otro.bloques[j];
+                if (x instanceof long[] && y instanceof long[]) {
+                    long[] palabras = new long[PALABRAS_BLOQUE];
+                    long[] px = (long[]) x;
+                    long[] py = (long[]) y;
+                    int cardinalidad = 0;
+                    for (int p = 0; p < PALABRAS_BLOQUE; p++) {
+                        palabras[p] = px[p] & py[p];
+                        cardinalidad += Long.bitCount(palabras[p]);
+                    }
+                    if (cardinalidad > 0) resultado.anexarBloque(a, compactar(palabras, cardinalidad), cardinalidad);
+                } else {
+                    // Con al menos un arreglo el resultado cabe en un arreglo
+                    int n = Math.min(cardinalidades[i], otro.cardinalidades[j]);
+                    short[] valores = new short[n];
+                    int cardinalidad = x instanceof short[]
+                            ? filtrarArreglo((short[]) x, cardinalidades[i], y, otro.cardinalidades[j], true, valores)
+                            : filtrarArreglo((short[]) y, otro.cardinalidades[j], x, cardinalidades[i], true, valores);
+                    if (cardinalidad > 0) resultado.anexarBloque(a, valores, cardinalidad);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Un mapa nuevo con las filas de este mapa que no están en el otro.
+     */
+    public MapaBits yNo(MapaBits otro) {
+        MapaBits resultado = new MapaBits();
+        int j = 0;
+        for (int i = 0; i < tamano; i++) {
+            int clave = claves[i];
+            while (j < otro.tamano && otro.claves[j] < clave) j++;
+            Object x = bloques[i];
+            int cardinalidadX = cardinalidades[i];
+            boolean comun = j < otro.tamano && otro.claves[j] == clave;
+
+            if (!comun) {
+                Object copia = x instanceof long[] ? ((long[]) x).clone() : Arrays.copyOf((short[]) x, cardinalidadX);
+                resultado.anexarBloque(clave, copia, cardinalidadX);
+            } else if (x instanceof short[]) {
+                short[] valores = new short[cardinalidadX];
+                int cardinalidad = filtrarArreglo((short[]) x, cardinalidadX,
+                        otro.bloques[j], otro.cardinalidades[j], false, valores);
+                if (cardinalidad > 0) resultado.anexarBloque(clave, valores, cardinalidad);
+            } else {
+                long[] palabras = ((long[]) x).clone();
+                long[] quitar = aPalabras(otro.bloques[j], otro.cardinalidades[j]);
+                int cardinalidad = 0;
+                for (int p = 0; p < PALABRAS_BLOQUE; p++) {
+                    palabras[p] &= ~quitar[p];
+                    cardinalidad += Long.bitCount(palabras[p]);
+                }
+                if (cardinalidad > 0) resultado.anexarBloque(clave, compactar(palabras, cardinalidad), cardinalidad);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Un mapa nuevo con las filas de este mapa que cumplen el filtro.
+     */
+    public MapaBits filtrar(IntPredicate filtro) {
+        MapaBits resultado = new MapaBits();
+        recorrer(fila -> {
+            if (filtro.test(fila)) resultado.agregar(fila);
+        });
+        return resultado;
+    }
+
+    /**
+     * Recorre las filas en orden creciente.
+     */
+    public void recorrer(IntConsumer accion) {
+        for (int i = 0; i < tamano; i++) {
+            int base = claves[i] << 16;
+            Object bloque = bloques[i];
+            if (bloque instanceof long[]) {
+                long[] palabras = (long[]) bloque;
+                for (int p = 0; p < PALABRAS_BLOQUE; p++) {
+                    long palabra = palabras[p];
+                    while (palabra != 0) {
+                        accion.accept(base + (p << 6) + Long.numberOfTrailingZeros(palabra));
+                        palabra &= palabra - 1;
+                    }
+                }
+            } else {
+                short[] valores = (short[]) bloque;
+                for (int k = 0, n = cardinalidades[i]; k < n; k++) {
+                    accion.accept(base + Short.toUnsignedInt(valores[k]));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Las filas en orden creciente.
+     */
+    public int[] aArreglo() {
+        int[] filas = new int[cardinalidad()];
+        int[] pos = {0};
+        recorrer(fila -> filas[pos[0]++] = fila);
+        return filas;
+    }
+
+    private int buscarClave(int clave) {
+        return Arrays.binarySearch(claves, 0, tamano, clave);
+    }
+
+    private static int buscarCorto(short[] valores, int n, short valor) {
+        int objetivo = Short.toUnsignedInt(valor);
+        int bajo = 0;
+        int alto = n - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int v = Short.toUnsignedInt(valores[medio]);
+            if (v < objetivo) {
+                bajo = medio + 1;
+            } else if (v > objetivo) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private void anexarBloque(int clave, Object bloque, int cardinalidad) {
+        insertarBloque(tamano, clave, bloque, cardinalidad);
+    }
+
+    private void insertarBloque(int i, int clave, Object bloque, int cardinalidad) {
+        if (tamano == claves.length) {
+            claves = Arrays.copyOf(claves, tamano * 2);
+            bloques = Arrays.copyOf(bloques, tamano * 2);
+            cardinalidades = Arrays.copyOf(cardinalidades, tamano * 2);
+        }
+        System.arraycopy(claves, i, claves, i + 1, tamano - i);
+        System.arraycopy(bloques, i, bloques, i + 1, tamano - i);
+        System.arraycopy(cardinalidades, i, cardinalidades, i + 1, tamano - i);
+        claves[i] = clave;
+        bloques[i] = bloque;
+        cardinalidades[i] = cardinalidad;
+        tamano++;
+    }
+
+    private void quitarBloque(int i) {
+        System.arraycopy(claves, i + 1, claves, i, tamano - i - 1);
+        System.arraycopy(bloques, i + 1, bloques, i, tamano - i - 1);
+        System.arraycopy(cardinalidades, i + 1, cardinalidades, i, tamano - i - 1);
+        tamano--;
+        bloques[tamano] = null;
+    }
+
+    /**
+     * Copia en {@code destino} los valores del arreglo que están (o no están) en el otro bloque.
+     * @return El número de valores copiados.
+     */
+    private static int filtrarArreglo(short[] valores, int n, Object otro, int cardinalidadOtro,
+                                      boolean presentes, short[] destino) {
+        int k = 0;
+        if (otro instanceof long[]) {
+            long[] palabras = (long[]) otro;
+            for (int i = 0; i < n; i++) {
+                int v = Short.toUnsignedInt(valores[i]);
+                if (((palabras[v >>> 6] & (1L << v)) != 0) == presentes) destino[k++] = valores[i];
+            }
+            return k;
+        }
+        short[] otros = (short[]) otro;
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            int v = Short.toUnsignedInt(valores[i]);
+            while (j < cardinalidadOtro && Short.toUnsignedInt(otros[j]) < v) j++;
+            boolean esta = j < cardinalidadOtro && Short.toUnsignedInt(otros[j]) == v;
+            if (esta == presentes) destino[k++] = valores[i];
+        }
+        return k;
+    }
+
+    private static long[] aPalabras(Object bloque, int cardinalidad) {
+        if (bloque instanceof long[]) {
+            return ((long[]) bloque).clone();
+        }
+        long[] palabras = new long[PALABRAS_BLOQUE];
+        short[] valores = (short[]) bloque;
+        for (int k = 0; k < cardinalidad; k++) {
+            int v = Short.toUnsignedInt(valores[k]);
+            palabras[v >>> 6] |= 1L << v;
+        }
+        return palabras;
+    }
+
+    private static Object compactar(long[] palabras, int cardinalidad) {
+        if (cardinalidad > LIMITE_ARREGLO) return palabras;
+        short[] valores = new short[cardinalidad];
+        int k = 0;
+        for (int p = 0; p < PALABRAS_BLOQUE; p++) {
+            long palabra = palabras[p];
+            while (palabra != 0) {
+                valores[k++] = (short) ((p << 6) + Long.numberOfTrailingZeros(palabra));
+                palabra &= palabra - 1;
+            }
+        }
+        return valores;
+    }
+}
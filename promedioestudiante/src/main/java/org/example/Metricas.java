@@ -0,0 +1,171 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instrumentación de la aplicación: histogramas de latencia por operación y contadores, publicados
+ * como MBean en el servidor JMX de la plataforma y volcados periódicamente al registro
+ * {@code org.example.metricas}. Registrar una medición no bloquea ni asigna memoria.
+ */
+public class Metricas implements MetricasMBean, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger("org.example.metricas");
+    private static final long INTERVALO_VOLCADO_S = 60;
+
+    /**
+     * Operaciones medidas.
+     */
+    public enum Operacion {
+        CALCULAR_PROMEDIO,
+        AGREGAR_ASIGNATURA,
+        GUARDAR_COMENTARIOS,
+        ABRIR_DETALLES,
+        /** Cada evento atendido por {@code readAndDispatch}, incluidos los diálogos modales que abra. */
+        DESPACHO_EVENTOS
+    }
+
+    private final HistogramaLatencia[] histogramas = new HistogramaLatencia[Operacion.values().length];
+    private final LongAdder filasInsertadas = new LongAdder();
+    private final LongAdder rechazosValidacion = new LongAdder();
+    private final ScheduledExecutorService volcador;
+    private ObjectName nombre;
+    private long ultimaCantidadVolcada;
+
+    public Metricas() {
+        for (int i = 0; i < histogramas.length; i++) histogramas[i] = new HistogramaLatencia();
+        volcador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "volcado-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        volcador.scheduleAtFixedRate(this::volcar, INTERVALO_VOLCADO_S, INTERVALO_VOLCADO_S, TimeUnit.SECONDS);
+        registrarMBean();
+    }
+
+    private void registrarMBean() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName candidato = new ObjectName("org.example:type=Metricas");
+            // Una segunda instancia en el mismo proceso reemplaza a la anterior
+            if (servidor.isRegistered(candidato)) servidor.unregisterMBean(candidato);
+            servidor.registerMBean(this, candidato);
+            nombre = candidato;
+        } catch (JMException | SecurityException e) {
+            LOG.log(Level.WARNING, "No se pudo registrar el MBean de métricas", e);
+        }
+    }
+
+    /**
+     * Registra la duración de una operación iniciada en {@code inicioNanos} ({@link System#nanoTime()}).
+     */
+    public void registrar(Operacion operacion, long inicioNanos) {
+        histogramas[operacion.ordinal()].registrarDesde(inicioNanos);
+    }
+
+    public HistogramaLatencia histograma(Operacion operacion) {
+        return histogramas[operacion.ordinal()];
+    }
+
+    public void filaInsertada() {
+        filasInsertadas.increment();
+    }
+
+    public void rechazoValidacion() {
+        rechazosValidacion.increment();
+    }
+
+    @Override
+    public long getFilasInsertadas() {
+        return filasInsertadas.sum();
+    }
+
+    @Override
+    public long getRechazosValidacion() {
+        return rechazosValidacion.sum();
+    }
+
+    @Override
+    public String[] getOperaciones() {
+        Operacion[] operaciones = Operacion.values();
+        String[] nombres = new String[operaciones.length];
+        for (int i = 0; i < operaciones.length; i++) nombres[i] = operaciones[i].name();
+        return nombres;
+    }
+
+    @Override
+    public String getResumen() {
+        StringBuilder sb = new StringBuilder();
+        for (Operacion operacion : Operacion.values()) {
+            HistogramaLatencia.Instantanea i = histogramas[operacion.ordinal()].instantanea();
+            sb.append(String.format(Locale.ROOT, "%s: n=%d media=%.2fms p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    operacion, i.getCantidad(), i.getMediaMs(), i.percentilMs(50), i.percentilMs(99), i.getMaximoMs()));
+        }
+        sb.append("Filas insertadas: ").append(getFilasInsertadas())
+                .append(", rechazos de validación: ").append(getRechazosValidacion());
+        return sb.toString();
+    }
+
+    @Override
+    public long cantidad(String operacion) {
+        return instantanea(operacion).getCantidad();
+    }
+
+    @Override
+    public double mediaMs(String operacion) {
+        return instantanea(operacion).getMediaMs();
+    }
+
+    @Override
+    public double percentilMs(String operacion, double percentil) {
+        return instantanea(operacion).percentilMs(percentil);
+    }
+
+    @Override
+    public double maximoMs(String operacion) {
+        return instantanea(operacion).getMaximoMs();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (HistogramaLatencia histograma : histogramas) histograma.reiniciar();
+        filasInsertadas.reset();
+        rechazosValidacion.reset();
+    }
+
+    private HistogramaLatencia.Instantanea instantanea(String operacion) {
+        return histogramas[Operacion.valueOf(operacion.toUpperCase(Locale.ROOT)).ordinal()].instantanea();
+    }
+
+    /**
+     * Escribe el resumen en el registro, salvo que no haya mediciones nuevas desde el último volcado.
+     */
+    private synchronized void volcar() {
+        long cantidad = getFilasInsertadas() + getRechazosValidacion();
+        for (HistogramaLatencia histograma : histogramas) cantidad += histograma.instantanea().getCantidad();
+        if (cantidad == ultimaCantidadVolcada) return;
+        ultimaCantidadVolcada = cantidad;
+        LOG.info(getResumen());
+    }
+
+    @Override
+    public void close() {
+        volcador.shutdownNow();
+        volcar();
+        if (nombre != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombre);
+            } catch (JMException e) {
+                LOG.log(Level.FINE, "El MBean de métricas ya no estaba registrado", e);
+            }
+        }
+    }
+}
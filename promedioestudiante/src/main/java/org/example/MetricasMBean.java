@@ -0,0 +1,27 @@
+package org.example;
+
+/**
+ * Vista JMX de {@link Metricas}, visible en JConsole o VisualVM como {@code org.example:type=Metricas}.
+ */
+public interface MetricasMBean {
+    long getFilasInsertadas();
+
+    long getRechazosValidacion();
+
+    String[] getOperaciones();
+
+    /**
+     * @return Resumen legible de todas las operaciones: cantidad, media, p50, p99 y máximo.
+     */
+    String getResumen();
+
+    long cantidad(String operacion);
+
+    double mediaMs(String operacion);
+
+    double percentilMs(String operacion, double percentil);
+
+    double maximoMs(String operacion);
+
+    void reiniciar();
+}
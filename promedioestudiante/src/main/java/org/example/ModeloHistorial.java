@@ -0,0 +1,225 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Modelo de filas del historial académico, independiente de la tabla SWT.
+ * Mantiene una vista (arreglo de índices) ordenada y filtrada sobre las filas,
+ * de modo que ordenar o filtrar no obliga a reconstruir los elementos de la tabla.
+ */
+public class ModeloHistorial {
+
+    /**
+     * Columnas del historial en el orden en que se muestran.
+     */
+    public enum Columna {
+        ASIGNATURA("Asignatura", Comparator.comparing(RegistroAsignatura::getAsignatura, String.CASE_INSENSITIVE_ORDER)),
+        NOTA("Nota", Comparator.comparingInt(RegistroAsignatura::getNotaCentesimas)),
+        SEMESTRE("Semestre", Comparator.comparing(RegistroAsignatura::getSemestre)),
+        ESTADO("Estado", Comparator.comparing(RegistroAsignatura::getEstado));
+
+        private final String titulo;
+        private final Comparator<RegistroAsignatura> comparador;
+
+        Columna(String titulo, Comparator<RegistroAsignatura> comparador) {
+            this.titulo = titulo;
+            this.comparador = comparador;
+        }
+
+        public String getTitulo() {
+            return titulo;
+        }
+    }
+
+    private static final int UMBRAL_INSERCION = 32; // Tramos que se ordenan por inserción
+
+    private final List<RegistroAsignatura> filas = new ArrayList<>();
+    private int[] vista = new int[16];
+    private int[] auxiliar = new int[0];  // Búfer de la ordenación por mezcla, reutilizado
+    private int tamanoVista;
+
+    private Predicate<RegistroAsignatura> filtro;
+    private Comparator<RegistroAsignatura> orden;
+
+    /**
+     * Agrega una fila al modelo y la inserta en la vista si cumple el filtro activo.
+     * @param registro La fila a agregar.
+     * @return La posición de la fila en la vista, o -1 si queda filtrada.
+     */
+    public int agregar(RegistroAsignatura registro) {
+        int indice = filas.size();
+        filas.add(registro);
+        if (filtro != null && !filtro.test(registro)) {
+            return -1;
+        }
+
+        int posicion = tamanoVista;
+        if (orden != null) {
+            // Búsqueda binaria de la primera posición con una fila mayor (orden estable)
+            int bajo = 0;
+            int alto = tamanoVista;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (orden.compare(filas.get(vista[medio]), registro) <= 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            posicion = bajo;
+        }
+
+        if (tamanoVista == vista.length) {
+            vista = Arrays.copyOf(vista, vista.length * 2);
+        }
+        System.arraycopy(vista, posicion, vista, posicion + 1, tamanoVista - posicion);
+        vista[posicion] = indice;
+        tamanoVista++;
+        return posicion;
+    }
+
+    /**
+     * Sustituye todas las filas del modelo y reconstruye la vista una sola vez,
+     * conservando el orden y el filtro activos.
+     */
+    public void reemplazar(Collection<RegistroAsignatura> registros) {
+        filas.clear();
+        filas.addAll(registros);
+        reconstruirVista();
+    }
+
+    /**
+     * Elimina todas las filas del modelo.
+     */
+    public void limpiar() {
+        filas.clear();
+        tamanoVista = 0;
+    }
+
+    /**
+     * Ordena la vista por una columna, o restaura el orden de inserción si es null.
+     */
+    public void ordenarPor(Columna columna, boolean ascendente) {
+        if (columna == null) {
+            orden = null;
+        } else {
+            orden = ascendente ? columna.comparador : columna.comparador.reversed();
+        }
+        reconstruirVista();
+    }
+
+    /**
+     * Aplica un filtro a la vista, o lo quita si es null.
+     */
+    public void filtrar(Predicate<RegistroAsignatura> filtro) {
+        this.filtro = filtro;
+        reconstruirVista();
+    }
+
+    /**
+     * @return El número de filas visibles.
+     */
+    public int tamano() {
+        return tamanoVista;
+    }
+
+    /**
+     * @return El número total de filas, incluidas las filtradas.
+     */
+    public int tamanoTotal() {
+        return filas.size();
+    }
+
+    /**
+     * Devuelve la fila visible en la posición indicada.
+     */
+    public RegistroAsignatura fila(int posicion) {
+        if (posicion < 0 || posicion >= tamanoVista) {
+            throw new IndexOutOfBoundsException("Posición fuera de la vista: " + posicion);
+        }
+        return filas.get(vista[posicion]);
+    }
+
+    /**
+     * Da formato a una celda para mostrarla en la tabla.
+     */
+    public static String textoCelda(RegistroAsignatura registro, Columna columna) {
+        return textoCelda(registro, columna, new char[NotaFija.MAX_CARACTERES]);
+    }
+
+    /**
+     * Da formato a una celda reutilizando un búfer para la nota.
+     * @param bufer Búfer de al menos {@link NotaFija#MAX_CARACTERES} caracteres.
+     */
+    public static String textoCelda(RegistroAsignatura registro, Columna columna, char[] bufer) {
+        switch (columna) {
+            case ASIGNATURA:
+                return registro.getAsignatura();
+            case NOTA:
+                return NotaFija.aTexto(registro.getNotaCentesimas(), 1, bufer);
+            case SEMESTRE:
+                return registro.getSemestre();
+            default:
+                return registro.getEstado();
+        }
+    }
+
+    private void reconstruirVista() {
+        int n = filas.size();
+        if (vista.length < n) {
+            vista = new int[Math.max(16, n)];
+        }
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (filtro == null || filtro.test(filas.get(i))) {
+                vista[k++] = i;
+            }
+        }
+        tamanoVista = k;
+
+        if (orden != null && k > 1) {
+            // Ordenación estable de los índices mediante sus filas, sin encapsularlos en Integer
+            if (auxiliar.length < k) auxiliar = new int[vista.length];
+            ordenarVista(0, k);
+        }
+    }
+
+    /**
+     * Ordenación por mezcla de {@code vista[desde, hasta)}; estable, así que entre filas iguales se
+     * conserva el orden de inserción.
+     */
+    private void ordenarVista(int desde, int hasta) {
+        if (hasta - desde <= UMBRAL_INSERCION) {
+            for (int i = desde + 1; i < hasta; i++) {
+                int indice = vista[i];
+                RegistroAsignatura registro = filas.get(indice);
+                int j = i - 1;
+                while (j >= desde && orden.compare(filas.get(vista[j]), registro) > 0) {
+                    vista[j + 1] = vista[j];
+                    j--;
+                }
+                vista[j + 1] = indice;
+            }
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        ordenarVista(desde, medio);
+        ordenarVista(medio, hasta);
+        if (orden.compare(filas.get(vista[medio - 1]), filas.get(vista[medio])) <= 0) return; // Ya en orden
+
+        System.arraycopy(vista, desde, auxiliar, desde, medio - desde);
+        int i = desde;
+        int j = medio;
+        int k = desde;
+        while (i < medio && j < hasta) {
+            // Ante empate gana la mitad izquierda: estabilidad
+            vista[k++] = orden.compare(filas.get(vista[j]), filas.get(auxiliar[i])) < 0 ? vista[j++] : auxiliar[i++];
+        }
+        while (i < medio) vista[k++] = auxiliar[i++];
+    }
+}
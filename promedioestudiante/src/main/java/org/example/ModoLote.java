@@ -0,0 +1,320 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calificación por lotes sin interfaz gráfica, para servidores y tareas programadas.
+ * Esta clase no usa SWT: {@link GestorEstudiantes#main} la invoca antes de crear el Display.
+ * <p>
+ * Lee líneas {@code nombre,nota 1,...,nota N} (o el formato {@code estudiante,...} de
+ * {@link ImportadorCsv}) de archivos o de la entrada estándar y escribe {@code nombre,promedio,estado}
+ * con las mismas reglas que la pantalla principal: la {@link PoliticaCalificacion} indicada con
+ * {@code --politica}, o tres parciales con el mismo peso. Un hilo lee
+ * bloques de líneas, varios hilos los califican y el hilo escritor los vuelca en el orden de
+ * entrada; la cola de bloques pendientes está acotada para que la memoria no dependa del tamaño
+ * de la entrada. Los rechazos se informan por la salida de error con su archivo y línea.
+ */
+public final class ModoLote {
+    public static final String OPCION_LOTE = "--lote";
+
+    /** Código de salida cuando todas las líneas se calificaron. */
+    public static final int SALIDA_OK = 0;
+    /** Código de salida cuando hubo líneas rechazadas. */
+    public static final int SALIDA_RECHAZOS = 1;
+    /** Código de salida ante argumentos inválidos o errores de lectura o escritura. */
+    public static final int SALIDA_ERROR = 2;
+
+    private static final int LINEAS_POR_BLOQUE = 4096;
+    private static final String ENTRADA_ESTANDAR = "-";
+
+    private final List<String> entradas = new ArrayList<>();
+    private String salida;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private EvaluadorCompilado evaluador = PoliticaCalificacion.predeterminada().compilar();
+    private final PrintStream errores;
+
+    private ModoLote(PrintStream errores) {
+        this.errores = errores;
+    }
+
+    /**
+     * @return true si los argumentos piden el modo por lotes.
+     */
+    public static boolean solicitado(String[] args) {
+        for (String arg : args) {
+            if (arg.equals(OPCION_LOTE)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta el modo por lotes.
+     * @param args {@code --lote [--salida archivo] [--hilos n] [--politica archivo] [archivo|-]...}; sin archivos se lee la entrada estándar.
+     * @return El código de salida del proceso.
+     */
+    public static int ejecutar(String[] args) {
+        ModoLote lote = new ModoLote(System.err);
+        try {
+            lote.leerArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: " + OPCION_LOTE + " [--salida archivo] [--hilos n] [--politica archivo] [archivo|-]...");
+            return SALIDA_ERROR;
+        }
+
+        try (OutputStream destino = lote.salida == null
+                ? new BufferedOutputStream(System.out, 1 << 16)
+                : new BufferedOutputStream(Files.newOutputStream(Paths.get(lote.salida)), 1 << 16)) {
+            long rechazos = lote.calificar(destino);
+            destino.flush();
+            return rechazos == 0 ? SALIDA_OK : SALIDA_RECHAZOS;
+        } catch (IOException e) {
+            System.err.println("Error de entrada/salida: " + e.getMessage());
+            return SALIDA_ERROR;
+        }
+    }
+
+    private void leerArgumentos(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals(OPCION_LOTE)) continue;
+            if (arg.equals("--salida")) {
+                salida = valor(args, ++i, arg);
+            } else if (arg.equals("--hilos")) {
+                try {
+                    hilos = Integer.parseInt(valor(args, ++i, arg));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("--hilos debe ser un número entero");
+                }
+                if (hilos < 1) throw new IllegalArgumentException("--hilos debe ser al menos 1");
+            } else if (arg.equals("--politica")) {
+                String archivo = valor(args, ++i, arg);
+                try {
+                    evaluador = PoliticaCalificacion.cargar(Paths.get(archivo)).compilar();
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("No se pudo leer la política " + archivo + ": " + e.getMessage());
+                }
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opción desconocida: " + arg);
+            } else {
+                entradas.add(arg);
+            }
+        }
+        if (entradas.isEmpty()) entradas.add(ENTRADA_ESTANDAR);
+    }
+
+    private static String valor(String[] args, int i, String opcion) {
+        if (i >= args.length) throw new IllegalArgumentException("Falta el valor de " + opcion);
+        return args[i];
+    }
+
+    /**
+     * Bloque de líneas leídas, con su origen para informar los rechazos.
+     */
+    private static final class Bloque {
+        final String origen;
+        final long primeraLinea;
+        final String[] lineas;
+
+        Bloque(String origen, long primeraLinea, String[] lineas) {
+            this.origen = origen;
+            this.primeraLinea = primeraLinea;
+            this.lineas = lineas;
+        }
+    }
+
+    /**
+     * Salida ya codificada de un bloque y sus rechazos.
+     */
+    private static final class Resultado {
+        final byte[] salida;
+        final List<String> rechazos;
+
+        Resultado(byte[] salida, List<String> rechazos) {
+            this.salida = salida;
+            this.rechazos = rechazos;
+        }
+    }
+
+    private static final Future<Resultado> FIN = CompletableFuture.completedFuture(null);
+
+    private long calificar(OutputStream destino) throws IOException {
+        ExecutorService trabajadores = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "lote-calificacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Los resultados se encolan en orden de lectura; el lector espera si el escritor se atrasa
+        BlockingQueue<Future<Resultado>> pendientes = new ArrayBlockingQueue<>(2 * hilos);
+        ExecutorService hiloEscritor = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "lote-escritor");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        CompletableFuture<Long> escritor = CompletableFuture.supplyAsync(() -> escribir(pendientes, destino), hiloEscritor);
+        try {
+            for (String entrada : entradas) {
+                leer(entrada, bloque -> encolar(pendientes, trabajadores.submit(() -> calificarBloque(bloque)), escritor));
+            }
+            encolar(pendientes, FIN, escritor);
+            return escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Calificación interrumpida", e);
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) throw (IOException) causa;
+            throw new IOException(causa);
+        } finally {
+            trabajadores.shutdownNow();
+            hiloEscritor.shutdownNow();
+        }
+    }
+
+    /**
+     * Encola un resultado pendiente esperando mientras la cola esté llena, salvo que el escritor
+     * haya terminado por un error: en ese caso nadie vaciará la cola y se deja de leer.
+     */
+    private static void encolar(BlockingQueue<Future<Resultado>> pendientes, Future<Resultado> futuro,
+                                CompletableFuture<Long> escritor) throws InterruptedException {
+        while (!pendientes.offer(futuro, 100, TimeUnit.MILLISECONDS)) {
+            if (escritor.isDone()) {
+                escritor.join(); // Propaga el error del escritor
+                return;
+            }
+        }
+    }
+
+    private interface DestinoBloques {
+        void aceptar(Bloque bloque) throws InterruptedException;
+    }
+
+    private void leer(String entrada, DestinoBloques destino) throws IOException, InterruptedException {
+        boolean estandar = entrada.equals(ENTRADA_ESTANDAR);
+        String origen = estandar ? "entrada estándar" : entrada;
+        BufferedReader lector = estandar
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(entrada), StandardCharsets.UTF_8);
+        try {
+            long numero = 1;
+            List<String> lineas = new ArrayList<>(LINEAS_POR_BLOQUE);
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                lineas.add(linea);
+                if (lineas.size() == LINEAS_POR_BLOQUE) {
+                    destino.aceptar(new Bloque(origen, numero, lineas.toArray(new String[0])));
+                    numero += lineas.size();
+                    lineas.clear();
+                }
+            }
+            if (!lineas.isEmpty()) destino.aceptar(new Bloque(origen, numero, lineas.toArray(new String[0])));
+        } finally {
+            if (!estandar) lector.close();
+        }
+    }
+
+    /**
+     * Valida y separa las líneas del bloque en columnas de notas y las califica juntas con el evaluador compilado.
+     */
+    private Resultado calificarBloque(Bloque bloque) {
+        int evaluaciones = evaluador.getNumComponentes();
+        List<String> rechazos = new ArrayList<>();
+        List<String> campos = new ArrayList<>(evaluaciones + 2);
+        StringBuilder campo = new StringBuilder();
+        String[] nombres = new String[bloque.lineas.length];
+        int[][] columnas = new int[evaluaciones][bloque.lineas.length];
+        int validos = 0;
+
+        for (int i = 0; i < bloque.lineas.length; i++) {
+            long numero = bloque.primeraLinea + i;
+            String linea = bloque.lineas[i];
+            if (numero == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') linea = linea.substring(1);
+            if (linea.trim().isEmpty()) continue;
+            try {
+                ImportadorCsv.dividirCampos(linea, campos, campo);
+                String primero = campos.get(0).trim().toLowerCase(Locale.ROOT);
+                if (numero == 1 && (primero.equals("tipo") || primero.equals("nombre"))) continue;
+                int desde = primero.equals("estudiante") ? 1 : 0;
+                int esperados = desde + 1 + evaluaciones;
+                if (campos.size() != esperados) {
+                    throw new IllegalArgumentException("Se esperaban " + esperados + " campos y hay " + campos.size());
+                }
+
+                String nombre = ValidadorNotas.validarNombre(campos.get(desde));
+                for (int k = 0; k < evaluaciones; k++) {
+                    columnas[k][validos] = ValidadorNotas.parsearCentesimas(campos.get(desde + 1 + k));
+                }
+                nombres[validos++] = nombre;
+            } catch (IllegalArgumentException e) {
+                rechazos.add(bloque.origen + ", línea " + numero + ": " + e.getMessage());
+            }
+        }
+
+        if (validos < bloque.lineas.length) {
+            for (int k = 0; k < evaluaciones; k++) columnas[k] = Arrays.copyOf(columnas[k], validos);
+        }
+        int[] promedios = new int[validos];
+        boolean[] aprobados = new boolean[validos];
+        evaluador.evaluar(columnas, null, promedios, aprobados);
+
+        StringBuilder sb = new StringBuilder(validos * 32);
+        char[] bufer = new char[NotaFija.MAX_CARACTERES];
+        for (int i = 0; i < validos; i++) {
+            escribirCampo(sb, nombres[i]);
+            sb.append(',').append(NotaFija.aTexto(promedios[i], 2, bufer)).append(',')
+                    .append(aprobados[i] ? "APROBADO" : "REPROBADO")
+                    .append('\n');
+        }
+        return new Resultado(sb.toString().getBytes(StandardCharsets.UTF_8), rechazos);
+    }
+
+    private static void escribirCampo(StringBuilder sb, String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0) {
+            sb.append(valor);
+            return;
+        }
+        sb.append('"').append(valor.replace("\"", "\"\"")).append('"');
+    }
+
+    private long escribir(BlockingQueue<Future<Resultado>> pendientes, OutputStream destino) {
+        long rechazos = 0;
+        try {
+            Future<Resultado> siguiente;
+            while ((siguiente = pendientes.take()) != FIN) {
+                Resultado resultado = siguiente.get();
+                destino.write(resultado.salida);
+                for (String rechazo : resultado.rechazos) errores.println(rechazo);
+                rechazos += resultado.rechazos.size();
+            }
+            return rechazos;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
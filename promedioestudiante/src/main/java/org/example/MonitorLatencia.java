@@ -0,0 +1,100 @@
+package org.example;
+
+import org.eclipse.swt.widgets.Display;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la latencia del bucle de eventos de SWT: cada cierto intervalo publica una sonda con
+ * {@code asyncExec} desde un hilo aparte y registra cuánto tarda el hilo de la interfaz en ejecutarla.
+ * Solo sondea entre {@link #iniciar()} y {@link #detener()}, para no despertar a una interfaz inactiva.
+ */
+public class MonitorLatencia implements AutoCloseable {
+    private static final long INTERVALO_MS = 50;
+
+    private final Display display;
+    private final ScheduledThreadPoolExecutor temporizador;
+
+    // Usados solo desde el hilo de la interfaz
+    private ScheduledFuture<?> sondeo;
+    private int activos;
+
+    // Estadísticas escritas solo desde el hilo de la interfaz
+    private volatile long muestras;
+    private volatile long totalNanos;
+    private volatile long maximoNanos;
+
+    private volatile boolean sondaPendiente;
+
+    public MonitorLatencia(Display display) {
+        this.display = display;
+        this.temporizador = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread hilo = new Thread(r, "monitor-latencia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        temporizador.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Empieza a sondear si no había otra operación en curso, reiniciando las estadísticas.
+     * Cada llamada debe ir seguida de un {@link #detener()}. Desde el hilo de la interfaz.
+     */
+    public void iniciar() {
+        if (activos++ > 0) return;
+        reiniciar();
+        sondeo = temporizador.scheduleAtFixedRate(this::enviarSonda, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de sondear cuando termina la última operación iniciada. Desde el hilo de la interfaz.
+     */
+    public void detener() {
+        if (activos == 0 || --activos > 0) return;
+        sondeo.cancel(false);
+        sondeo = null;
+    }
+
+    private void enviarSonda() {
+        // Una sola sonda en vuelo: si el bucle está bloqueado no se acumulan sondas
+        if (sondaPendiente || display.isDisposed()) return;
+        sondaPendiente = true;
+        long enviada = System.nanoTime();
+        try {
+            display.asyncExec(() -> {
+                long latencia = System.nanoTime() - enviada;
+                muestras++;
+                totalNanos += latencia;
+                if (latencia > maximoNanos) maximoNanos = latencia;
+                sondaPendiente = false;
+            });
+        } catch (RuntimeException e) {
+            sondaPendiente = false; // Display liberado entre la comprobación y la llamada
+        }
+    }
+
+    /**
+     * Reinicia las estadísticas. Debe llamarse desde el hilo de la interfaz.
+     */
+    public void reiniciar() {
+        muestras = 0;
+        totalNanos = 0;
+        maximoNanos = 0;
+    }
+
+    public double getLatenciaMediaMs() {
+        long n = muestras;
+        return n == 0 ? 0 : totalNanos / (double) n / 1_000_000;
+    }
+
+    public double getLatenciaMaximaMs() {
+        return maximoNanos / 1_000_000.0;
+    }
+
+    @Override
+    public void close() {
+        temporizador.shutdownNow();
+    }
+}
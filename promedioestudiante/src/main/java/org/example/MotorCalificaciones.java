@@ -0,0 +1,217 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Motor de calificación independiente de la interfaz gráfica.
+ * Aplica las mismas reglas que la pantalla principal (límites de nota y
+ * umbral de aprobación) y permite calificar cohortes completas en una sola
+ * llamada a partir de columnas de arreglos primitivos.
+ */
+public final class MotorCalificaciones {
+    public static final int MAX_NOTA = 100;            // Nota máxima permitida
+    public static final int MIN_NOTA = 0;              // Nota mínima permitida
+    public static final double NOTA_APROBACION = 70.0; // Umbral para aprobar
+    public static final int NUM_PARCIALES = 3;         // Parciales por estudiante
+    public static final int NOTA_APROBACION_CENTESIMAS = 7000; // Umbral para aprobar en punto fijo
+
+    private MotorCalificaciones() {
+    }
+
+    /**
+     * Indica si una nota está dentro del rango permitido.
+     * @param nota La nota a comprobar.
+     * @return true si la nota está entre MIN_NOTA y MAX_NOTA.
+     */
+    public static boolean notaValida(double nota) {
+        return nota >= MIN_NOTA && nota <= MAX_NOTA;
+    }
+
+    /**
+     * Indica si un promedio alcanza el umbral de aprobación.
+     * @param promedio El promedio a evaluar.
+     * @return true si el promedio es mayor o igual a NOTA_APROBACION.
+     */
+    public static boolean aprobado(double promedio) {
+        return promedio >= NOTA_APROBACION;
+    }
+
+    /**
+     * Calcula el promedio de las notas de un estudiante.
+     * @param notas Las notas de los parciales.
+     * @return El promedio simple de las notas.
+     * @throws IllegalArgumentException si no hay notas o alguna está fuera de rango.
+     */
+    public static double promedio(double... notas) {
+        if (notas.length == 0) {
+            throw new IllegalArgumentException("Debe indicar al menos una nota");
+        }
+        double suma = 0;
+        for (double nota : notas) {
+            if (!notaValida(nota)) {
+                throw new IllegalArgumentException("Las notas deben estar entre " + MIN_NOTA + " y " + MAX_NOTA);
+            }
+            suma += nota;
+        }
+        return suma / notas.length;
+    }
+
+    /**
+     * Califica una cohorte completa. Cada elemento de {@code parciales} es una columna
+     * con la nota de ese parcial para todos los estudiantes. El estado se decide con
+     * {@link #aprobadoPorSuma(long, int)}, no con el promedio en coma flotante.
+     * @param parciales Columnas de notas, todas de la misma longitud.
+     * @param promedios Arreglo de salida con el promedio de cada estudiante.
+     * @param aprobados Arreglo de salida con el estado de cada estudiante.
+     * @return El número de estudiantes aprobados.
+     * @throws IllegalArgumentException si las dimensiones no coinciden o alguna nota está fuera de rango.
+     */
+    public static int calificar(double[][] parciales, double[] promedios, boolean[] aprobados) {
+        int n = validarDimensiones(parciales.length, promedios, aprobados);
+        for (double[] columna : parciales) {
+            if (columna.length != n) {
+                throw new IllegalArgumentException("Todas las columnas de parciales deben tener " + n + " notas");
+            }
+        }
+
+        // Se acumula columna por columna: recorridos secuenciales y el mismo orden de suma que calcularPromedio
+        Arrays.fill(promedios, 0, n, 0.0);
+        for (int k = 0; k < parciales.length; k++) {
+            double[] columna = parciales[k];
+            for (int i = 0; i < n; i++) {
+                double nota = columna[i];
+                if (!notaValida(nota)) {
+                    throw notaFueraDeRango(k, i);
+                }
+                promedios[i] += nota;
+            }
+        }
+        return cerrarPromedios(parciales.length, n, promedios, aprobados);
+    }
+
+    /**
+     * Variante de {@link #calificar(double[][], double[], boolean[])} para notas enteras.
+     */
+    public static int calificar(int[][] parciales, double[] promedios, boolean[] aprobados) {
+        int n = validarDimensiones(parciales.length, promedios, aprobados);
+        for (int[] columna : parciales) {
+            if (columna.length != n) {
+                throw new IllegalArgumentException("Todas las columnas de parciales deben tener " + n + " notas");
+            }
+        }
+
+        Arrays.fill(promedios, 0, n, 0.0);
+        for (int k = 0; k < parciales.length; k++) {
+            int[] columna = parciales[k];
+            for (int i = 0; i < n; i++) {
+                int nota = columna[i];
+                if (nota < MIN_NOTA || nota > MAX_NOTA) {
+                    throw notaFueraDeRango(k, i);
+                }
+                promedios[i] += nota;
+            }
+        }
+        return cerrarPromedios(parciales.length, n, promedios, aprobados);
+    }
+
+    /**
+     * Indica si una nota en centésimas alcanza el umbral de aprobación.
+     */
+    public static boolean aprobadoCentesimas(int centesimas) {
+        return centesimas >= NOTA_APROBACION_CENTESIMAS;
+    }
+
+    /**
+     * Decide la aprobación a partir de la suma exacta de notas en centésimas, sin dividir:
+     * un promedio justo en 70.00 aprueba siempre, sin errores de redondeo.
+     * @param sumaCentesimas Suma de las notas en centésimas.
+     * @param cantidad Número de notas sumadas.
+     */
+    public static boolean aprobadoPorSuma(long sumaCentesimas, int cantidad) {
+        return sumaCentesimas >= (long) NOTA_APROBACION_CENTESIMAS * cantidad;
+    }
+
+    /**
+     * Promedio en centésimas a partir de una suma exacta, redondeando la mitad hacia arriba.
+     */
+    public static int promedioCentesimas(long sumaCentesimas, int cantidad) {
+        return (int) ((2 * sumaCentesimas + cantidad) / (2L * cantidad));
+    }
+
+    /**
+     * Califica una cohorte con notas en punto fijo (centésimas). El estado se decide con la
+     * suma exacta, por lo que coincide con {@link #aprobadoPorSuma(long, int)}.
+     * @param parciales Columnas de notas en centésimas, todas de la misma longitud.
+     * @param promedios Arreglo de salida con el promedio de cada estudiante en centésimas.
+     * @param aprobados Arreglo de salida con el estado de cada estudiante.
+     * @return El número de estudiantes aprobados.
+     * @throws IllegalArgumentException si las dimensiones no coinciden o alguna nota está fuera de rango.
+     */
+    public static int calificarCentesimas(int[][] parciales, int[] promedios, boolean[] aprobados) {
+        int columnas = parciales.length;
+        if (columnas == 0) {
+            throw new IllegalArgumentException("Debe indicar al menos una columna de parciales");
+        }
+        if (promedios.length != aprobados.length) {
+            throw new IllegalArgumentException("Los arreglos de salida deben tener la misma longitud");
+        }
+        int n = promedios.length;
+        for (int[] columna : parciales) {
+            if (columna.length != n) {
+                throw new IllegalArgumentException("Todas las columnas de parciales deben tener " + n + " notas");
+            }
+        }
+
+        // Con notas de hasta 10000 centésimas la suma cabe en un int para cualquier número razonable de parciales
+        Arrays.fill(promedios, 0, n, 0);
+        for (int k = 0; k < columnas; k++) {
+            int[] columna = parciales[k];
+            for (int i = 0; i < n; i++) {
+                int nota = columna[i];
+                if (nota < NotaFija.MIN || nota > NotaFija.MAX) {
+                    throw notaFueraDeRango(k, i);
+                }
+                promedios[i] += nota;
+            }
+        }
+
+        int umbral = NOTA_APROBACION_CENTESIMAS * columnas;
+        int totalAprobados = 0;
+        for (int i = 0; i < n; i++) {
+            int suma = promedios[i];
+            boolean aprobado = suma >= umbral;
+            aprobados[i] = aprobado;
+            if (aprobado) totalAprobados++;
+            promedios[i] = (2 * suma + columnas) / (2 * columnas);
+        }
+        return totalAprobados;
+    }
+
+    private static int validarDimensiones(int columnas, double[] promedios, boolean[] aprobados) {
+        if (columnas == 0) {
+            throw new IllegalArgumentException("Debe indicar al menos una columna de parciales");
+        }
+        if (promedios.length != aprobados.length) {
+            throw new IllegalArgumentException("Los arreglos de salida deben tener la misma longitud");
+        }
+        return promedios.length;
+    }
+
+    private static int cerrarPromedios(int columnas, int n, double[] promedios, boolean[] aprobados) {
+        int totalAprobados = 0;
+        for (int i = 0; i < n; i++) {
+            double suma = promedios[i];
+            promedios[i] = suma / columnas;
+            // Las notas tienen a lo sumo dos decimales: la suma redondeada a centésimas es exacta
+            boolean aprobado = aprobadoPorSuma(Math.round(suma * NotaFija.ESCALA), columnas);
+            aprobados[i] = aprobado;
+            if (aprobado) totalAprobados++;
+        }
+        return totalAprobados;
+    }
+
+    private static IllegalArgumentException notaFueraDeRango(int parcial, int estudiante) {
+        return new IllegalArgumentException("Nota fuera de rango en el parcial " + (parcial + 1)
+                + " del estudiante " + (estudiante + 1) + ": debe estar entre " + MIN_NOTA + " y " + MAX_NOTA);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aplica temas de colores y fuentes a los controles registrados.
+ * Los controles se registran una vez, al crearlos; cambiar de tema recorre esa lista plana
+ * (sin descender por el árbol de widgets) con el redibujado de cada ventana suspendido,
+ * de modo que el cambio completo se pinta en un solo cuadro.
+ */
+public class MotorTemas implements AutoCloseable {
+
+    /**
+     * Temas disponibles. Una fuente null conserva la fuente predeterminada de cada control.
+     */
+    public enum Tema {
+        DIA(new RGB(0, 0, 0), new RGB(255, 255, 255), null),
+        NOCHE(new RGB(255, 255, 255), new RGB(128, 128, 128), null);
+
+        private final RGB texto;
+        private final RGB fondo;
+        private final FontData fuente;
+
+        Tema(RGB texto, RGB fondo, FontData fuente) {
+            this.texto = texto;
+            this.fondo = fondo;
+            this.fuente = fuente;
+        }
+    }
+
+    private final PoolRecursos recursos;
+    private final List<Control> controles = new ArrayList<>();
+    private Tema tema;
+    private Color texto;
+    private Color fondo;
+    private Font fuente;
+
+    public MotorTemas(Display display) {
+        this.recursos = new PoolRecursos(display);
+    }
+
+    /**
+     * Registra un control; si ya hay un tema activo se le aplica de inmediato.
+     */
+    public void registrar(Control control) {
+        controles.add(control);
+        control.addListener(SWT.Dispose, e -> controles.remove(control));
+        if (tema != null) pintar(control, fuente != null);
+    }
+
+    /**
+     * Registra un control y todos sus descendientes, salvo las tablas (que conservan sus colores).
+     */
+    public void registrarArbol(Control raiz) {
+        if (raiz instanceof Table) return;
+        registrar(raiz);
+        if (raiz instanceof Composite) {
+            for (Control hijo : ((Composite) raiz).getChildren()) {
+                registrarArbol(hijo);
+            }
+        }
+    }
+
+    public Tema getTema() {
+        return tema;
+    }
+
+    /**
+     * Cambia el tema de todos los controles registrados en un solo lote.
+     */
+    public void aplicar(Tema nuevo) {
+        if (nuevo == tema) return;
+        Tema anterior = tema;
+        texto = recursos.color(nuevo.texto);
+        fondo = recursos.color(nuevo.fondo);
+        fuente = nuevo.fuente != null ? recursos.fuente(nuevo.fuente) : null;
+        tema = nuevo;
+        // Solo se tocan las fuentes si alguno de los dos temas las define: cambiarlas obliga a recalcular el diseño
+        boolean cambiarFuente = fuente != null || (anterior != null && anterior.fuente != null);
+
+        Set<Shell> ventanas = new LinkedHashSet<>();
+        for (Control control : controles) ventanas.add(control.getShell());
+        for (Shell ventana : ventanas) ventana.setRedraw(false);
+        try {
+            for (Control control : controles) pintar(control, cambiarFuente);
+        } finally {
+            for (Shell ventana : ventanas) ventana.setRedraw(true);
+        }
+
+        // Los recursos del tema anterior se sueltan cuando ya ningún control los usa
+        if (anterior != null) soltar(anterior);
+    }
+
+    private void pintar(Control control, boolean cambiarFuente) {
+        control.setForeground(texto);
+        control.setBackground(fondo);
+        if (cambiarFuente) control.setFont(fuente);
+    }
+
+    private void soltar(Tema anterior) {
+        recursos.soltarColor(anterior.texto);
+        recursos.soltarColor(anterior.fondo);
+        if (anterior.fuente != null) recursos.soltarFuente(anterior.fuente);
+    }
+
+    @Override
+    public void close() {
+        controles.clear();
+        if (tema != null) soltar(tema);
+        tema = null;
+        recursos.close();
+    }
+}
@@ -0,0 +1,163 @@
+package org.example;
+
+/**
+ * Representación de notas en punto fijo: centésimas de punto en un int (85.5 se guarda como 8550).
+ * El análisis y el formato trabajan sobre secuencias de caracteres y búferes reutilizables sin
+ * crear objetos, y las comparaciones con el umbral de aprobación son exactas.
+ */
+public final class NotaFija {
+    public static final int ESCALA = 100;                                   // Centésimas por punto
+    public static final int MIN = MotorCalificaciones.MIN_NOTA * ESCALA;
+    public static final int MAX = MotorCalificaciones.MAX_NOTA * ESCALA;
+    public static final int MAX_DECIMALES = 2;
+    public static final int MAX_CARACTERES = 6;                             // "100.00"
+
+    // Códigos de error devueltos por parsear (siempre negativos)
+    public static final int VACIA = -1;
+    public static final int FORMATO_INVALIDO = -2;
+    public static final int FUERA_DE_RANGO = -3;
+
+    private NotaFija() {
+    }
+
+    /**
+     * Analiza una nota con dígitos y como máximo un punto decimal y dos decimales.
+     * Se ignoran los espacios al principio y al final.
+     * @param texto El texto a analizar.
+     * @param inicio Primer carácter (inclusive).
+     * @param fin Último carácter (exclusive).
+     * @return La nota en centésimas, o VACIA, FORMATO_INVALIDO o FUERA_DE_RANGO.
+     */
+    public static int parsear(CharSequence texto, int inicio, int fin) {
+        while (inicio < fin && texto.charAt(inicio) <= ' ') inicio++;
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') fin--;
+        if (inicio == fin) return VACIA;
+
+        int valor = 0;
+        int decimales = -1; // -1 mientras no aparezca el punto
+        boolean hayDigitos = false;
+        boolean fueraDeRango = false;
+        for (int i = inicio; i < fin; i++) {
+            char c = texto.charAt(i);
+            if (c == '.') {
+                if (decimales >= 0) return FORMATO_INVALIDO;
+                decimales = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimales >= MAX_DECIMALES) return FORMATO_INVALIDO;
+                if (decimales >= 0) decimales++;
+                hayDigitos = true;
+                if (!fueraDeRango) {
+                    valor = valor * 10 + (c - '0');
+                    fueraDeRango = valor > MAX; // Evita desbordar con textos largos
+                }
+            } else {
+                return FORMATO_INVALIDO;
+            }
+        }
+        if (!hayDigitos) return FORMATO_INVALIDO;
+        if (fueraDeRango) return FUERA_DE_RANGO;
+
+        for (int d = Math.max(decimales, 0); d < MAX_DECIMALES; d++) {
+            valor *= 10;
+        }
+        return valor > MAX ? FUERA_DE_RANGO : valor;
+    }
+
+    /**
+     * @see #parsear(CharSequence, int, int)
+     */
+    public static int parsear(CharSequence texto) {
+        return parsear(texto, 0, texto.length());
+    }
+
+    /**
+     * Decide si una edición de un campo de nota deja un texto que todavía puede ser una nota válida:
+     * solo dígitos, un punto, dos decimales y un valor no mayor que MAX. No crea objetos.
+     * @param actual El contenido actual del campo.
+     * @param inicio Inicio del rango reemplazado.
+     * @param fin Fin del rango reemplazado.
+     * @param insertado El texto que se inserta.
+     * @return true si la edición debe permitirse.
+     */
+    public static boolean permiteEdicion(CharSequence actual, int inicio, int fin, CharSequence insertado) {
+        int longitud = actual.length() - (fin - inicio) + insertado.length();
+        int valor = 0;
+        int decimales = -1;
+        for (int i = 0; i < longitud; i++) {
+            char c;
+            if (i < inicio) {
+                c = actual.charAt(i);
+            } else if (i < inicio + insertado.length()) {
+                c = insertado.charAt(i - inicio);
+            } else {
+                c = actual.charAt(i - insertado.length() + (fin - inicio));
+            }
+
+            if (c == '.') {
+                if (decimales >= 0) return false;
+                decimales = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimales >= MAX_DECIMALES) return false;
+                if (decimales >= 0) decimales++;
+                valor = valor * 10 + (c - '0');
+                if (valor > MAX) return false;
+            } else {
+                return false;
+            }
+        }
+        // Escalar a centésimas para comparar con MAX
+        for (int d = Math.max(decimales, 0); d < MAX_DECIMALES; d++) {
+            valor *= 10;
+            if (valor > MAX) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Escribe una nota con el número de decimales indicado, redondeando la mitad hacia arriba.
+     * @param centesimas La nota en centésimas (no negativa).
+     * @param decimales Decimales a mostrar (0, 1 o 2).
+     * @param destino Búfer de destino, con al menos MAX_CARACTERES libres desde {@code desde}.
+     * @param desde Posición inicial en el búfer.
+     * @return El número de caracteres escritos.
+     */
+    public static int formatear(int centesimas, int decimales, char[] destino, int desde) {
+        if (centesimas < 0 || decimales < 0 || decimales > MAX_DECIMALES) {
+            throw new IllegalArgumentException("Nota o decimales fuera de rango: " + centesimas + ", " + decimales);
+        }
+        int divisor = decimales == 0 ? ESCALA : decimales == 1 ? 10 : 1;
+        int valor = (centesimas + divisor / 2) / divisor;  // En unidades del último decimal mostrado
+        int potencia = decimales == 0 ? 1 : decimales == 1 ? 10 : ESCALA;
+        int entero = valor / potencia;
+        int fraccion = valor % potencia;
+
+        int pos = desde;
+        if (entero >= 100) destino[pos++] = (char) ('0' + entero / 100);
+        if (entero >= 10) destino[pos++] = (char) ('0' + entero / 10 % 10);
+        destino[pos++] = (char) ('0' + entero % 10);
+        if (decimales > 0) {
+            destino[pos++] = '.';
+            if (decimales == 2) destino[pos++] = (char) ('0' + fraccion / 10);
+            destino[pos++] = (char) ('0' + fraccion % 10);
+        }
+        return pos - desde;
+    }
+
+    /**
+     * Da formato a una nota reutilizando el búfer indicado; solo se crea el String final.
+     */
+    public static String aTexto(int centesimas, int decimales, char[] bufer) {
+        return new String(bufer, 0, formatear(centesimas, decimales, bufer, 0));
+    }
+
+    /**
+     * Convierte una nota en coma flotante a centésimas, redondeando al valor más cercano.
+     */
+    public static int desdeDouble(double nota) {
+        return (int) Math.round(nota * ESCALA);
+    }
+
+    public static double aDouble(int centesimas) {
+        return centesimas / (double) ESCALA;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor en segundo plano para el trabajo de dominio (cálculos, importaciones, guardado),
+ * de modo que el bucle de eventos de SWT nunca quede bloqueado.
+ * Cada tarea admite cancelación cooperativa y notifica su avance.
+ */
+public class PlanificadorTareas implements AutoCloseable {
+
+    /**
+     * Trabajo a ejecutar fuera del hilo de la interfaz.
+     */
+    public interface Trabajo<T> {
+        T ejecutar(ControlTarea control) throws Exception;
+    }
+
+    /**
+     * Recibe el avance de una tarea, desde el hilo que la ejecuta.
+     */
+    public interface ObservadorProgreso {
+        void avance(double fraccion);
+    }
+
+    /**
+     * Vista que recibe el trabajo para consultar la cancelación e informar su avance.
+     */
+    public interface ControlTarea {
+        boolean isCancelada();
+
+        void progreso(long hecho, long total);
+    }
+
+    /**
+     * Tarea enviada al planificador.
+     */
+    public static final class Tarea<T> implements ControlTarea {
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+        private final ObservadorProgreso observador;
+        private volatile boolean cancelada;
+        private volatile double progreso;
+
+        private Tarea(ObservadorProgreso observador) {
+            this.observador = observador;
+        }
+
+        @Override
+        public boolean isCancelada() {
+            return cancelada;
+        }
+
+        @Override
+        public void progreso(long hecho, long total) {
+            progreso = total <= 0 ? 1.0 : Math.min(1.0, (double) hecho / total);
+            if (observador != null) observador.avance(progreso);
+        }
+
+        /**
+         * Solicita la cancelación; el trabajo debe consultarla con {@link #isCancelada()}.
+         */
+        public void cancelar() {
+            cancelada = true;
+        }
+
+        /**
+         * @return El avance entre 0 y 1.
+         */
+        public double getProgreso() {
+            return progreso;
+        }
+
+        /**
+         * @return Futuro con el resultado; termina con {@link CancellationException} si la tarea se canceló.
+         */
+        public CompletableFuture<T> getResultado() {
+            return resultado;
+        }
+    }
+
+    private final ExecutorService ejecutor;
+
+    /**
+     * Crea un planificador con un hilo por procesador disponible.
+     */
+    public PlanificadorTareas() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PlanificadorTareas(int hilos) {
+        AtomicInteger contador = new AtomicInteger();
+        ejecutor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "tarea-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Envía un trabajo al ejecutor en segundo plano.
+     * @param trabajo El trabajo a ejecutar.
+     * @param observador Receptor del avance, puede ser null.
+     * @return La tarea, para cancelarla o esperar su resultado.
+     */
+    public <T> Tarea<T> enviar(Trabajo<T> trabajo, ObservadorProgreso observador) {
+        Tarea<T> tarea = new Tarea<>(observador);
+        ejecutor.execute(() -> {
+            if (tarea.cancelada) {
+                tarea.resultado.completeExceptionally(new CancellationException("Tarea cancelada"));
+                return;
+            }
+            try {
+                T valor = trabajo.ejecutar(tarea);
+                if (tarea.cancelada) {
+                    tarea.resultado.completeExceptionally(new CancellationException("Tarea cancelada"));
+                } else {
+                    tarea.resultado.complete(valor);
+                }
+            } catch (Throwable e) {
+                tarea.resultado.completeExceptionally(e);
+            }
+        });
+        return tarea;
+    }
+
+    @Override
+    public void close() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,216 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Definición de una política de calificación: evaluaciones con su peso, cuántas de las notas más
+ * bajas se descartan y el umbral de aprobación general y por asignatura.
+ * Es solo la definición; para calificar se compila una vez con {@link #compilar()}.
+ * <p>
+ * Puede cargarse de un archivo de propiedades en UTF-8:
+ * <pre>
+ * nombre=Ciencias
+ * componentes=Parcial 1,Parcial 2,Parcial 3,Final
+ * pesos=20,20,20,40
+ * descartar=1
+ * umbral=70
+ * umbral.Matemáticas=75
+ * </pre>
+ * Los pesos son enteros relativos (por ejemplo porcentajes); sin {@code pesos} todas las
+ * evaluaciones pesan lo mismo. Los umbrales admiten hasta dos decimales.
+ */
+public final class PoliticaCalificacion {
+    public static final int MAX_COMPONENTES = 20;       // Evaluaciones por estudiante
+    public static final int MAX_PESO_TOTAL = 10_000;    // Las sumas ponderadas caben en un int
+
+    private final String nombre;
+    private final String[] componentes;
+    private final int[] pesos;
+    private final int descartar;
+    private final int umbralCentesimas;
+    private final Map<String, Integer> umbralesPorAsignatura;
+
+    /**
+     * @param nombre Nombre de la política.
+     * @param componentes Nombre de cada evaluación, en el orden en que se ingresan.
+     * @param pesos Peso entero positivo de cada evaluación.
+     * @param descartar Número de notas más bajas que no cuentan.
+     * @param umbralCentesimas Umbral de aprobación en centésimas.
+     * @param umbralesPorAsignatura Umbrales en centésimas que reemplazan al general en esas asignaturas.
+     * @throws IllegalArgumentException si la definición no es coherente.
+     */
+    public PoliticaCalificacion(String nombre, String[] componentes, int[] pesos, int descartar,
+                                int umbralCentesimas, Map<String, Integer> umbralesPorAsignatura) {
+        if (componentes.length == 0 || componentes.length > MAX_COMPONENTES) {
+            throw new IllegalArgumentException("La política debe tener entre 1 y " + MAX_COMPONENTES + " evaluaciones");
+        }
+        if (pesos.length != componentes.length) {
+            throw new IllegalArgumentException("Hay " + componentes.length + " evaluaciones y " + pesos.length + " pesos");
+        }
+        long total = 0;
+        for (int peso : pesos) {
+            if (peso <= 0) throw new IllegalArgumentException("Los pesos deben ser positivos");
+            total += peso;
+        }
+        if (total > MAX_PESO_TOTAL) {
+            throw new IllegalArgumentException("La suma de los pesos no puede superar " + MAX_PESO_TOTAL);
+        }
+        if (descartar < 0 || descartar >= componentes.length) {
+            throw new IllegalArgumentException("Se pueden descartar entre 0 y " + (componentes.length - 1) + " notas");
+        }
+        validarUmbral(umbralCentesimas);
+        for (int umbral : umbralesPorAsignatura.values()) validarUmbral(umbral);
+
+        this.nombre = nombre;
+        this.componentes = componentes.clone();
+        this.pesos = pesos.clone();
+        this.descartar = descartar;
+        this.umbralCentesimas = umbralCentesimas;
+        this.umbralesPorAsignatura = Collections.unmodifiableMap(new LinkedHashMap<>(umbralesPorAsignatura));
+    }
+
+    /**
+     * @return La política de siempre: tres parciales con el mismo peso y aprobación con 70.
+     */
+    public static PoliticaCalificacion predeterminada() {
+        String[] componentes = new String[MotorCalificaciones.NUM_PARCIALES];
+        int[] pesos = new int[componentes.length];
+        for (int i = 0; i < componentes.length; i++) {
+            componentes[i] = "Parcial " + (i + 1);
+            pesos[i] = 1;
+        }
+        return new PoliticaCalificacion("Predeterminada", componentes, pesos, 0,
+                MotorCalificaciones.NOTA_APROBACION_CENTESIMAS, Collections.emptyMap());
+    }
+
+    /**
+     * Carga una política de un archivo de propiedades en UTF-8.
+     * @throws IOException si el archivo no puede leerse.
+     * @throws IllegalArgumentException si la definición no es válida.
+     */
+    public static PoliticaCalificacion cargar(Path archivo) throws IOException {
+        Properties propiedades = new Properties();
+        try (Reader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        return desdePropiedades(propiedades);
+    }
+
+    /**
+     * Crea una política a partir de propiedades con el formato descrito en la clase.
+     * @throws IllegalArgumentException si la definición no es válida.
+     */
+    public static PoliticaCalificacion desdePropiedades(Properties propiedades) {
+        String nombre = propiedades.getProperty("nombre", "Personalizada").trim();
+        String listaComponentes = propiedades.getProperty("componentes");
+        if (listaComponentes == null || listaComponentes.trim().isEmpty()) {
+            throw new IllegalArgumentException("Falta la propiedad componentes");
+        }
+        String[] componentes = dividir(listaComponentes);
+
+        int[] pesos = new int[componentes.length];
+        String listaPesos = propiedades.getProperty("pesos");
+        if (listaPesos == null) {
+            Arrays.fill(pesos, 1);
+        } else {
+            String[] valores = dividir(listaPesos);
+            if (valores.length != componentes.length) {
+                throw new IllegalArgumentException("Hay " + componentes.length + " evaluaciones y " + valores.length + " pesos");
+            }
+            for (int i = 0; i < valores.length; i++) pesos[i] = entero(valores[i], "pesos");
+        }
+
+        int descartar = entero(propiedades.getProperty("descartar", "0").trim(), "descartar");
+        int umbral = centesimas(propiedades.getProperty("umbral", "70"), "umbral");
+        Map<String, Integer> umbrales = new LinkedHashMap<>();
+        for (String clave : propiedades.stringPropertyNames()) {
+            if (clave.startsWith("umbral.")) {
+                umbrales.put(clave.substring("umbral.".length()).trim(), centesimas(propiedades.getProperty(clave), clave));
+            }
+        }
+        return new PoliticaCalificacion(nombre, componentes, pesos, descartar, umbral, umbrales);
+    }
+
+    /**
+     * Compila la política en un evaluador de arreglos planos, listo para calificar lotes.
+     */
+    public EvaluadorCompilado compilar() {
+        List<String> asignaturas = new ArrayList<>(umbralesPorAsignatura.keySet());
+        int[] umbrales = new int[asignaturas.size()];
+        for (int i = 0; i < umbrales.length; i++) umbrales[i] = umbralesPorAsignatura.get(asignaturas.get(i));
+        return new EvaluadorCompilado(pesos.clone(), descartar, umbralCentesimas,
+                asignaturas.toArray(new String[0]), umbrales);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getNumComponentes() {
+        return componentes.length;
+    }
+
+    public String getComponente(int i) {
+        return componentes[i];
+    }
+
+    public int getPeso(int i) {
+        return pesos[i];
+    }
+
+    public int getDescartar() {
+        return descartar;
+    }
+
+    public int getUmbralCentesimas() {
+        return umbralCentesimas;
+    }
+
+    public Map<String, Integer> getUmbralesPorAsignatura() {
+        return umbralesPorAsignatura;
+    }
+
+    private static void validarUmbral(int umbral) {
+        if (umbral < NotaFija.MIN || umbral > NotaFija.MAX) {
+            throw new IllegalArgumentException("Los umbrales deben estar entre " + MotorCalificaciones.MIN_NOTA
+                    + " y " + MotorCalificaciones.MAX_NOTA);
+        }
+    }
+
+    private static String[] dividir(String lista) {
+        String[] partes = lista.split(",");
+        for (int i = 0; i < partes.length; i++) {
+            partes[i] = partes[i].trim();
+            if (partes[i].isEmpty()) throw new IllegalArgumentException("Hay un elemento vacío en: " + lista);
+        }
+        return partes;
+    }
+
+    private static int entero(String valor, String propiedad) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La propiedad " + propiedad + " debe ser un número entero: " + valor);
+        }
+    }
+
+    private static int centesimas(String valor, String propiedad) {
+        int centesimas = NotaFija.parsear(valor.trim());
+        if (centesimas < 0) {
+            throw new IllegalArgumentException("La propiedad " + propiedad + " debe ser una nota entre "
+                    + MotorCalificaciones.MIN_NOTA + " y " + MotorCalificaciones.MAX_NOTA + ": " + valor);
+        }
+        return centesimas;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Búferes directos reutilizables para escribir archivos. Un búfer directo se pasa al sistema operativo
+ * sin copia intermedia, pero reservarlo es caro y su memoria no se libera hasta que lo recoge el GC:
+ * por eso se reservan una vez y se devuelven al terminar cada escritura.
+ * Es seguro usarlo desde varios hilos.
+ */
+public final class PoolBuffers {
+    public static final int TAMANO_PREDETERMINADO = 256 * 1024;
+    private static final PoolBuffers COMPARTIDO = new PoolBuffers(TAMANO_PREDETERMINADO, 4);
+
+    private final int tamano;
+    private final BlockingQueue<ByteBuffer> libres;
+
+    /**
+     * @param tamano Capacidad de cada búfer en bytes.
+     * @param maximo Búferes libres que se conservan; los demás se dejan al GC al devolverlos.
+     */
+    public PoolBuffers(int tamano, int maximo) {
+        if (tamano < 64 || maximo < 1) {
+            throw new IllegalArgumentException("Tamaño o máximo de búferes inválido");
+        }
+        this.tamano = tamano;
+        this.libres = new ArrayBlockingQueue<>(maximo);
+    }
+
+    /**
+     * @return El pool que comparten las exportaciones de la aplicación.
+     */
+    public static PoolBuffers compartido() {
+        return COMPARTIDO;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * @return Un búfer vacío, reutilizado si hay alguno libre.
+     */
+    public ByteBuffer tomar() {
+        ByteBuffer buffer = libres.poll();
+        if (buffer == null) return ByteBuffer.allocateDirect(tamano);
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Devuelve un búfer obtenido con {@link #tomar()}; no debe usarse después.
+     */
+    public void devolver(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == tamano) libres.offer(buffer);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Colores y fuentes compartidos con conteo de referencias: cada recurso se crea una sola vez
+ * por valor y se libera cuando lo suelta su último usuario. Solo libera lo que creó, nunca
+ * los colores del sistema. Debe usarse desde el hilo de la interfaz.
+ */
+public class PoolRecursos implements AutoCloseable {
+    private final Display display;
+    private final Map<RGB, Entrada<Color>> colores = new HashMap<>();
+    private final Map<FontData, Entrada<Font>> fuentes = new HashMap<>();
+
+    private static final class Entrada<R> {
+        final R recurso;
+        int referencias;
+
+        Entrada(R recurso) {
+            this.recurso = recurso;
+        }
+    }
+
+    public PoolRecursos(Display display) {
+        this.display = display;
+    }
+
+    /**
+     * Obtiene el color y suma una referencia; cada llamada debe equilibrarse con {@link #soltarColor}.
+     */
+    public Color color(RGB rgb) {
+        Entrada<Color> entrada = colores.computeIfAbsent(rgb, v -> new Entrada<>(new Color(display, v)));
+        entrada.referencias++;
+        return entrada.recurso;
+    }
+
+    public void soltarColor(RGB rgb) {
+        Entrada<Color> entrada = colores.get(rgb);
+        if (entrada == null) return;
+        if (--entrada.referencias == 0) {
+            colores.remove(rgb);
+            entrada.recurso.dispose();
+        }
+    }
+
+    /**
+     * Obtiene la fuente y suma una referencia; cada llamada debe equilibrarse con {@link #soltarFuente}.
+     */
+    public Font fuente(FontData datos) {
+        Entrada<Font> entrada = fuentes.computeIfAbsent(datos, v -> new Entrada<>(new Font(display, v)));
+        entrada.referencias++;
+        return entrada.recurso;
+    }
+
+    public void soltarFuente(FontData datos) {
+        Entrada<Font> entrada = fuentes.get(datos);
+        if (entrada == null) return;
+        if (--entrada.referencias == 0) {
+            fuentes.remove(datos);
+            entrada.recurso.dispose();
+        }
+    }
+
+    /**
+     * Libera todos los recursos que sigan en uso.
+     */
+    @Override
+    public void close() {
+        for (Entrada<Color> entrada : colores.values()) entrada.recurso.dispose();
+        for (Entrada<Font> entrada : fuentes.values()) entrada.recurso.dispose();
+        colores.clear();
+        fuentes.clear();
+    }
+}
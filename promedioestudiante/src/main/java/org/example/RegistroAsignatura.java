@@ -0,0 +1,67 @@
+package org.example;
+
+/**
+ * Fila inmutable del historial académico: una asignatura cursada por un estudiante.
+ */
+public final class RegistroAsignatura {
+    public static final String APROBADO = "Aprobado";
+    public static final String REPROBADO = "Reprobado";
+
+    private final String estudiante;
+    private final String asignatura;
+    private final int notaCentesimas;
+    private final String semestre;
+    private final boolean aprobado;
+
+    /**
+     * Fila calificada con el umbral general predeterminado; para aplicar el umbral de la asignatura
+     * según la política activa se usa {@link EvaluadorCompilado#registro}.
+     * @param notaCentesimas La nota en centésimas de punto (ver {@link NotaFija}).
+     */
+    public RegistroAsignatura(String estudiante, String asignatura, int notaCentesimas, String semestre) {
+        this(estudiante, asignatura, notaCentesimas, semestre, MotorCalificaciones.aprobadoCentesimas(notaCentesimas));
+    }
+
+    /**
+     * @param notaCentesimas La nota en centésimas de punto (ver {@link NotaFija}).
+     * @param aprobado El estado, ya decidido con el umbral que corresponde a la asignatura.
+     */
+    public RegistroAsignatura(String estudiante, String asignatura, int notaCentesimas, String semestre, boolean aprobado) {
+        if (notaCentesimas < NotaFija.MIN || notaCentesimas > NotaFija.MAX) {
+            throw new IllegalArgumentException("Nota fuera de rango: " + notaCentesimas);
+        }
+        this.estudiante = estudiante;
+        this.asignatura = asignatura;
+        this.notaCentesimas = notaCentesimas;
+        this.semestre = semestre;
+        this.aprobado = aprobado;
+    }
+
+    public String getEstudiante() {
+        return estudiante;
+    }
+
+    public String getAsignatura() {
+        return asignatura;
+    }
+
+    public double getNota() {
+        return NotaFija.aDouble(notaCentesimas);
+    }
+
+    public int getNotaCentesimas() {
+        return notaCentesimas;
+    }
+
+    public String getSemestre() {
+        return semestre;
+    }
+
+    public boolean isAprobado() {
+        return aprobado;
+    }
+
+    public String getEstado() {
+        return isAprobado() ? APROBADO : REPROBADO;
+    }
+}
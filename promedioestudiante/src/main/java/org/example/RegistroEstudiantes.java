@@ -0,0 +1,102 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registro en memoria de estudiantes por identificador, para la interfaz, las importaciones y los
+ * cálculos en segundo plano a la vez. Los valores son {@link Estudiante} inmutables en un
+ * {@link ConcurrentHashMap}: las lecturas no toman bloqueos y cada escritura bloquea solo la
+ * entrada que cambia, de modo que escritores de estudiantes distintos no compiten entre sí.
+ * Los identificadores se asignan con un contador atómico la primera vez que aparece un nombre.
+ */
+public class RegistroEstudiantes {
+    // A partir de este tamaño los recorridos de agregación se reparten en el pool común
+    private static final long UMBRAL_PARALELO = 10_000;
+
+    private final AtomicLong ultimoId = new AtomicLong();
+    private final ConcurrentHashMap<Long, Estudiante> porId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idPorNombre = new ConcurrentHashMap<>();
+
+    /**
+     * Registra las notas y el resultado de un estudiante, creándolo si el nombre es nuevo
+     * (sin distinguir mayúsculas) o reemplazando su entrada si ya existía.
+     * @param notas Notas en centésimas; se copian.
+     * @return El estudiante tal como quedó registrado.
+     */
+    public Estudiante registrar(String nombre, int[] notas, int promedioCentesimas, boolean aprobado) {
+        long id = idPorNombre.computeIfAbsent(clave(nombre), c -> ultimoId.incrementAndGet());
+        int[] copia = notas.clone();
+        return porId.compute(id, (k, anterior) -> new Estudiante(id, nombre, copia, promedioCentesimas, aprobado,
+                anterior == null ? 1 : anterior.getVersion() + 1));
+    }
+
+    /**
+     * Reemplaza atómicamente un estudiante existente con el resultado de la función, que recibe el valor
+     * vigente. Se ejecuta con la entrada bloqueada: debe ser rápida y no usar el registro.
+     * @return El nuevo valor, o null si el identificador no existe.
+     */
+    public Estudiante actualizar(long id, UnaryOperator<Estudiante> cambio) {
+        return porId.computeIfPresent(id, (k, anterior) -> cambio.apply(anterior));
+    }
+
+    /**
+     * @return El estudiante con ese identificador, o null. No toma bloqueos.
+     */
+    public Estudiante obtener(long id) {
+        return porId.get(id);
+    }
+
+    /**
+     * @return El estudiante con ese nombre (sin distinguir mayúsculas), o null. No toma bloqueos.
+     */
+    public Estudiante buscar(String nombre) {
+        Long id = idPorNombre.get(clave(nombre));
+        return id == null ? null : porId.get(id);
+    }
+
+    public int tamano() {
+        return porId.size();
+    }
+
+    /**
+     * Recorre los estudiantes sin bloquear a los escritores. Cada estudiante se ve completo, pero
+     * los cambios hechos durante el recorrido pueden verse o no.
+     */
+    public void recorrer(Consumer<Estudiante> accion) {
+        porId.values().forEach(accion);
+    }
+
+    /**
+     * @return Una copia de los estudiantes registrados, con las mismas garantías que {@link #recorrer}.
+     */
+    public List<Estudiante> copiar() {
+        return new ArrayList<>(porId.values());
+    }
+
+    /**
+     * @return El número de estudiantes aprobados; con muchos estudiantes se cuenta en paralelo.
+     */
+    public long contarAprobados() {
+        return porId.reduceValuesToLong(UMBRAL_PARALELO, e -> e.isAprobado() ? 1 : 0, 0, Long::sum);
+    }
+
+    /**
+     * @return El promedio general en centésimas, o 0 si no hay estudiantes.
+     */
+    public int promedioGeneralCentesimas() {
+        long[] sumaYCantidad = porId.reduceValues(UMBRAL_PARALELO,
+                e -> new long[]{e.getPromedioCentesimas(), 1},
+                (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+        if (sumaYCantidad == null) return 0;
+        return MotorCalificaciones.promedioCentesimas(sumaYCantidad[0], (int) sumaYCantidad[1]);
+    }
+
+    private static String clave(String nombre) {
+        return Estudiante.clave(nombre.trim());
+    }
+}
@@ -0,0 +1,47 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filas seleccionadas por una consulta del {@link IndiceHistorial}, representadas como mapa de bits.
+ */
+public class ResultadoConsulta {
+    private final IndiceHistorial indice;
+    private final MapaBits filas;
+
+    ResultadoConsulta(IndiceHistorial indice, MapaBits filas) {
+        this.indice = indice;
+        this.filas = filas;
+    }
+
+    /**
+     * @return El número de filas seleccionadas.
+     */
+    public int cantidad() {
+        return filas.cardinalidad();
+    }
+
+    /**
+     * @return Los números de fila seleccionados, en orden creciente.
+     */
+    public int[] filas() {
+        return filas.aArreglo();
+    }
+
+    /**
+     * Materializa las filas seleccionadas en orden de inserción.
+     */
+    public List<RegistroAsignatura> registros() {
+        List<RegistroAsignatura> registros = new ArrayList<>(cantidad());
+        filas.recorrer(fila -> registros.add(indice.fila(fila)));
+        return registros;
+    }
+
+    /**
+     * Agrega las filas seleccionadas a un modelo de tabla.
+     */
+    public void volcarEn(ModeloHistorial modelo) {
+        filas.recorrer(fila -> modelo.agregar(indice.fila(fila)));
+    }
+}
@@ -0,0 +1,522 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Servicio HTTP/JSON local con las reglas de la pantalla principal, sobre el servidor HTTP del JDK.
+ * Escucha solo en la interfaz de bucle local y atiende cada petición en un hilo virtual cuando la JVM
+ * los ofrece (Java 21 o posterior); en otro caso, en un grupo de hilos de tamaño fijo.
+ * <ul>
+ * <li>{@code POST /api/promedio}: {@code {"nombre":"Ana","notas":[90,85.5,70]}} o un lote
+ * {@code {"estudiantes":[...]}}, calificado en una sola llamada al {@link EvaluadorCompilado}.</li>
+ * <li>{@code POST /api/asignaturas}: {@code {"estudiante":"Ana","asignatura":"Física","nota":85,"semestre":"2024-1"}}
+ * o un lote {@code {"asignaturas":[...]}}; responde cuando el diario confirma la escritura, y las
+ * escrituras de peticiones simultáneas comparten el mismo volcado a disco.</li>
+ * <li>{@code GET /api/historial?estudiante=&asignatura=&semestre=&aprobado=&notaMin=&notaMax=&limite=}:
+ * consulta sobre el {@link IndiceHistorial}. Con {@code fecha=2024-06-30} o {@code fecha=2024-06-30T18:00:00Z}
+ * se consulta el historial tal como estaba en ese momento, sobre una versión del {@link HistorialVersionado}.</li>
+ * </ul>
+ * Los datos se validan con {@link ValidadorNotas}, igual que en la interfaz.
+ */
+public class ServicioCalificaciones implements AutoCloseable {
+    public static final String OPCION_SERVICIO = "--servicio";
+    public static final int PUERTO_PREDETERMINADO = 8085;
+
+    private static final int MAX_CUERPO = 1 << 20;      // Bytes por petición
+    private static final int MAX_LOTE = 10_000;         // Elementos por lote
+    private static final int LIMITE_HISTORIAL = 1000;   // Filas devueltas si no se indica límite
+
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final EstadoAcademico estado;
+    private final DiarioCalificaciones diario;
+    private final EvaluadorCompilado evaluador;
+
+    private ServicioCalificaciones(HttpServer servidor, EstadoAcademico estado, DiarioCalificaciones diario,
+                                   EvaluadorCompilado evaluador) {
+        this.servidor = servidor;
+        this.estado = estado;
+        this.diario = diario;
+        this.evaluador = evaluador;
+        this.ejecutor = crearEjecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/api/promedio", manejador("POST", this::promedio));
+        servidor.createContext("/api/asignaturas", manejador("POST", this::asignaturas));
+        servidor.createContext("/api/historial", manejador("GET", this::historial));
+    }
+
+    /**
+     * Inicia el servicio sobre un diario: las asignaturas agregadas se persisten en él.
+     * @param puerto Puerto local, o 0 para elegir uno libre.
+     */
+    public static ServicioCalificaciones iniciar(int puerto, DiarioCalificaciones diario, EvaluadorCompilado evaluador)
+            throws IOException {
+        return iniciar(puerto, diario.getEstado(), diario, evaluador);
+    }
+
+    /**
+     * Inicia el servicio sobre un estado en memoria, sin persistencia.
+     * @param puerto Puerto local, o 0 para elegir uno libre.
+     */
+    public static ServicioCalificaciones iniciar(int puerto, EstadoAcademico estado, EvaluadorCompilado evaluador)
+            throws IOException {
+        return iniciar(puerto, estado, null, evaluador);
+    }
+
+    private static ServicioCalificaciones iniciar(int puerto, EstadoAcademico estado, DiarioCalificaciones diario,
+                                                  EvaluadorCompilado evaluador) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 1024);
+        ServicioCalificaciones servicio = new ServicioCalificaciones(servidor, estado, diario, evaluador);
+        servidor.start();
+        return servicio;
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Hilos virtuales si la JVM los ofrece; se buscan por reflexión para seguir compilando con Java 11.
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger contador = new AtomicInteger();
+            // Las peticiones esperan al diario, así que conviene más de un hilo por núcleo
+            return Executors.newFixedThreadPool(Math.max(8, 4 * Runtime.getRuntime().availableProcessors()), r -> {
+                Thread hilo = new Thread(r, "servicio-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+
+    // ---------------------------------------------------------------- Línea de comandos
+
+    /**
+     * @return true si los argumentos piden el servicio.
+     */
+    public static boolean solicitado(String[] args) {
+        for (String arg : args) {
+            if (arg.equals(OPCION_SERVICIO)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta el servicio hasta que se detiene el proceso.
+     * @param args {@code --servicio [--puerto n] [--datos directorio] [--politica archivo]}.
+     * @return El código de salida del proceso.
+     */
+    public static int ejecutar(String[] args) {
+        int puerto = PUERTO_PREDETERMINADO;
+        Path datos = Paths.get(System.getProperty("user.home"), ".gestor-estudiantes");
+        EvaluadorCompilado evaluador = PoliticaCalificacion.predeterminada().compilar();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals(OPCION_SERVICIO)) continue;
+                if (!arg.equals("--puerto") && !arg.equals("--datos") && !arg.equals("--politica")) {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Falta el valor de " + arg);
+                if (arg.equals("--puerto")) {
+                    puerto = Integer.parseInt(args[++i]);
+                } else if (arg.equals("--datos")) {
+                    datos = Paths.get(args[++i]);
+                } else {
+                    evaluador = PoliticaCalificacion.cargar(Paths.get(args[++i])).compilar();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: " + OPCION_SERVICIO + " [--puerto n] [--datos directorio] [--politica archivo]");
+            return ModoLote.SALIDA_ERROR;
+        }
+
+        try {
+            DiarioCalificaciones diario = DiarioCalificaciones.abrir(datos);
+            ServicioCalificaciones servicio = iniciar(puerto, diario, evaluador);
+            CountDownLatch detenido = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                servicio.close();
+                try {
+                    diario.close();
+                } catch (IOException e) {
+                    System.err.println("Error al cerrar el historial: " + e.getMessage());
+                }
+                detenido.countDown();
+            }));
+            System.out.println("Servicio de calificaciones en http://127.0.0.1:" + servicio.getPuerto() + "/api/");
+            detenido.await();
+            return ModoLote.SALIDA_OK;
+        } catch (IOException e) {
+            System.err.println("No se pudo iniciar el servicio: " + e.getMessage());
+            return ModoLote.SALIDA_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ModoLote.SALIDA_OK;
+        }
+    }
+
+    // ---------------------------------------------------------------- Peticiones
+
+    private interface Operacion {
+        /**
+         * @return El código HTTP; el cuerpo JSON se escribe en {@code respuesta}.
+         */
+        int atender(HttpExchange intercambio, StringBuilder respuesta) throws IOException;
+    }
+
+    private HttpHandler manejador(String metodo, Operacion operacion) {
+        return intercambio -> {
+            StringBuilder respuesta = new StringBuilder();
+            int codigo;
+            try {
+                if (!intercambio.getRequestMethod().equalsIgnoreCase(metodo)) {
+                    intercambio.getResponseHeaders().set("Allow", metodo);
+                    codigo = 405;
+                    error(respuesta, "Método no permitido, use " + metodo);
+                } else {
+                    codigo = operacion.atender(intercambio, respuesta);
+                }
+            } catch (IllegalArgumentException e) {
+                respuesta.setLength(0);
+                codigo = 400;
+                error(respuesta, e.getMessage());
+            } catch (Exception e) {
+                respuesta.setLength(0);
+                codigo = 500;
+                error(respuesta, "Error interno: " + e.getMessage());
+            }
+            byte[] cuerpo = respuesta.toString().getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            intercambio.sendResponseHeaders(codigo, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        };
+    }
+
+    private int promedio(HttpExchange intercambio, StringBuilder respuesta) throws IOException {
+        Map<String, Object> peticion = objeto(Json.leer(leerCuerpo(intercambio)), "la petición");
+        boolean lote = peticion.containsKey("estudiantes");
+        List<Object> elementos = lote ? lista(peticion.get("estudiantes"), "estudiantes") : Collections.singletonList(peticion);
+
+        // Se validan todos los elementos y los válidos se califican juntos, en columnas
+        int evaluaciones = evaluador.getNumComponentes();
+        int[][] columnas = new int[evaluaciones][elementos.size()];
+        int[] codigos = new int[elementos.size()];
+        String[] nombres = new String[elementos.size()];
+        String[] errores = new String[elementos.size()];
+        int[] posiciones = new int[elementos.size()];
+        int validos = 0;
+        for (int i = 0; i < elementos.size(); i++) {
+            try {
+                Map<String, Object> estudiante = objeto(elementos.get(i), "cada estudiante");
+                String nombre = ValidadorNotas.validarNombre(texto(estudiante, "nombre"));
+                List<Object> notas = lista(estudiante.get("notas"), "notas");
+                if (notas.size() != evaluaciones) {
+                    throw new IllegalArgumentException("Se esperaban " + evaluaciones + " notas y hay " + notas.size());
+                }
+                for (int k = 0; k < evaluaciones; k++) columnas[k][validos] = nota(notas.get(k));
+                Object asignatura = estudiante.get("asignatura");
+                codigos[validos] = asignatura instanceof String ? evaluador.codigoAsignatura((String) asignatura) : -1;
+                nombres[validos] = nombre;
+                posiciones[i] = validos++;
+            } catch (IllegalArgumentException e) {
+                if (!lote) throw e;
+                errores[i] = e.getMessage();
+            }
+        }
+
+        for (int k = 0; k < evaluaciones; k++) columnas[k] = Arrays.copyOf(columnas[k], validos);
+        int[] promedios = new int[validos];
+        boolean[] aprobados = new boolean[validos];
+        evaluador.evaluar(columnas, Arrays.copyOf(codigos, validos), promedios, aprobados);
+
+        char[] bufer = new char[NotaFija.MAX_CARACTERES];
+        if (!lote) {
+            resultado(respuesta, nombres[0], promedios[0], aprobados[0], bufer);
+            return 200;
+        }
+        respuesta.append("{\"resultados\":[");
+        for (int i = 0; i < elementos.size(); i++) {
+            if (i > 0) respuesta.append(',');
+            if (errores[i] != null) {
+                error(respuesta, errores[i]);
+            } else {
+                int p = posiciones[i];
+                resultado(respuesta, nombres[p], promedios[p], aprobados[p], bufer);
+            }
+        }
+        respuesta.append("]}");
+        return 200;
+    }
+
+    private static void resultado(StringBuilder respuesta, String nombre, int promedio, boolean aprobado, char[] bufer) {
+        Json.cadena(respuesta.append("{\"nombre\":"), nombre)
+                .append(",\"promedio\":").append(NotaFija.aTexto(promedio, 2, bufer))
+                .append(",\"estado\":\"").append(aprobado ? "APROBADO" : "REPROBADO").append("\"}");
+    }
+
+    private int asignaturas(HttpExchange intercambio, StringBuilder respuesta) throws IOException {
+        Map<String, Object> peticion = objeto(Json.leer(leerCuerpo(intercambio)), "la petición");
+        List<Object> elementos = peticion.containsKey("asignaturas")
+                ? lista(peticion.get("asignaturas"), "asignaturas")
+                : Collections.singletonList(peticion);
+
+        // Todo el lote se valida antes de registrar nada
+        List<RegistroAsignatura> registros = new ArrayList<>(elementos.size());
+        for (int i = 0; i < elementos.size(); i++) {
+            try {
+                Map<String, Object> elemento = objeto(elementos.get(i), "cada asignatura");
+                registros.add(evaluador.registro(
+                        ValidadorNotas.validarNombre(texto(elemento, "estudiante")),
+                        ValidadorNotas.validarAsignatura(texto(elemento, "asignatura")),
+                        nota(elemento.get("nota")),
+                        ValidadorNotas.validarSemestre(texto(elemento, "semestre"))));
+            } catch (IllegalArgumentException e) {
+                throw elementos.size() == 1 ? e : new IllegalArgumentException("Asignatura " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        if (diario == null) {
+            for (RegistroAsignatura registro : registros) estado.aplicar(registro);
+        } else {
+            CompletableFuture<?>[] escrituras = new CompletableFuture<?>[registros.size()];
+            for (int i = 0; i < escrituras.length; i++) escrituras[i] = diario.registrar(registros.get(i));
+            CompletableFuture.allOf(escrituras).join();
+        }
+        respuesta.append("{\"registradas\":").append(registros.size()).append('}');
+        return 201;
+    }
+
+    private int historial(HttpExchange intercambio, StringBuilder respuesta) {
+        Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+        FiltroHistorial filtro = new FiltroHistorial(parametros);
+        int limite = LIMITE_HISTORIAL;
+        if (parametros.containsKey("limite")) {
+            try {
+                limite = Integer.parseInt(parametros.get("limite"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("El límite debe ser un número entero");
+            }
+            if (limite < 0) throw new IllegalArgumentException("El límite no puede ser negativo");
+        }
+
+        char[] bufer = new char[NotaFija.MAX_CARACTERES];
+        if (parametros.containsKey("fecha")) {
+            List<RegistroAsignatura> registros = historialEnFecha(leerFecha(parametros.get("fecha")), filtro);
+            respuesta.append("{\"total\":").append(registros.size()).append(",\"asignaturas\":[");
+            for (int i = 0; i < Math.min(limite, registros.size()); i++) {
+                anexarRegistro(i > 0 ? respuesta.append(',') : respuesta, registros.get(i), bufer);
+            }
+            respuesta.append("]}");
+            return 200;
+        }
+
+        ResultadoConsulta resultado = filtro.consulta(estado.getIndice()).ejecutar();
+        int[] filas = resultado.filas();
+        IndiceHistorial indice = estado.getIndice();
+        respuesta.append("{\"total\":").append(resultado.cantidad()).append(",\"asignaturas\":[");
+        for (int i = 0; i < Math.min(limite, filas.length); i++) {
+            anexarRegistro(i > 0 ? respuesta.append(',') : respuesta, indice.fila(filas[i]), bufer);
+        }
+        respuesta.append("]}");
+        return 200;
+    }
+
+    /**
+     * Filtra la versión del historial vigente en la fecha pedida con las mismas condiciones que el índice.
+     */
+    private List<RegistroAsignatura> historialEnFecha(long fecha, FiltroHistorial filtro) {
+        HistorialVersionado.Version version = estado.getHistorial().enFecha(fecha);
+        List<RegistroAsignatura> filtrados = new ArrayList<>();
+        Consumer<RegistroAsignatura> agregar = registro -> {
+            if (filtro.acepta(registro)) filtrados.add(registro);
+        };
+        if (filtro.estudiante != null) {
+            version.recorrer(filtro.estudiante, agregar);
+        } else {
+            version.recorrer(agregar);
+        }
+        return filtrados;
+    }
+
+    /**
+     * Condiciones de {@code /api/historial}, leídas y validadas una sola vez. Se aplican igual al
+     * índice vigente ({@link #consulta}) y a una versión pasada ({@link #acepta}).
+     */
+    private static final class FiltroHistorial {
+        final String estudiante;
+        final String asignatura;
+        final String semestre;
+        final Boolean aprobado;
+        final int notaMin;
+        final int notaMax;
+
+        FiltroHistorial(Map<String, String> parametros) {
+            estudiante = parametros.get("estudiante");
+            asignatura = parametros.get("asignatura");
+            semestre = parametros.get("semestre");
+            aprobado = parametros.containsKey("aprobado") ? Boolean.parseBoolean(parametros.get("aprobado")) : null;
+            notaMin = parametros.containsKey("notaMin") ? ValidadorNotas.parsearCentesimas(parametros.get("notaMin")) : NotaFija.MIN;
+            notaMax = parametros.containsKey("notaMax") ? ValidadorNotas.parsearCentesimas(parametros.get("notaMax")) : NotaFija.MAX;
+        }
+
+        IndiceHistorial.Consulta consulta(IndiceHistorial indice) {
+            IndiceHistorial.Consulta consulta = indice.consulta();
+            if (estudiante != null) consulta.estudiante(estudiante);
+            if (asignatura != null) consulta.asignatura(asignatura);
+            if (semestre != null) consulta.semestre(semestre);
+            if (aprobado != null) consulta.aprobado(aprobado);
+            if (notaMin != NotaFija.MIN || notaMax != NotaFija.MAX) consulta.notaEntre(notaMin, notaMax);
+            return consulta;
+        }
+
+        /**
+         * El estudiante no se comprueba: la versión ya se recorre solo en su tramo.
+         */
+        boolean acepta(RegistroAsignatura registro) {
+            return (asignatura == null || asignatura.equals(registro.getAsignatura()))
+                    && (semestre == null || semestre.equals(registro.getSemestre()))
+                    && (aprobado == null || aprobado == registro.isAprobado())
+                    && registro.getNotaCentesimas() >= notaMin && registro.getNotaCentesimas() <= notaMax;
+        }
+    }
+
+    /**
+     * Acepta un instante ISO-8601, una fecha y hora local o solo una fecha (hasta el final de ese día).
+     */
+    private static long leerFecha(String texto) {
+        try {
+            if (texto.endsWith("Z") || texto.lastIndexOf('+') > 0) return Instant.parse(texto).toEpochMilli();
+            if (texto.indexOf('T') > 0) {
+                return LocalDateTime.parse(texto).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            return LocalDate.parse(texto).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() - 1;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida: " + texto);
+        }
+    }
+
+    private static void anexarRegistro(StringBuilder respuesta, RegistroAsignatura registro, char[] bufer) {
+        Json.cadena(respuesta.append("{\"estudiante\":"), registro.getEstudiante());
+        Json.cadena(respuesta.append(",\"asignatura\":"), registro.getAsignatura());
+        respuesta.append(",\"nota\":").append(NotaFija.aTexto(registro.getNotaCentesimas(), 2, bufer));
+        Json.cadena(respuesta.append(",\"semestre\":"), registro.getSemestre());
+        Json.cadena(respuesta.append(",\"estado\":"), registro.getEstado()).append('}');
+    }
+
+    // ---------------------------------------------------------------- Utilidades
+
+    private static String leerCuerpo(HttpExchange intercambio) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+            byte[] bufer = new byte[8192];
+            int n;
+            while ((n = entrada.read(bufer)) != -1) {
+                if (cuerpo.size() + n > MAX_CUERPO) {
+                    throw new IllegalArgumentException("La petición supera " + MAX_CUERPO + " bytes");
+                }
+                cuerpo.write(bufer, 0, n);
+            }
+            return cuerpo.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objeto(Object valor, String descripcion) {
+        if (!(valor instanceof Map)) throw new IllegalArgumentException("Se esperaba un objeto JSON en " + descripcion);
+        return (Map<String, Object>) valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> lista(Object valor, String campo) {
+        if (!(valor instanceof List)) throw new IllegalArgumentException("El campo " + campo + " debe ser un arreglo");
+        List<Object> lista = (List<Object>) valor;
+        if (lista.size() > MAX_LOTE) throw new IllegalArgumentException("El campo " + campo + " admite hasta " + MAX_LOTE + " elementos");
+        return lista;
+    }
+
+    private static String texto(Map<String, Object> objeto, String campo) {
+        Object valor = objeto.get(campo);
+        if (!(valor instanceof String)) throw new IllegalArgumentException("El campo " + campo + " es obligatorio y debe ser texto");
+        return (String) valor;
+    }
+
+    /**
+     * Convierte una nota JSON (número o texto) a centésimas con las reglas de {@link ValidadorNotas}.
+     */
+    private static int nota(Object valor) {
+        if (valor instanceof BigDecimal) {
+            BigDecimal numero = (BigDecimal) valor;
+            // Se descartan exponentes extremos antes de pasar a texto
+            if (numero.signum() < 0 || numero.compareTo(BigDecimal.valueOf(MotorCalificaciones.MAX_NOTA)) > 0) {
+                throw new IllegalArgumentException("La nota debe estar entre " + MotorCalificaciones.MIN_NOTA
+                        + " y " + MotorCalificaciones.MAX_NOTA);
+            }
+            if (numero.stripTrailingZeros().scale() > NotaFija.MAX_DECIMALES) {
+                throw new IllegalArgumentException("Ingrese valores numéricos válidos");
+            }
+            return ValidadorNotas.parsearCentesimas(numero.toPlainString());
+        }
+        if (valor instanceof String) return ValidadorNotas.parsearCentesimas((String) valor);
+        throw new IllegalArgumentException("Debe ingresar la nota");
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) return parametros;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static void error(StringBuilder respuesta, String mensaje) {
+        Json.cadena(respuesta.append("{\"error\":"), mensaje == null ? "Petición inválida" : mensaje).append('}');
+    }
+}
@@ -0,0 +1,87 @@
+package org.example;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+/**
+ * Enlaza una tabla SWT creada con SWT.VIRTUAL a un {@link ModeloHistorial}.
+ * Los elementos solo se materializan y formatean cuando entran en pantalla
+ * (evento SWT.SetData); ordenar o filtrar solo invalida los elementos existentes.
+ */
+public class TablaHistorialVirtual {
+    private static final ModeloHistorial.Columna[] COLUMNAS = ModeloHistorial.Columna.values();
+
+    private final Table tabla;
+    private final ModeloHistorial modelo;
+    private final String[] celdas = new String[COLUMNAS.length];
+    private final char[] buferNota = new char[NotaFija.MAX_CARACTERES];
+
+    private ModeloHistorial.Columna columnaOrden;
+    private boolean ascendente = true;
+
+    /**
+     * @param tabla Tabla creada con el estilo SWT.VIRTUAL.
+     * @param modelo Modelo con las filas a mostrar.
+     */
+    public TablaHistorialVirtual(Table tabla, ModeloHistorial modelo) {
+        if ((tabla.getStyle() & SWT.VIRTUAL) == 0) {
+            throw new IllegalArgumentException("La tabla debe crearse con el estilo SWT.VIRTUAL");
+        }
+        this.tabla = tabla;
+        this.modelo = modelo;
+        crearColumnas();
+        tabla.addListener(SWT.SetData, this::poblarElemento);
+        refrescar();
+    }
+
+    /**
+     * Sincroniza la tabla después de agregar una fila al modelo.
+     * @param posicion Posición devuelta por {@link ModeloHistorial#agregar}.
+     */
+    public void filaAgregada(int posicion) {
+        if (posicion < 0) return;
+        if (posicion == tabla.getItemCount()) {
+            tabla.setItemCount(modelo.tamano());
+        } else {
+            refrescar();
+        }
+    }
+
+    /**
+     * Ajusta el número de elementos al modelo e invalida los ya materializados.
+     */
+    public void refrescar() {
+        tabla.setItemCount(modelo.tamano());
+        tabla.clearAll();
+    }
+
+    private void crearColumnas() {
+        for (ModeloHistorial.Columna columna : COLUMNAS) {
+            TableColumn tableColumn = new TableColumn(tabla, SWT.NONE);
+            tableColumn.setText(columna.getTitulo());
+            tableColumn.setWidth(100);
+            tableColumn.addListener(SWT.Selection, e -> ordenarPor(tableColumn, columna));
+        }
+    }
+
+    private void ordenarPor(TableColumn tableColumn, ModeloHistorial.Columna columna) {
+        ascendente = columna != columnaOrden || !ascendente;
+        columnaOrden = columna;
+        modelo.ordenarPor(columna, ascendente);
+        tabla.setSortColumn(tableColumn);
+        tabla.setSortDirection(ascendente ? SWT.UP : SWT.DOWN);
+        refrescar();
+    }
+
+    private void poblarElemento(Event event) {
+        TableItem item = (TableItem) event.item;
+        RegistroAsignatura registro = modelo.fila(event.index);
+        for (ModeloHistorial.Columna columna : COLUMNAS) {
+            celdas[columna.ordinal()] = ModeloHistorial.textoCelda(registro, columna, buferNota);
+        }
+        item.setText(celdas);
+    }
+}
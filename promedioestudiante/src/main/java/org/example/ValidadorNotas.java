@@ -0,0 +1,92 @@
+package org.example;
+
+/**
+ * Reglas de validación de entradas compartidas por la interfaz y la importación masiva.
+ * Los mensajes de error son los mismos que se muestran al usuario.
+ */
+public final class ValidadorNotas {
+    public static final int MAX_NOMBRE_LENGTH = 50; // Límite máximo de caracteres para el nombre
+
+    private ValidadorNotas() {
+    }
+
+    /**
+     * Decide si una edición de un campo numérico con decimales deja un texto que todavía
+     * puede ser una nota válida. Se evalúa sin expresiones regulares ni objetos temporales.
+     * @param actual El contenido actual del campo.
+     * @param inicio Inicio del rango reemplazado.
+     * @param fin Fin del rango reemplazado.
+     * @param insertado El texto que se intenta insertar.
+     * @return true si la edición es válida.
+     */
+    public static boolean permiteInsercion(CharSequence actual, int inicio, int fin, CharSequence insertado) {
+        return NotaFija.permiteEdicion(actual, inicio, fin, insertado);
+    }
+
+    /**
+     * Convierte el texto de una nota a centésimas y comprueba que esté entre MIN_NOTA y MAX_NOTA.
+     * Solo se aceptan dígitos, un punto decimal y hasta dos decimales, igual que en los campos de la interfaz.
+     * @param texto El texto de la nota.
+     * @return La nota en centésimas.
+     * @throws IllegalArgumentException con el mensaje a mostrar si la nota no es válida.
+     */
+    public static int parsearCentesimas(CharSequence texto) {
+        int centesimas = NotaFija.parsear(texto);
+        switch (centesimas) {
+            case NotaFija.VACIA:
+                throw new IllegalArgumentException("Debe ingresar la nota");
+            case NotaFija.FORMATO_INVALIDO:
+                throw new IllegalArgumentException("Ingrese valores numéricos válidos");
+            case NotaFija.FUERA_DE_RANGO:
+                throw new IllegalArgumentException("La nota debe estar entre "
+                        + MotorCalificaciones.MIN_NOTA + " y " + MotorCalificaciones.MAX_NOTA);
+            default:
+                return centesimas;
+        }
+    }
+
+    /**
+     * Valida el nombre de un estudiante.
+     * @throws IllegalArgumentException si está vacío o excede MAX_NOMBRE_LENGTH.
+     */
+    public static String validarNombre(String nombre) {
+        String limpio = nombre.trim();
+        if (limpio.isEmpty()) {
+            throw new IllegalArgumentException("El nombre del estudiante es obligatorio");
+        }
+        if (limpio.length() > MAX_NOMBRE_LENGTH) {
+            throw new IllegalArgumentException("El nombre no puede superar " + MAX_NOMBRE_LENGTH + " caracteres");
+        }
+        return limpio;
+    }
+
+    /**
+     * Valida el nombre de una asignatura.
+     * @throws IllegalArgumentException si está vacío.
+     */
+    public static String validarAsignatura(String asignatura) {
+        String limpia = asignatura.trim();
+        if (limpia.isEmpty()) {
+            throw new IllegalArgumentException("Debe ingresar el nombre de la asignatura");
+        }
+        return limpia;
+    }
+
+    /**
+     * Valida un semestre con el formato de la lista de la pantalla de detalles ("2024-1").
+     * @throws IllegalArgumentException si no tiene el formato AAAA-1 o AAAA-2.
+     */
+    public static String validarSemestre(String semestre) {
+        String limpio = semestre.trim();
+        boolean valido = limpio.length() == 6 && limpio.charAt(4) == '-'
+                && (limpio.charAt(5) == '1' || limpio.charAt(5) == '2');
+        for (int i = 0; valido && i < 4; i++) {
+            char c = limpio.charAt(i);
+            valido = c >= '0' && c <= '9';
+        }
+        if (!valido) {
+            throw new IllegalArgumentException("Semestre inválido: " + semestre);
+        }
+        return limpio;
+    }
+}
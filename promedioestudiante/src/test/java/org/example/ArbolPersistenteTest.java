@@ -0,0 +1,86 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArbolPersistenteTest {
+
+    @Test
+    void conYSinCoincidenConTreeMap() {
+        Random random = new Random(21);
+        ArbolPersistente<Integer, String> arbol = ArbolPersistente.vacio();
+        TreeMap<Integer, String> esperado = new TreeMap<>();
+        for (int k = 0; k < 50_000; k++) {
+            // Pocas claves distintas para que haya reemplazos y bajas de claves presentes
+            int clave = random.nextInt(2000);
+            if (random.nextInt(3) > 0) {
+                String valor = "v" + k;
+                arbol = arbol.con(clave, valor);
+                esperado.put(clave, valor);
+            } else {
+                arbol = arbol.sin(clave);
+                esperado.remove(clave);
+            }
+            if (k % 1000 == 0) assertTrue(arbol.invariantesValidos(), "operación " + k);
+            assertEquals(esperado.size(), arbol.tamano());
+        }
+        assertTrue(arbol.invariantesValidos());
+        assertEquals(new ArrayList<>(esperado.values()), arbol.valores());
+        for (int clave = -1; clave <= 2000; clave++) assertEquals(esperado.get(clave), arbol.obtener(clave));
+
+        List<String> rango = new ArrayList<>();
+        arbol.recorrer(500, 1500, (clave, valor) -> rango.add(valor));
+        assertEquals(new ArrayList<>(esperado.subMap(500, true, 1500, true).values()), rango);
+        assertEquals(new ArrayList<>(esperado.headMap(100, true).values()), arbol.valores(null, 100));
+    }
+
+    @Test
+    void insercionesOrdenadasQuedanEquilibradas() {
+        ArbolPersistente<Integer, Integer> arbol = ArbolPersistente.vacio();
+        for (int i = 0; i < 1 << 16; i++) arbol = arbol.con(i, i);
+        assertTrue(arbol.invariantesValidos());
+        for (int i = 0; i < 1 << 16; i += 2) arbol = arbol.sin(i);
+        assertTrue(arbol.invariantesValidos());
+        assertEquals(1 << 15, arbol.tamano());
+    }
+
+    @Test
+    void desdeOrdenadasConstruyeUnArbolEquilibrado() {
+        for (int n = 0; n <= 300; n++) {
+            Integer[] claves = new Integer[n];
+            String[] valores = new String[n];
+            for (int i = 0; i < n; i++) {
+                claves[i] = i * 3;
+                valores[i] = "v" + i;
+            }
+            ArbolPersistente<Integer, String> arbol = ArbolPersistente.desdeOrdenadas(claves, valores);
+            assertTrue(arbol.invariantesValidos(), "n = " + n);
+            assertEquals(Arrays.asList(valores), arbol.valores());
+            // Sigue admitiendo cambios como cualquier otro árbol
+            assertTrue(arbol.con(1, "x").sin(0).invariantesValidos());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ArbolPersistente.desdeOrdenadas(new Integer[]{1, 1}, new String[]{"a", "b"}));
+    }
+
+    @Test
+    void lasVersionesAnterioresNoCambian() {
+        ArbolPersistente<Integer, String> v1 = ArbolPersistente.<Integer, String>vacio().con(1, "a").con(2, "b");
+        ArbolPersistente<Integer, String> v2 = v1.con(3, "c").sin(1).con(2, "B");
+        assertEquals(List.of("a", "b"), v1.valores());
+        assertEquals(List.of("B", "c"), v2.valores());
+        assertNull(v2.obtener(1));
+        assertSame(v2, v2.sin(42));
+    }
+}
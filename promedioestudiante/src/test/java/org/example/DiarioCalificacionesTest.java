@@ -0,0 +1,255 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiarioCalificacionesTest {
+    private static final String DIARIO = "diario.log";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reabrirReproduceElDiario() throws IOException {
+        List<RegistroAsignatura> registros = registrar(0, 1000);
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            diario.registrar(new Evaluacion("Estudiante 3", "Excelente", "Muy bien", 1234L)).join();
+        }
+
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            EstadoAcademico estado = diario.getEstado();
+            assertEquals(registros.size(), estado.totalAsignaturas());
+            for (RegistroAsignatura registro : registros) assertTrue(estado.contiene(registro));
+            Evaluacion evaluacion = estado.evaluacionDe("ESTUDIANTE 3");
+            assertNotNull(evaluacion);
+            assertEquals("Muy bien", evaluacion.getComentarios());
+        }
+    }
+
+    @Test
+    void descartaUnaEntradaIncompletaAlFinal() throws IOException {
+        List<RegistroAsignatura> registros = registrar(0, 50);
+        Path diario = directorio.resolve(DIARIO);
+        long completo = Files.size(diario);
+        // Corte durante la escritura de la última entrada
+        try (FileChannel canal = FileChannel.open(diario, StandardOpenOption.WRITE)) {
+            canal.truncate(completo - 3);
+        }
+
+        try (DiarioCalificaciones abierto = DiarioCalificaciones.abrir(directorio)) {
+            EstadoAcademico estado = abierto.getEstado();
+            assertEquals(49, estado.totalAsignaturas());
+            assertFalse(estado.contiene(registros.get(49)));
+            assertTrue(Files.size(diario) < completo - 3, "la cola incompleta se trunca");
+            // Lo que se registra después queda a continuación de la última entrada válida
+            abierto.registrar(registros.get(49)).join();
+        }
+        try (DiarioCalificaciones abierto = DiarioCalificaciones.abrir(directorio)) {
+            assertEquals(50, abierto.getEstado().totalAsignaturas());
+        }
+    }
+
+    @Test
+    void descartaDesdeUnaEntradaCorrupta() throws IOException {
+        registrar(0, 20);
+        Path diario = directorio.resolve(DIARIO);
+        long tamano = Files.size(diario);
+        // Se altera un byte de la última entrada: su CRC32 deja de coincidir
+        try (FileChannel canal = FileChannel.open(diario, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer octeto = ByteBuffer.allocate(1);
+            canal.read(octeto, tamano - 2);
+            octeto.put(0, (byte) (octeto.get(0) ^ 0x5A)).rewind();
+            canal.write(octeto, tamano - 2);
+        }
+
+        try (DiarioCalificaciones abierto = DiarioCalificaciones.abrir(directorio)) {
+            assertEquals(19, abierto.getEstado().totalAsignaturas());
+        }
+    }
+
+    @Test
+    void instantaneaMasColaDelDiario() throws IOException {
+        List<RegistroAsignatura> antes = new ArrayList<>();
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            antes.addAll(registrarEn(diario, 0, 300));
+            diario.compactar().join();
+            assertEquals(0, Files.size(directorio.resolve(DIARIO)));
+            registrarEn(diario, 300, 100);
+            diario.eliminar(antes.get(0)).join();
+        }
+        // Restos de una instantánea interrumpida: no deben usarse
+        Files.write(directorio.resolve("instantanea.tmp"), new byte[]{1, 2, 3});
+        Files.write(directorio.resolve("asignaturas-999.col"), new byte[]{4, 5, 6});
+
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            EstadoAcademico estado = diario.getEstado();
+            assertEquals(399, estado.totalAsignaturas());
+            assertFalse(estado.contiene(antes.get(0)));
+            assertTrue(estado.contiene(antes.get(299)));
+
+            // Una segunda instantánea reemplaza a la primera y limpia los archivos columnares viejos
+            diario.compactar().join();
+        }
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            assertEquals(399, diario.getEstado().totalAsignaturas());
+            assertEquals(401, diario.getEstado().getUltimaSecuencia()); // 400 altas y una baja
+        }
+        assertFalse(Files.exists(directorio.resolve("asignaturas-999.col")));
+    }
+
+    @Test
+    void elHistorialConservaSusFechasAlReabrir() throws Exception {
+        long corte;
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            List<RegistroAsignatura> primeras = registrarEn(diario, 0, 40);
+            corte = diario.getEstado().getHistorial().actual().getFecha();
+            Thread.sleep(5);
+            registrarEn(diario, 40, 10);
+            Thread.sleep(5);
+            diario.eliminar(primeras.get(0)).join();
+        }
+
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            HistorialVersionado historial = diario.getEstado().getHistorial();
+            assertEquals(40, historial.enFecha(corte).tamano());
+            assertEquals(49, historial.actual().tamano());
+            assertTrue(historial.enFecha(corte - 60_000).todas().isEmpty());
+            diario.compactar().join();
+        }
+        // La instantánea guarda la fecha de alta de las filas vigentes; la baja ya está compactada
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            HistorialVersionado historial = diario.getEstado().getHistorial();
+            assertEquals(39, historial.enFecha(corte).tamano());
+            assertEquals(49, historial.actual().tamano());
+        }
+    }
+
+    @Test
+    void cargarLaInstantaneaEquivaleAReproducirElDiario() throws Exception {
+        long[] cortes = new long[4];
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            for (int tanda = 0; tanda < cortes.length; tanda++) {
+                registrarEn(diario, tanda * 500, 500);
+                cortes[tanda] = diario.getEstado().getHistorial().actual().getFecha();
+                Thread.sleep(3);
+            }
+        }
+        String reproducido;
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            reproducido = resumir(diario.getEstado(), cortes);
+            diario.compactar().join();
+        }
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            EstadoAcademico estado = diario.getEstado();
+            assertEquals(reproducido, resumir(estado, cortes));
+            // Después de la carga se sigue registrando con normalidad
+            registrarEn(diario, 2000, 1);
+            assertEquals(2001, estado.totalAsignaturas());
+            assertEquals(2001, estado.getHistorial().actual().tamano());
+        }
+    }
+
+    /**
+     * Describe lo que se observa del estado: índice, agregados, nombres y el historial en cada fecha.
+     */
+    private static String resumir(EstadoAcademico estado, long[] cortes) {
+        StringBuilder resumen = new StringBuilder();
+        IndiceHistorial indice = estado.getIndice();
+        resumen.append(indice.tamano()).append(indice.tasaAprobacionPor(IndiceHistorial.Dimension.ASIGNATURA))
+                .append(indice.consulta().semestre("2024-1").aprobado(true).notaEntre(5000, 9000).ejecutar().cantidad())
+                .append(estado.getNombresEstudiantes().tamano()).append(estado.getNombresAsignaturas().tamano());
+        for (int n = 0; n < 37; n++) {
+            String estudiante = "ESTUDIANTE " + n;
+            AgregadosAcademicos.Resumen agregado = estado.getAgregados().deEstudiante(estudiante);
+            resumen.append('|').append(agregado.getCantidad()).append(',').append(agregado.getSumaCentesimas())
+                    .append(',').append(agregado.getAprobadas()).append(',').append(agregado.getMinimoCentesimas())
+                    .append(',').append(agregado.getMaximoCentesimas());
+            for (RegistroAsignatura registro : estado.asignaturasDe(estudiante)) {
+                resumen.append(',').append(registro.getAsignatura()).append(registro.getEstado().charAt(0));
+            }
+            for (long corte : cortes) {
+                resumen.append(',').append(estado.getHistorial().enFecha(corte).de(estudiante).size());
+            }
+        }
+        for (long corte : cortes) resumen.append('|').append(estado.getHistorial().enFecha(corte).tamano());
+        return resumen.toString();
+    }
+
+    @Test
+    void umbralDeAsignaturaSeConservaAlReabrir() throws IOException {
+        PoliticaCalificacion politica = new PoliticaCalificacion("Prueba", new String[]{"Final"}, new int[]{1}, 0,
+                7000, Collections.singletonMap("Matemáticas", 7500));
+        EvaluadorCompilado evaluador = politica.compilar();
+        RegistroAsignatura matematicas = evaluador.registro("Ana", "Matemáticas", 7200, "2024-1");
+        RegistroAsignatura fisica = evaluador.registro("Ana", "Física", 7200, "2024-1");
+        assertFalse(matematicas.isAprobado());
+        assertTrue(fisica.isAprobado());
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            CompletableFuture.allOf(diario.registrar(matematicas), diario.registrar(fisica)).join();
+        }
+
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            EstadoAcademico estado = diario.getEstado();
+            assertEquals(1, estado.getIndice().consulta().aprobado(false).ejecutar().cantidad());
+            assertEquals(0, estado.getAgregados().deAsignatura("Matemáticas").getAprobadas());
+            assertEquals(1, estado.getAgregados().deEstudiante("Ana").getAprobadas());
+            List<EstadisticasGrupo> porAsignatura = EstadisticasCohorte.agrupadas(
+                    estado.getIndice().copiarFilas(), RegistroAsignatura::getAsignatura);
+            for (EstadisticasGrupo grupo : porAsignatura) {
+                assertEquals(grupo.getNombre().equals("Física") ? 1 : 0, grupo.getAprobados(), grupo.getNombre());
+            }
+
+            // La instantánea columnar también guarda el estado de cada fila
+            diario.compactar().join();
+        }
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            assertEquals(1, diario.getEstado().getAgregados().deEstudiante("Ana").getAprobadas());
+        }
+    }
+
+    @Test
+    void elDirectorioNoSePuedeAbrirDosVeces() throws IOException {
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            assertNotNull(diario.getEstado());
+            assertThrows(IOException.class, () -> DiarioCalificaciones.abrir(directorio));
+        }
+        DiarioCalificaciones.abrir(directorio).close();
+    }
+
+    private List<RegistroAsignatura> registrar(int desde, int cantidad) throws IOException {
+        try (DiarioCalificaciones diario = DiarioCalificaciones.abrir(directorio)) {
+            return registrarEn(diario, desde, cantidad);
+        }
+    }
+
+    private static List<RegistroAsignatura> registrarEn(DiarioCalificaciones diario, int desde, int cantidad) {
+        List<RegistroAsignatura> registros = new ArrayList<>(cantidad);
+        CompletableFuture<?>[] escrituras = new CompletableFuture<?>[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            int n = desde + i;
+            RegistroAsignatura registro = new RegistroAsignatura("Estudiante " + n % 37, "Asignatura " + n,
+                    n * 37 % (NotaFija.MAX + 1), "2024-" + (1 + n % 2));
+            registros.add(registro);
+            escrituras[i] = diario.registrar(registro);
+        }
+        CompletableFuture.allOf(escrituras).join();
+        return registros;
+    }
+}
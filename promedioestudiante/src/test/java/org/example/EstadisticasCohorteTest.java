@@ -0,0 +1,75 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EstadisticasCohorteTest {
+
+    @Test
+    void pocosGruposCoincideConLaReferencia() {
+        // Varias hojas fork/join con histogramas densos
+        comparar(300_000, 5, 1);
+    }
+
+    @Test
+    void muchosGruposCoincideConLaReferencia() {
+        // Un grupo por estudiante: agrupación por ordenación
+        comparar(200_000, 20_000, 2);
+    }
+
+    @Test
+    void gruposVaciosYNotasExtremas() {
+        int[] notas = {NotaFija.MIN, NotaFija.MAX, NotaFija.MAX, 7000};
+        int[] grupos = {0, 0, 2, 2};
+        String[] nombres = {"A", "B", "C"};
+        List<EstadisticasGrupo> paralelo = EstadisticasCohorte.calcular(notas, grupos, nombres);
+        assertIguales(EstadisticasCohorte.calcularSecuencial(notas, grupos, nombres), paralelo);
+        assertEquals(0, paralelo.get(1).getCantidad());
+        assertEquals(50.0, paralelo.get(0).getMediana());
+    }
+
+    @Test
+    void rechazaGruposYNotasFueraDeRango() {
+        String[] nombres = {"A"};
+        assertThrows(IllegalArgumentException.class,
+                () -> EstadisticasCohorte.calcular(new int[]{500}, new int[]{1}, nombres));
+        assertThrows(IllegalArgumentException.class,
+                () -> EstadisticasCohorte.calcular(new int[]{NotaFija.MAX + 1}, new int[]{0}, nombres));
+    }
+
+    private static void comparar(int filas, int numGrupos, long semilla) {
+        Random random = new Random(semilla);
+        int[] notas = new int[filas];
+        int[] grupos = new int[filas];
+        boolean[] aprobados = new boolean[filas];
+        int[] aprobadosPorGrupo = new int[numGrupos];
+        for (int i = 0; i < filas; i++) {
+            notas[i] = random.nextInt(NotaFija.MAX + 1);
+            grupos[i] = random.nextInt(numGrupos);
+            // Umbral propio de cada grupo, como el de una asignatura
+            aprobados[i] = notas[i] >= 5000 + grupos[i] % 5 * 1000;
+            if (aprobados[i]) aprobadosPorGrupo[grupos[i]]++;
+        }
+        String[] nombres = new String[numGrupos];
+        for (int g = 0; g < numGrupos; g++) nombres[g] = "Grupo " + g;
+        assertIguales(EstadisticasCohorte.calcularSecuencial(notas, grupos, nombres),
+                EstadisticasCohorte.calcular(notas, grupos, nombres));
+
+        List<EstadisticasGrupo> conEstados = EstadisticasCohorte.calcular(notas, grupos, nombres, aprobados);
+        assertIguales(EstadisticasCohorte.calcularSecuencial(notas, grupos, nombres, aprobados), conEstados);
+        for (int g = 0; g < numGrupos; g++) assertEquals(aprobadosPorGrupo[g], conEstados.get(g).getAprobados());
+    }
+
+    private static void assertIguales(List<EstadisticasGrupo> esperadas, List<EstadisticasGrupo> obtenidas) {
+        assertEquals(esperadas.size(), obtenidas.size());
+        for (int g = 0; g < esperadas.size(); g++) {
+            assertTrue(esperadas.get(g).mismosValores(obtenidas.get(g)), "grupo " + g);
+        }
+    }
+}
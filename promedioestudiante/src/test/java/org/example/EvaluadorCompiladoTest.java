@@ -0,0 +1,102 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluadorCompiladoTest {
+    private static final String[] ASIGNATURAS = {"Matemáticas", "Física", "Historia"};
+
+    @Test
+    void coincideConLaReferenciaEnBigDecimal() {
+        Random random = new Random(5);
+        for (int ronda = 0; ronda < 300; ronda++) {
+            int componentes = 1 + random.nextInt(6);
+            String[] nombres = new String[componentes];
+            int[] pesos = new int[componentes];
+            for (int k = 0; k < componentes; k++) {
+                nombres[k] = "Evaluación " + (k + 1);
+                pesos[k] = 1 + random.nextInt(ronda % 2 == 0 ? 3 : 100);
+            }
+            int descartar = random.nextInt(componentes);
+            int umbral = random.nextInt(NotaFija.MAX + 1);
+            Map<String, Integer> umbrales = Collections.singletonMap(ASIGNATURAS[0], random.nextInt(NotaFija.MAX + 1));
+            PoliticaCalificacion politica = new PoliticaCalificacion("Prueba", nombres, pesos, descartar, umbral, umbrales);
+            EvaluadorCompilado evaluador = politica.compilar();
+
+            int n = 200;
+            int[][] columnas = new int[componentes][n];
+            int[] codigos = new int[n];
+            for (int i = 0; i < n; i++) {
+                for (int k = 0; k < componentes; k++) {
+                    // Muchos empates y valores extremos para ejercitar descartes y redondeos
+                    columnas[k][i] = random.nextInt(4) == 0 ? 100 * random.nextInt(101) : random.nextInt(NotaFija.MAX + 1);
+                }
+                codigos[i] = evaluador.codigoAsignatura(ASIGNATURAS[random.nextInt(ASIGNATURAS.length)]);
+            }
+
+            int[] promedios = new int[n];
+            boolean[] aprobados = new boolean[n];
+            int total = evaluador.evaluar(columnas, codigos, promedios, aprobados);
+            int totalEsperado = 0;
+            for (int i = 0; i < n; i++) {
+                int[] notas = new int[componentes];
+                for (int k = 0; k < componentes; k++) notas[k] = columnas[k][i];
+                int umbralAlumno = codigos[i] < 0 ? umbral : umbrales.get(ASIGNATURAS[0]);
+                BigDecimal media = mediaReferencia(notas, pesos, descartar);
+                boolean aprobado = media.compareTo(BigDecimal.valueOf(umbralAlumno)) >= 0;
+                int promedio = media.setScale(0, RoundingMode.HALF_UP).intValueExact();
+                if (aprobado) totalEsperado++;
+
+                String caso = "ronda " + ronda + ", notas " + Arrays.toString(notas) + ", pesos " + Arrays.toString(pesos);
+                assertEquals(promedio, promedios[i], caso);
+                assertEquals(aprobado, aprobados[i], caso);
+                assertEquals(promedio, evaluador.promedioCentesimas(notas), caso);
+                assertEquals(aprobado, evaluador.aprobado(notas, codigos[i]), caso);
+            }
+            assertEquals(totalEsperado, total);
+        }
+    }
+
+    @Test
+    void rechazaNotasFueraDeRango() {
+        EvaluadorCompilado evaluador = PoliticaCalificacion.predeterminada().compilar();
+        int componentes = evaluador.getNumComponentes();
+        int[][] columnas = new int[componentes][1];
+        columnas[componentes - 1][0] = NotaFija.MAX + 1;
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluador.evaluar(columnas, null, new int[1], new boolean[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluador.evaluar(new int[componentes + 1][1], null, new int[1], new boolean[1]));
+    }
+
+    /**
+     * Media ponderada exacta en centésimas tras descartar las notas más bajas;
+     * entre notas iguales se descarta la de la última evaluación.
+     */
+    private static BigDecimal mediaReferencia(int[] notas, int[] pesos, int descartar) {
+        Integer[] orden = new Integer[notas.length];
+        for (int k = 0; k < orden.length; k++) orden[k] = k;
+        Arrays.sort(orden, Comparator.<Integer>comparingInt(k -> notas[k]).thenComparing(Comparator.reverseOrder()));
+        boolean[] descartada = new boolean[notas.length];
+        for (int d = 0; d < descartar; d++) descartada[orden[d]] = true;
+
+        BigDecimal suma = BigDecimal.ZERO;
+        BigDecimal peso = BigDecimal.ZERO;
+        for (int k = 0; k < notas.length; k++) {
+            if (descartada[k]) continue;
+            suma = suma.add(BigDecimal.valueOf(pesos[k]).multiply(BigDecimal.valueOf(notas[k])));
+            peso = peso.add(BigDecimal.valueOf(pesos[k]));
+        }
+        return suma.divide(peso, 20, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistorialVersionadoTest {
+    private static final RegistroAsignatura ANA_FISICA = new RegistroAsignatura("Ana", "Física", 8000, "2024-1");
+    private static final RegistroAsignatura ANA_QUIMICA = new RegistroAsignatura("Ana", "Química", 6000, "2024-1");
+    private static final RegistroAsignatura LUIS_FISICA = new RegistroAsignatura("Luis", "Física", 9000, "2024-1");
+
+    @Test
+    void enFechaDevuelveLaUltimaVersionHastaEseInstante() {
+        HistorialVersionado historial = new HistorialVersionado();
+        historial.agregar(0, ANA_FISICA, 1000);
+        historial.agregar(1, LUIS_FISICA, 2000);
+        historial.agregar(2, ANA_QUIMICA, 3000);
+        historial.quitar(0, ANA_FISICA, 4000);
+
+        assertTrue(historial.enFecha(999).todas().isEmpty());
+        assertEquals(List.of(ANA_FISICA), historial.enFecha(1000).todas());
+        assertEquals(List.of(ANA_FISICA), historial.enFecha(1999).de("ana"));
+        assertEquals(List.of(ANA_FISICA, ANA_QUIMICA), historial.enFecha(3500).de("ANA"));
+        assertEquals(List.of(ANA_QUIMICA), historial.enFecha(4000).de("Ana"));
+        assertEquals(List.of(LUIS_FISICA), historial.enFecha(Long.MAX_VALUE).de("Luis"));
+        assertEquals(4, historial.enFecha(4000).getNumero());
+        assertEquals(3000, historial.enFecha(3999).getFecha());
+    }
+
+    @Test
+    void cambiosDelMismoMilisegundoFormanUnaVersion() {
+        HistorialVersionado historial = new HistorialVersionado();
+        historial.agregar(0, ANA_FISICA, 1000);
+        historial.agregar(1, LUIS_FISICA, 1000);
+        historial.agregar(2, ANA_QUIMICA, 1001);
+        assertEquals(2, historial.cantidadVersiones());
+        assertEquals(2, historial.enFecha(1000).tamano());
+        assertEquals(3, historial.actual().tamano());
+    }
+
+    @Test
+    void lasFechasNoRetroceden() {
+        HistorialVersionado historial = new HistorialVersionado();
+        historial.agregar(0, ANA_FISICA, 2000);
+        // Un cambio con una fecha anterior (otro reloj, otro hilo) se publica en la fecha de la versión vigente
+        historial.agregar(1, LUIS_FISICA, 1500);
+        assertEquals(2000, historial.actual().getFecha());
+        assertTrue(historial.enFecha(1999).todas().isEmpty());
+        assertEquals(2, historial.enFecha(2000).tamano());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+
+    @Test
+    void escapeUnicodeConCuatroDigitos() {
+        assertEquals("Añb", Json.leer("\"A\\u00f1\\u0062\""));
+        assertEquals("\u00D1", Json.leer("\"\\u00D1\""));
+    }
+
+    @Test
+    void rechazaEscapesUnicodeMalFormados() {
+        for (String escape : new String[]{"\\u+041", "\\u-041", "\\u004", "\\u00g1", "\\u\uFF10041"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.leer("\"" + escape + "\""), escape);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MapaBitsTest {
+    private static final int FILAS = 400_000; // Varios bloques de 65536 filas
+
+    @Test
+    void operacionesCoincidenConBitSet() {
+        Random random = new Random(11);
+        for (int ronda = 0; ronda < 20; ronda++) {
+            // Densidades distintas para mezclar bloques en arreglo y en mapa de bits
+            BitSet a = aleatorio(random, random.nextInt(200_000));
+            BitSet b = aleatorio(random, random.nextInt(200_000));
+            MapaBits mapaA = desde(a);
+            MapaBits mapaB = desde(b);
+            assertIgual(a, mapaA);
+
+            BitSet y = (BitSet) a.clone();
+            y.and(b);
+            assertIgual(y, mapaA.y(mapaB));
+
+            BitSet yNo = (BitSet) a.clone();
+            yNo.andNot(b);
+            assertIgual(yNo, mapaA.yNo(mapaB));
+
+            BitSet pares = new BitSet();
+            a.stream().filter(fila -> fila % 2 == 0).forEach(pares::set);
+            assertIgual(pares, mapaA.filtrar(fila -> fila % 2 == 0));
+
+            for (int k = 0; k < 1000; k++) {
+                int fila = random.nextInt(FILAS);
+                assertEquals(a.get(fila), mapaA.contiene(fila), "fila " + fila);
+            }
+        }
+    }
+
+    @Test
+    void agregarYQuitarCoincidenConBitSet() {
+        Random random = new Random(12);
+        BitSet esperado = new BitSet();
+        MapaBits mapa = new MapaBits();
+        for (int k = 0; k < 400_000; k++) {
+            // Filas concentradas en pocos bloques para que pasen de arreglo a mapa de bits y vuelvan
+            int fila = random.nextInt(3) * 65_536 + random.nextInt(12_000);
+            if (random.nextInt(3) > 0) {
+                mapa.agregar(fila);
+                esperado.set(fila);
+            } else {
+                assertEquals(esperado.get(fila), mapa.quitar(fila), "fila " + fila);
+                esperado.clear(fila);
+            }
+        }
+        assertIgual(esperado, mapa);
+
+        // Vaciar del todo elimina los bloques
+        esperado.stream().forEach(mapa::quitar);
+        assertEquals(0, mapa.cardinalidad());
+        assertArrayEquals(new int[0], mapa.aArreglo());
+    }
+
+    @Test
+    void rangoYDeFilas() {
+        int[][] rangos = {{0, 0}, {0, 1}, {65_530, 65_542}, {100, 70_000}, {65_536, 131_072}, {5, 200_001}};
+        for (int[] rango : rangos) {
+            BitSet esperado = new BitSet();
+            esperado.set(rango[0], rango[1]);
+            assertIgual(esperado, MapaBits.rango(rango[0], rango[1]));
+        }
+
+        int[] filas = {70_000, 3, 65_536, 3, 9, 131_071};
+        BitSet esperado = new BitSet();
+        for (int i = 0; i < 5; i++) esperado.set(filas[i]);
+        assertIgual(esperado, MapaBits.deFilas(filas, 5));
+    }
+
+    private static BitSet aleatorio(Random random, int cantidad) {
+        BitSet bits = new BitSet(FILAS);
+        for (int i = 0; i < cantidad; i++) bits.set(random.nextInt(FILAS));
+        return bits;
+    }
+
+    private static MapaBits desde(BitSet bits) {
+        MapaBits mapa = new MapaBits();
+        bits.stream().forEach(mapa::agregar);
+        return mapa;
+    }
+
+    private static void assertIgual(BitSet esperado, MapaBits mapa) {
+        assertEquals(esperado.cardinality(), mapa.cardinalidad());
+        assertArrayEquals(esperado.stream().toArray(), mapa.aArreglo());
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistroEstudiantesTest {
+    private static final int HILOS = 8;
+    private static final int NOMBRES = 500;
+    private static final int OPERACIONES_POR_HILO = 20_000;
+
+    @Test
+    void escritoresConcurrentesNoPierdenActualizaciones() throws Exception {
+        RegistroEstudiantes registro = new RegistroEstudiantes();
+        long[] registrosPorNombre = new long[NOMBRES];
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            Future<?>[] tareas = new Future<?>[HILOS];
+            long[][] porHilo = new long[HILOS][NOMBRES];
+            for (int h = 0; h < HILOS; h++) {
+                int hilo = h;
+                tareas[h] = pool.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                        int n = (i * 31 + hilo * 7) % NOMBRES;
+                        // Los hilos usan mayúsculas distintas para el mismo estudiante
+                        String nombre = hilo % 2 == 0 ? "Estudiante " + n : " ESTUDIANTE " + n + " ";
+                        if (i % 3 == 0) {
+                            Estudiante actual = registro.buscar(nombre);
+                            if (actual != null) {
+                                // Incremento de lectura-modificación-escritura sobre la entrada bloqueada
+                                registro.actualizar(actual.getId(), e -> new Estudiante(e.getId(), e.getNombre(),
+                                        e.getNotasCentesimas(), e.getPromedioCentesimas(), e.isAprobado(), e.getVersion() + 1));
+                                porHilo[hilo][n]++;
+                                continue;
+                            }
+                        }
+                        registro.registrar(nombre, new int[]{n, n, n}, n, false);
+                        porHilo[hilo][n]++;
+                    }
+                    return null;
+                });
+            }
+            salida.countDown();
+            for (Future<?> tarea : tareas) tarea.get(60, TimeUnit.SECONDS);
+            for (long[] conteos : porHilo) {
+                for (int n = 0; n < NOMBRES; n++) registrosPorNombre[n] += conteos[n];
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(NOMBRES, registro.tamano());
+        Set<Long> ids = new HashSet<>();
+        for (int n = 0; n < NOMBRES; n++) {
+            Estudiante estudiante = registro.buscar("estudiante " + n);
+            assertNotNull(estudiante, "estudiante " + n);
+            assertTrue(ids.add(estudiante.getId()), "identificador repetido " + estudiante.getId());
+            assertTrue(estudiante.getId() >= 1 && estudiante.getId() <= NOMBRES);
+            // Cada registro y cada actualización suman exactamente una versión
+            assertEquals(registrosPorNombre[n], estudiante.getVersion(), "versiones de estudiante " + n);
+            assertEquals(n, estudiante.getPromedioCentesimas());
+        }
+        assertEquals(0, registro.contarAprobados());
+    }
+
+    @Test
+    void agregadosConcurrentesVenEstudiantesCompletos() throws Exception {
+        RegistroEstudiantes registro = new RegistroEstudiantes();
+        int estudiantes = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            Future<?>[] tareas = new Future<?>[HILOS];
+            for (int h = 0; h < HILOS; h++) {
+                int hilo = h;
+                tareas[h] = pool.submit(() -> {
+                    for (int i = hilo; i < estudiantes; i += HILOS) {
+                        registro.registrar(String.format(Locale.ROOT, "E%05d", i), new int[]{i % 10_001},
+                                i % 10_001, i % 2 == 0);
+                        // Lecturas concurrentes: nunca un estudiante a medias
+                        if (i % 1000 == 0) registro.recorrer(e -> assertEquals(e.getNotaCentesimas(0), e.getPromedioCentesimas()));
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> tarea : tareas) tarea.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Estudiante> copia = registro.copiar();
+        assertEquals(estudiantes, copia.size());
+        assertEquals(estudiantes / 2, registro.contarAprobados());
+        long suma = 0;
+        for (int i = 0; i < estudiantes; i++) suma += i % 10_001;
+        assertEquals(MotorCalificaciones.promedioCentesimas(suma, estudiantes), registro.promedioGeneralCentesimas());
+    }
+}